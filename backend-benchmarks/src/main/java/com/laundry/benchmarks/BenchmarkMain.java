@@ -0,0 +1,28 @@
+package com.laundry.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Same command line as the stock JMH main, but results default to JSON in target/jmh-result.json
+// so runs from different releases can be diffed
+public class BenchmarkMain {
+    
+    private static final String DEFAULT_RESULT = "target/jmh-result.json";
+    
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(cli);
+        if (!cli.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            builder.result(DEFAULT_RESULT);
+        }
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
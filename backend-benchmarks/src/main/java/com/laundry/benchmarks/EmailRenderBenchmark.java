@@ -0,0 +1,68 @@
+package com.laundry.benchmarks;
+
+import com.laundry.mail.EmailTemplates;
+import com.laundry.mail.RenderedEmail;
+import com.laundry.model.Booking;
+import com.laundry.model.Household;
+import com.laundry.model.User;
+import com.laundry.service.CalendarVersion;
+import com.laundry.service.EmailService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailRenderBenchmark {
+    
+    private EmailService emailService;
+    private CalendarVersion calendarVersion;
+    private List<User> users;
+    private List<Booking> weekBookings;
+    private int next;
+    
+    @Setup
+    public void setup() throws Exception {
+        EmailTemplates templates = new EmailTemplates();
+        templates.load();
+        calendarVersion = new CalendarVersion();
+        ReflectionTestUtils.setField(calendarVersion, "householdRepository", InMemoryRepositories.households());
+        
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "templates", templates);
+        ReflectionTestUtils.setField(emailService, "calendarVersion", calendarVersion);
+        
+        users = Fixtures.users(16);
+        weekBookings = Fixtures.hourlyBookings(users, LocalDateTime.now(), 6);
+    }
+    
+    private User nextRecipient() {
+        next = (next + 1) % users.size();
+        return users.get(next);
+    }
+    
+    // Marginal cost of one more digest recipient once the schedule table is cached
+    @Benchmark
+    public RenderedEmail weeklyDigestPerRecipient() {
+        return emailService.renderWeeklySchedule(nextRecipient(), weekBookings);
+    }
+    
+    // First recipient after a booking change: the shared table is rebuilt
+    @Benchmark
+    public RenderedEmail weeklyDigestAfterCalendarChange() {
+        calendarVersion.bump(Household.DEFAULT_ID);
+        return emailService.renderWeeklySchedule(nextRecipient(), weekBookings);
+    }
+    
+    @Benchmark
+    public RenderedEmail reminder() {
+        return emailService.renderReminder(weekBookings.get(next++ % weekBookings.size()), 15);
+    }
+}
@@ -0,0 +1,56 @@
+package com.laundry.benchmarks;
+
+import com.laundry.model.Booking;
+import com.laundry.model.Household;
+import com.laundry.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Fixtures {
+    
+    private Fixtures() {
+    }
+    
+    public static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            User user = new User();
+            user.setId((long) i);
+            user.setHouseholdId(Household.DEFAULT_ID);
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setFirstName(i % 3 == 0 ? null : "First" + i);
+            user.setLastName(i % 2 == 0 ? null : "Last" + i);
+            users.add(user);
+        }
+        return users;
+    }
+    
+    // Back-to-back bookings every hour of operating hours, starting at the next hour
+    public static List<Booking> hourlyBookings(List<User> users, LocalDateTime from, int days) {
+        List<Booking> bookings = new ArrayList<>();
+        LocalDateTime day = from.withHour(0).withMinute(0).withSecond(0).withNano(0);
+        long id = 1;
+        for (int d = 0; d <= days; d++) {
+            for (int hour = 6; hour < 23; hour++) {
+                LocalDateTime start = day.plusDays(d).withHour(hour);
+                if (start.isBefore(from)) {
+                    continue;
+                }
+                Booking booking = new Booking();
+                booking.setId(id);
+                booking.setUser(users.get((int) (id % users.size())));
+                booking.setHouseholdId(Household.DEFAULT_ID);
+                booking.setStartTime(start);
+                booking.setEndTime(start.plusHours(1));
+                booking.setNotes(id % 4 == 0 ? "Delicates, cold wash" : null);
+                booking.setCreatedAt(start.minusDays(2));
+                bookings.add(booking);
+                id++;
+            }
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,109 @@
+package com.laundry.benchmarks;
+
+import com.laundry.model.Booking;
+import com.laundry.model.BookingSeries;
+import com.laundry.model.User;
+import com.laundry.repository.BookingRepository;
+import com.laundry.repository.BookingSeriesRepository;
+import com.laundry.repository.HouseholdRepository;
+import com.laundry.repository.UserRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Dynamic-proxy repositories backed by plain lists. Only the query methods the benchmarks
+// reach are implemented; anything else fails loudly so a stale benchmark is noticed. Every
+// fixture is in one household, so the household argument is not filtered on.
+public final class InMemoryRepositories {
+    
+    private InMemoryRepositories() {
+    }
+    
+    public static BookingRepository bookings(List<Booking> bookings) {
+        return (BookingRepository) Proxy.newProxyInstance(
+            BookingRepository.class.getClassLoader(),
+            new Class<?>[] { BookingRepository.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "findOverlappingBookings" -> overlapping(bookings, (LocalDateTime) args[1], (LocalDateTime) args[2]);
+                case "findBookingsInRange" -> bookings.stream()
+                    .filter(b -> !b.getStartTime().isBefore((LocalDateTime) args[1]) && !b.getEndTime().isAfter((LocalDateTime) args[2]))
+                    .toList();
+                case "findById" -> bookings.stream().filter(b -> b.getId().equals(args[0])).findFirst();
+                case "toString" -> "InMemoryBookingRepository";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+    
+    public static BookingSeriesRepository bookingSeries(List<BookingSeries> series) {
+        return (BookingSeriesRepository) Proxy.newProxyInstance(
+            BookingSeriesRepository.class.getClassLoader(),
+            new Class<?>[] { BookingSeriesRepository.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "findActiveBetween" -> series.stream()
+                    .filter(s -> s.getStartTime().isBefore((LocalDateTime) args[2])
+                        && (s.getLastEnd() == null || s.getLastEnd().isAfter((LocalDateTime) args[1])))
+                    .toList();
+                case "toString" -> "InMemoryBookingSeriesRepository";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+    
+    public static UserRepository users(List<User> users) {
+        return (UserRepository) Proxy.newProxyInstance(
+            UserRepository.class.getClassLoader(),
+            new Class<?>[] { UserRepository.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "findById" -> users.stream().filter(u -> Objects.equals(u.getId(), args[0])).findFirst();
+                case "findAll" -> users;
+                case "toString" -> "InMemoryUserRepository";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+    
+    // Just the calendar version of the one fixture household
+    public static HouseholdRepository households() {
+        AtomicLong version = new AtomicLong(1);
+        LocalDateTime modifiedAt = LocalDateTime.now();
+        HouseholdRepository.CalendarState state = new HouseholdRepository.CalendarState() {
+            @Override
+            public long getCalendarVersion() {
+                return version.get();
+            }
+            
+            @Override
+            public LocalDateTime getCalendarModifiedAt() {
+                return modifiedAt;
+            }
+        };
+        return (HouseholdRepository) Proxy.newProxyInstance(
+            HouseholdRepository.class.getClassLoader(),
+            new Class<?>[] { HouseholdRepository.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "findCalendarState" -> Optional.of(state);
+                case "bumpCalendarVersion", "bumpAllCalendarVersions" -> {
+                    version.incrementAndGet();
+                    yield 1;
+                }
+                case "toString" -> "InMemoryHouseholdRepository";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+    
+    private static List<Booking> overlapping(List<Booking> bookings, LocalDateTime start, LocalDateTime end) {
+        return bookings.stream()
+            .filter(b -> b.getStartTime().isBefore(end) && b.getEndTime().isAfter(start))
+            .toList();
+    }
+}
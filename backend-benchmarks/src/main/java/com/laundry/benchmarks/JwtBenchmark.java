@@ -0,0 +1,54 @@
+package com.laundry.benchmarks;
+
+import com.laundry.model.Household;
+import com.laundry.security.JwtTokenProvider;
+import com.laundry.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    
+    private JwtTokenProvider tokenProvider;
+    private Authentication authentication;
+    private String token;
+    
+    @Setup
+    public void setup() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "benchmark-secret-key-that-is-at-least-256-bits-long");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 86_400_000L);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+        
+        UserPrincipal principal = new UserPrincipal(42L, Household.DEFAULT_ID, "benchmark", "benchmark@example.com", "", false, false);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = tokenProvider.generateToken(authentication);
+    }
+    
+    @Benchmark
+    public String generate() {
+        return tokenProvider.generateToken(authentication);
+    }
+    
+    @Benchmark
+    public boolean validate() {
+        return tokenProvider.validateToken(token);
+    }
+    
+    // What JwtAuthenticationFilter does on every authenticated request
+    @Benchmark
+    public Long validateAndExtractUserId() {
+        Claims claims = tokenProvider.parseToken(token);
+        return claims != null ? tokenProvider.getUserId(claims) : null;
+    }
+}
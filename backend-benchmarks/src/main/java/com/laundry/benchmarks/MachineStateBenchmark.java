@@ -0,0 +1,45 @@
+package com.laundry.benchmarks;
+
+import com.laundry.ha.MachineStates;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MachineStateBenchmark {
+    
+    // A representative mix of raw states seen from LG/Samsung integrations
+    private final String[] machineStates = { "Run", "Running", "Idle", "Standby", "Rinse", "Spin", null };
+    private final String[] subCycleStates = { "Fill", "Wash", null };
+    private final String[] timeStates = { "42.5", "0", "unknown", "", "17.25", "unavailable" };
+    private final String[] switchStates = { "on", "off", "ON", "unavailable" };
+    
+    @Benchmark
+    public void normalizeStatus(Blackhole blackhole) {
+        for (String machineState : machineStates) {
+            for (String subCycleState : subCycleStates) {
+                blackhole.consume(MachineStates.normalizeStatus(machineState, subCycleState));
+            }
+        }
+    }
+    
+    @Benchmark
+    public void parseMinutes(Blackhole blackhole) {
+        for (String state : timeStates) {
+            blackhole.consume(MachineStates.parseMinutes(state));
+        }
+    }
+    
+    @Benchmark
+    public void isOn(Blackhole blackhole) {
+        for (String state : switchStates) {
+            blackhole.consume(MachineStates.isOn(state));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.laundry.service;
+
+import com.laundry.model.BookingSeries;
+import com.laundry.model.Machine;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Overlap check of a new open-ended series against the existing ones; lives in
+// com.laundry.service to reach the package-private BookingSeriesService.seriesOverlap
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingSeriesBenchmark {
+    
+    private BookingSeries candidate;
+    private List<BookingSeries> household;
+    private BookingSeries coprimeA;
+    private BookingSeries coprimeB;
+    
+    @Setup
+    public void setup() {
+        LocalDateTime monday = LocalDateTime.of(2030, 1, 7, 0, 0);
+        
+        // A building's weekly rota: one two-hour slot per day and evening for each household
+        candidate = series(monday.withHour(20), 120, "FREQ=WEEKLY;BYDAY=MO");
+        household = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            for (int hour = 8; hour < 20; hour += 2) {
+                household.add(series(monday.plusDays(day).withHour(hour), 120, "FREQ=WEEKLY"));
+            }
+        }
+        
+        // Same time of day with periods whose joint repetition is about 50 years long
+        coprimeA = series(monday.withHour(9), 60, "FREQ=WEEKLY;INTERVAL=51");
+        coprimeB = series(monday.plusDays(1).withHour(9), 60, "FREQ=DAILY;INTERVAL=52");
+    }
+    
+    @Benchmark
+    public int overlapAgainstRota() {
+        int conflicts = 0;
+        for (BookingSeries existing : household) {
+            if (BookingSeriesService.seriesOverlap(candidate, existing)) {
+                conflicts++;
+            }
+        }
+        return conflicts;
+    }
+    
+    @Benchmark
+    public boolean overlapCoprimePeriods() {
+        return BookingSeriesService.seriesOverlap(coprimeA, coprimeB);
+    }
+    
+    private static BookingSeries series(LocalDateTime start, int durationMinutes, String rrule) {
+        BookingSeries series = new BookingSeries();
+        series.setStartTime(start);
+        series.setDurationMinutes(durationMinutes);
+        series.setRrule(rrule);
+        series.setMachines(Set.of(Machine.WASHER, Machine.DRYER));
+        return series;
+    }
+}
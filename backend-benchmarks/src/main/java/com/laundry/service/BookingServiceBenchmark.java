@@ -0,0 +1,85 @@
+package com.laundry.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.laundry.benchmarks.Fixtures;
+import com.laundry.benchmarks.InMemoryRepositories;
+import com.laundry.dto.BookingResponse;
+import com.laundry.model.Booking;
+import com.laundry.model.Household;
+import com.laundry.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Lives in com.laundry.service to reach the package-private search and mapping methods
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    
+    // Days of back-to-back bookings the next-available search has to skip over
+    @Param({"0", "3", "6"})
+    public int bookedDays;
+    
+    private BookingService bookingService;
+    private List<Booking> weekBookings;
+    private ObjectMapper objectMapper;
+    
+    @Setup
+    public void setup() {
+        List<User> users = Fixtures.users(8);
+        List<Booking> bookings = bookedDays == 0
+            ? new ArrayList<>()
+            : Fixtures.hourlyBookings(users, LocalDateTime.now(), bookedDays - 1);
+        
+        BookingSeriesService seriesService = new BookingSeriesService();
+        ReflectionTestUtils.setField(seriesService, "seriesRepository", InMemoryRepositories.bookingSeries(new ArrayList<>()));
+        
+        bookingService = new BookingService();
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", InMemoryRepositories.bookings(bookings));
+        ReflectionTestUtils.setField(bookingService, "seriesService", seriesService);
+        ReflectionTestUtils.setField(bookingService, "slotHolds", new SlotHolds(300, 2, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(bookingService, "userRepository", InMemoryRepositories.users(users));
+        ReflectionTestUtils.setField(bookingService, "bookingMetrics", new BookingMetrics(new SimpleMeterRegistry()));
+        
+        weekBookings = Fixtures.hourlyBookings(users, LocalDateTime.now(), 6);
+        objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    }
+    
+    @Benchmark
+    public LocalDateTime findNextAvailableSlot() {
+        return bookingService.findNextAvailableSlot(Household.DEFAULT_ID, 120);
+    }
+    
+    @Benchmark
+    public LocalDateTime findNextWashThenDrySlot() {
+        return bookingService.findNextWashThenDrySlot(Household.DEFAULT_ID, 60, 60);
+    }
+    
+    @Benchmark
+    public List<BookingResponse> convertWeek() {
+        List<BookingResponse> responses = new ArrayList<>(weekBookings.size());
+        for (Booking booking : weekBookings) {
+            responses.add(bookingService.convertToResponse(booking));
+        }
+        return responses;
+    }
+    
+    @Benchmark
+    public byte[] convertAndSerializeWeek() throws Exception {
+        return objectMapper.writeValueAsBytes(convertWeek());
+    }
+}
@@ -0,0 +1,80 @@
+package com.laundry.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency and outcome counters for one endpoint. Latencies are recorded in microseconds.
+public class EndpointStats {
+    
+    private final String name;
+    private final String controller;
+    private final Recorder recorder = new Recorder(3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private Histogram measured;
+    
+    public EndpointStats(String name, String controller) {
+        this.name = name;
+        this.controller = controller;
+    }
+    
+    public void record(long latencyNanos, Outcome outcome) {
+        recorder.recordValue(Math.max(1, latencyNanos / 1000));
+        requests.increment();
+        if (outcome == Outcome.ERROR) {
+            errors.increment();
+        } else if (outcome == Outcome.REJECTED) {
+            rejections.increment();
+        }
+    }
+    
+    // Drops everything recorded so far, used at the end of warm-up
+    public void reset() {
+        recorder.reset();
+        requests.reset();
+        errors.reset();
+        rejections.reset();
+    }
+    
+    public void finish() {
+        measured = recorder.getIntervalHistogram();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getController() {
+        return controller;
+    }
+    
+    public long getRequests() {
+        return requests.sum();
+    }
+    
+    public long getErrors() {
+        return errors.sum();
+    }
+    
+    public long getRejections() {
+        return rejections.sum();
+    }
+    
+    public double percentileMs(double percentile) {
+        return measured.getValueAtPercentile(percentile) / 1000.0;
+    }
+    
+    public double maxMs() {
+        return measured.getMaxValue() / 1000.0;
+    }
+    
+    public enum Outcome {
+        OK,
+        // Expected business refusal, such as losing a race for a slot
+        REJECTED,
+        ERROR
+    }
+}
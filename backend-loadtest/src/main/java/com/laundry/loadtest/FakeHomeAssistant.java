@@ -0,0 +1,96 @@
+package com.laundry.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Serves GET /api/states/{entity_id} like Home Assistant's REST API. The washer runs a cycle
+// every few minutes so the status endpoints see changing states; latency is configurable.
+public class FakeHomeAssistant implements AutoCloseable {
+    
+    public static final String TOKEN = "loadtest-token";
+    
+    private final HttpServer server;
+    private final Duration latency;
+    private final AtomicLong requests = new AtomicLong();
+    private final long startedAt = System.currentTimeMillis();
+    
+    public FakeHomeAssistant(Duration latency) throws IOException {
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/api/states/", this::handle);
+        this.server.setExecutor(Executors.newFixedThreadPool(8));
+        this.server.start();
+    }
+    
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+    
+    public long requestCount() {
+        return requests.get();
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        String auth = exchange.getRequestHeaders().getFirst("Authorization");
+        if (!("Bearer " + TOKEN).equals(auth)) {
+            respond(exchange, 401, "{\"message\":\"Unauthorized\"}");
+            return;
+        }
+        
+        String entityId = exchange.getRequestURI().getPath().substring("/api/states/".length());
+        String state = stateOf(entityId);
+        respond(exchange, 200, "{\"entity_id\":\"" + entityId + "\",\"state\":\"" + state + "\",\"attributes\":{}}");
+    }
+    
+    private String stateOf(String entityId) {
+        // Five minute cycle: three minutes running, then idle
+        long secondsIntoCycle = ((System.currentTimeMillis() - startedAt) / 1000) % 300;
+        boolean washer = entityId.contains("zt300866n");
+        boolean running = washer ? secondsIntoCycle < 180 : secondsIntoCycle >= 120;
+        if (entityId.endsWith("_remote_status")) {
+            return running ? "on" : "off";
+        }
+        if (entityId.endsWith("_end_of_cycle")) {
+            return "off";
+        }
+        if (entityId.endsWith("_time_remaining")) {
+            return running ? String.format("%.1f", (300 - secondsIntoCycle) / 60.0) : "0";
+        }
+        if (entityId.endsWith("_machine_state")) {
+            return running ? "Run" : "Idle";
+        }
+        if (entityId.endsWith("_sub_cycle")) {
+            return running ? "Wash" : "unknown";
+        }
+        return "unknown";
+    }
+    
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,107 @@
+package com.laundry.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Minimal SMTP stand-in: accepts every message without auth or TLS, counts sessions and
+// messages, and can add latency per message to mimic a slow relay
+public class FakeSmtpServer implements AutoCloseable {
+    
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool();
+    private final Duration latency;
+    private final AtomicLong sessions = new AtomicLong();
+    private final AtomicLong messages = new AtomicLong();
+    private volatile boolean running = true;
+    
+    public FakeSmtpServer(Duration latency) throws IOException {
+        this.latency = latency;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "fake-smtp-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+    
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+    
+    public long sessionCount() {
+        return sessions.get();
+    }
+    
+    public long messageCount() {
+        return messages.get();
+    }
+    
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("[fake-smtp] accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private void handle(Socket socket) {
+        sessions.incrementAndGet();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            reply(out, "220 localhost fake SMTP ready");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Message content is discarded
+                        }
+                        Thread.sleep(latency.toMillis());
+                        messages.incrementAndGet();
+                        reply(out, "250 OK queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void reply(Writer out, String line) throws IOException {
+        out.write(line + "\r\n");
+        out.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+}
@@ -0,0 +1,177 @@
+package com.laundry.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Thin HTTP client for the backend API that times every call against its endpoint template
+public class LaundryClient {
+    
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    
+    private final String baseUrl;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    
+    public LaundryClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    }
+    
+    public Map<String, EndpointStats> getStats() {
+        return stats;
+    }
+    
+    public String signUpAndSignIn(String username) {
+        String signup = json(Map.of(
+            "username", username,
+            "email", username + "@loadtest.local",
+            "password", "loadtest-password",
+            "firstName", "Load",
+            "lastName", username));
+        Result result = send("POST /auth/signup", post("/auth/signup", signup), null);
+        if (result.status() != 200) {
+            throw new IllegalStateException("Signup failed for " + username + ": " + result.body());
+        }
+        
+        String signin = json(Map.of("username", username, "password", "loadtest-password"));
+        result = send("POST /auth/signin", post("/auth/signin", signin), null);
+        if (result.status() != 200) {
+            throw new IllegalStateException("Signin failed for " + username + ": " + result.body());
+        }
+        return readTree(result.body()).get("accessToken").asText();
+    }
+    
+    public Result getBookings(String token, LocalDateTime start, LocalDateTime end) {
+        String query = "?start=" + encode(start.toString()) + "&end=" + encode(end.toString());
+        return send("GET /bookings", get("/bookings" + query), token);
+    }
+    
+    public Result getMyBookings(String token) {
+        return send("GET /bookings/my-bookings", get("/bookings/my-bookings"), token);
+    }
+    
+    public Result getMachine(String token, String machine) {
+        return send("GET /machines/" + machine, get("/machines/" + machine), token);
+    }
+    
+    public Result createBooking(String token, LocalDateTime start, LocalDateTime end) {
+        String body = json(Map.of("startTime", start.toString(), "endTime", end.toString(), "notes", "load test"));
+        return send("POST /bookings", post("/bookings", body), token);
+    }
+    
+    public Result bookNextAvailable(String token, int durationMinutes) {
+        String path = "/bookings/next-available?durationMinutes=" + durationMinutes + "&notes=" + encode("load test");
+        return send("POST /bookings/next-available", post(path, null), token);
+    }
+    
+    public Result deleteBooking(String token, long bookingId) {
+        return send("DELETE /bookings/{id}", HttpRequest.newBuilder(uri("/bookings/" + bookingId)).DELETE(), token);
+    }
+    
+    public Long bookingId(Result result) {
+        return result.status() == 200 ? readTree(result.body()).get("id").asLong() : null;
+    }
+    
+    private Result send(String endpoint, HttpRequest.Builder builder, String token) {
+        builder.timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, name -> new EndpointStats(name, controllerOf(name)));
+        
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            Result result = new Result(response.statusCode(), response.body());
+            endpointStats.record(elapsed, classify(result));
+            return result;
+        } catch (IOException e) {
+            endpointStats.record(System.nanoTime() - start, EndpointStats.Outcome.ERROR);
+            return new Result(-1, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result(-1, "interrupted");
+        }
+    }
+    
+    // A 400 from losing a slot race or finding no free slot is the system working as intended
+    private EndpointStats.Outcome classify(Result result) {
+        if (result.status() >= 200 && result.status() < 300) {
+            return EndpointStats.Outcome.OK;
+        }
+        if (result.status() == 400 || result.status() == 409) {
+            String body = result.body() == null ? "" : result.body();
+            if (body.contains("overlaps") || body.contains("No available slots")) {
+                return EndpointStats.Outcome.REJECTED;
+            }
+        }
+        return EndpointStats.Outcome.ERROR;
+    }
+    
+    private static String controllerOf(String endpoint) {
+        String path = endpoint.substring(endpoint.indexOf(' ') + 1);
+        if (path.startsWith("/bookings")) {
+            return "BookingController";
+        }
+        if (path.startsWith("/machines")) {
+            return "MachineController";
+        }
+        if (path.startsWith("/auth")) {
+            return "AuthController";
+        }
+        return "other";
+    }
+    
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET();
+    }
+    
+    private HttpRequest.Builder post(String path, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path));
+        if (json == null) {
+            return builder.POST(HttpRequest.BodyPublishers.noBody());
+        }
+        return builder.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+    
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+    
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected response: " + body, e);
+        }
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+    
+    public record Result(int status, String body) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.laundry.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Command line options in --name=value form; every option has a default so a bare run works
+public class LoadTestConfig {
+    
+    private final Map<String, String> options = new HashMap<>();
+    
+    public LoadTestConfig(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+    }
+    
+    // Length of the measured run, after warm-up
+    public Duration duration() {
+        return duration("duration", "60s");
+    }
+    
+    public Duration warmup() {
+        return duration("warmup", "10s");
+    }
+    
+    public int users() {
+        return integer("users", 20);
+    }
+    
+    // Open browser tabs polling machine status
+    public int tabs() {
+        return integer("tabs", 10);
+    }
+    
+    public Duration pollInterval() {
+        return duration("poll-interval", "10s");
+    }
+    
+    public int dashboardUsers() {
+        return integer("dashboard-users", 5);
+    }
+    
+    public Duration thinkTime() {
+        return duration("think-time", "1s");
+    }
+    
+    // Users racing for the same slot in one booking burst
+    public int burstSize() {
+        return integer("burst-size", 5);
+    }
+    
+    public Duration burstInterval() {
+        return duration("burst-interval", "2s");
+    }
+    
+    public int nextAvailableUsers() {
+        return integer("next-available-users", 2);
+    }
+    
+    public Duration haLatency() {
+        return duration("ha-latency", "20ms");
+    }
+    
+    public Duration smtpLatency() {
+        return duration("smtp-latency", "50ms");
+    }
+    
+    public String report() {
+        return options.getOrDefault("report", "target/loadtest-report.json");
+    }
+    
+    public String baseline() {
+        return options.get("baseline");
+    }
+    
+    // Allowed relative p99 increase before an endpoint counts as regressed
+    public double maxP99Regression() {
+        return Double.parseDouble(options.getOrDefault("max-p99-regression", "0.25"));
+    }
+    
+    public double maxThroughputDrop() {
+        return Double.parseDouble(options.getOrDefault("max-throughput-drop", "0.20"));
+    }
+    
+    private int integer(String name, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, Integer.toString(defaultValue)));
+    }
+    
+    private Duration duration(String name, String defaultValue) {
+        String value = options.getOrDefault(name, defaultValue).trim().toLowerCase();
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofMillis(Long.parseLong(value));
+    }
+}
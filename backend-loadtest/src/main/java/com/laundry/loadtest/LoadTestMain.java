@@ -0,0 +1,241 @@
+package com.laundry.loadtest;
+
+import com.laundry.LaundrySchedulerApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Boots the full backend against embedded PostgreSQL, a fake Home Assistant and a fake SMTP
+// relay, drives a realistic traffic mix and reports per-endpoint latency and error rates.
+//
+//   mvn -q exec:java -Dexec.args="--duration=60s --users=20 --tabs=10 --baseline=baseline.json"
+public class LoadTestMain {
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig(args);
+        int exitCode;
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             FakeHomeAssistant homeAssistant = new FakeHomeAssistant(config.haLatency());
+             FakeSmtpServer smtp = new FakeSmtpServer(config.smtpLatency())) {
+            
+            // Passed as command line arguments so they take precedence over application.yml
+            String[] appArgs = applicationProperties(postgres, homeAssistant, smtp).entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+            ConfigurableApplicationContext app = new SpringApplicationBuilder(LaundrySchedulerApplication.class)
+                .run(appArgs);
+            try {
+                String port = app.getEnvironment().getProperty("local.server.port");
+                exitCode = new LoadTestMain(config, new LaundryClient("http://127.0.0.1:" + port + "/api")).run();
+            } finally {
+                System.out.printf("Fake Home Assistant served %d requests, fake SMTP accepted %d messages in %d sessions%n",
+                    homeAssistant.requestCount(), smtp.messageCount(), smtp.sessionCount());
+                app.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+    
+    private static Map<String, String> applicationProperties(EmbeddedPostgres postgres,
+                                                             FakeHomeAssistant homeAssistant,
+                                                             FakeSmtpServer smtp) {
+        return Map.ofEntries(
+            Map.entry("server.port", "0"),
+            Map.entry("spring.main.banner-mode", "off"),
+            Map.entry("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres")),
+            Map.entry("spring.datasource.username", "postgres"),
+            Map.entry("spring.datasource.password", "postgres"),
+            Map.entry("homeassistant.enabled", "true"),
+            Map.entry("homeassistant.base-url", homeAssistant.baseUrl()),
+            Map.entry("homeassistant.token", FakeHomeAssistant.TOKEN),
+            Map.entry("homeassistant.snapshot.file", "target/machine-snapshot.json"),
+            Map.entry("spring.mail.host", "127.0.0.1"),
+            Map.entry("spring.mail.port", Integer.toString(smtp.port())),
+            Map.entry("spring.mail.username", ""),
+            Map.entry("spring.mail.password", ""),
+            Map.entry("spring.mail.properties.mail.smtp.auth", "false"),
+            Map.entry("spring.mail.properties.mail.smtp.starttls.enable", "false"),
+            Map.entry("email.outbox.poll-interval-ms", "1000"),
+            Map.entry("logging.level.root", "WARN"),
+            Map.entry("logging.level.com.laundry", "WARN"),
+            Map.entry("logging.level.org.springframework.security", "WARN")
+        );
+    }
+    
+    private final LoadTestConfig config;
+    private final LaundryClient client;
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final AtomicInteger slotSequence = new AtomicInteger();
+    private final List<String> tokens = new ArrayList<>();
+    
+    private LoadTestMain(LoadTestConfig config, LaundryClient client) {
+        this.config = config;
+        this.client = client;
+    }
+    
+    private int run() throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < config.users(); i++) {
+            tokens.add(client.signUpAndSignIn("lt" + runId + "u" + i));
+        }
+        System.out.printf("Seeded %d users; warming up for %ds, measuring for %ds%n",
+            tokens.size(), config.warmup().toSeconds(), config.duration().toSeconds());
+        
+        ExecutorService workers = Executors.newCachedThreadPool();
+        ScheduledExecutorService pollers = Executors.newScheduledThreadPool(Math.max(1, Math.min(config.tabs(), 16)));
+        
+        for (int i = 0; i < config.dashboardUsers(); i++) {
+            String token = token(i);
+            workers.execute(() -> loop(() -> dashboardLoad(token)));
+        }
+        for (int i = 0; i < config.tabs(); i++) {
+            String token = token(i);
+            long pollMs = config.pollInterval().toMillis();
+            pollers.scheduleAtFixedRate(() -> pollMachines(token),
+                ThreadLocalRandom.current().nextLong(pollMs), pollMs, TimeUnit.MILLISECONDS);
+        }
+        workers.execute(() -> loop(this::bookingBurst));
+        for (int i = 0; i < config.nextAvailableUsers(); i++) {
+            String token = token(tokens.size() - 1 - i);
+            workers.execute(() -> loop(() -> nextAvailable(token)));
+        }
+        
+        Thread.sleep(config.warmup().toMillis());
+        client.getStats().values().forEach(EndpointStats::reset);
+        long measuredFrom = System.nanoTime();
+        Thread.sleep(config.duration().toMillis());
+        Duration measured = Duration.ofNanos(System.nanoTime() - measuredFrom);
+        
+        running.set(false);
+        pollers.shutdownNow();
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+        
+        LoadTestReport report = new LoadTestReport(client.getStats(), measured);
+        report.print();
+        report.write(config.report());
+        if (config.baseline() == null) {
+            return 0;
+        }
+        
+        List<String> regressions = report.compare(config.baseline(), config.maxP99Regression(), config.maxThroughputDrop());
+        if (regressions.isEmpty()) {
+            System.out.println("No regressions against " + config.baseline());
+            return 0;
+        }
+        System.out.println("REGRESSIONS against " + config.baseline() + ":");
+        regressions.forEach(line -> System.out.println("  " + line));
+        return 2;
+    }
+    
+    private void loop(Runnable iteration) {
+        while (running.get()) {
+            try {
+                iteration.run();
+            } catch (RuntimeException e) {
+                System.err.println("[loadtest] iteration failed: " + e.getMessage());
+            }
+        }
+    }
+    
+    // What the Dashboard page does on mount: calendar range plus both machine cards
+    private void dashboardLoad(String token) {
+        LocalDateTime monthStart = LocalDateTime.now().withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+        client.getBookings(token, monthStart, monthStart.plusMonths(2));
+        client.getMachine(token, "washer");
+        client.getMachine(token, "dryer");
+        think();
+    }
+    
+    private void pollMachines(String token) {
+        if (running.get()) {
+            client.getMachine(token, "washer");
+            client.getMachine(token, "dryer");
+        }
+    }
+    
+    // Several users release the same slot request at once; exactly one should win
+    private void bookingBurst() {
+        int sequence = slotSequence.getAndIncrement();
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS)
+            .plusDays(8 + (sequence / 16) % 60)
+            .withHour(6 + sequence % 16);
+        LocalDateTime end = start.plusHours(1);
+        
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(config.burstSize());
+        ConcurrentLinkedQueue<long[]> created = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < config.burstSize(); i++) {
+            int userIndex = (sequence + i) % tokens.size();
+            new Thread(() -> {
+                try {
+                    gate.await();
+                    Long id = client.bookingId(client.createBooking(tokens.get(userIndex), start, end));
+                    if (id != null) {
+                        created.add(new long[] { userIndex, id });
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        gate.countDown();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (created.size() > 1) {
+            System.err.printf("[loadtest] %d bookings created for the same slot %s%n", created.size(), start);
+        }
+        for (long[] booking : created) {
+            client.deleteBooking(tokens.get((int) booking[0]), booking[1]);
+        }
+        sleep(config.burstInterval());
+    }
+    
+    private void nextAvailable(String token) {
+        Long id = client.bookingId(client.bookNextAvailable(token, 60));
+        think();
+        if (id != null) {
+            client.deleteBooking(token, id);
+        }
+    }
+    
+    private String token(int index) {
+        return tokens.get(Math.floorMod(index, tokens.size()));
+    }
+    
+    private void think() {
+        long base = config.thinkTime().toMillis();
+        sleep(Duration.ofMillis(base / 2 + ThreadLocalRandom.current().nextLong(base + 1)));
+    }
+    
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.laundry.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+// Prints the per-endpoint summary, writes it as JSON and compares it with a baseline run
+public class LoadTestReport {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final List<EndpointStats> endpoints;
+    private final double seconds;
+    
+    public LoadTestReport(Map<String, EndpointStats> stats, Duration measured) {
+        this.endpoints = new ArrayList<>(stats.values());
+        this.endpoints.sort(Comparator.comparing(EndpointStats::getController).thenComparing(EndpointStats::getName));
+        this.endpoints.forEach(EndpointStats::finish);
+        this.seconds = measured.toMillis() / 1000.0;
+    }
+    
+    public void print() {
+        System.out.println();
+        System.out.printf("%-20s %-32s %8s %9s %9s %9s %9s %8s %8s%n",
+            "controller", "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "err %", "rej %");
+        for (EndpointStats endpoint : endpoints) {
+            if (endpoint.getRequests() == 0) {
+                continue;
+            }
+            System.out.printf("%-20s %-32s %8d %9.1f %9.2f %9.2f %9.2f %8.2f %8.2f%n",
+                endpoint.getController(), endpoint.getName(), endpoint.getRequests(),
+                endpoint.getRequests() / seconds,
+                endpoint.percentileMs(50), endpoint.percentileMs(99), endpoint.maxMs(),
+                100.0 * endpoint.getErrors() / endpoint.getRequests(),
+                100.0 * endpoint.getRejections() / endpoint.getRequests());
+        }
+        System.out.println();
+    }
+    
+    public void write(String path) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("durationSeconds", seconds);
+        ArrayNode list = root.putArray("endpoints");
+        for (EndpointStats endpoint : endpoints) {
+            if (endpoint.getRequests() == 0) {
+                continue;
+            }
+            ObjectNode node = list.addObject();
+            node.put("endpoint", endpoint.getName());
+            node.put("controller", endpoint.getController());
+            node.put("requests", endpoint.getRequests());
+            node.put("throughput", endpoint.getRequests() / seconds);
+            node.put("p50Ms", endpoint.percentileMs(50));
+            node.put("p99Ms", endpoint.percentileMs(99));
+            node.put("maxMs", endpoint.maxMs());
+            node.put("errorRate", (double) endpoint.getErrors() / endpoint.getRequests());
+            node.put("rejectionRate", (double) endpoint.getRejections() / endpoint.getRequests());
+        }
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        objectMapper.writeValue(file, root);
+        System.out.println("Report written to " + file.getAbsolutePath());
+    }
+    
+    // Returns the regressions found; each line names the controller so it is obvious where to look
+    public List<String> compare(String baselinePath, double maxP99Regression, double maxThroughputDrop) throws IOException {
+        JsonNode baseline = objectMapper.readTree(new File(baselinePath));
+        List<String> regressions = new ArrayList<>();
+        for (JsonNode previous : baseline.get("endpoints")) {
+            String name = previous.get("endpoint").asText();
+            EndpointStats current = endpoints.stream()
+                .filter(endpoint -> endpoint.getName().equals(name) && endpoint.getRequests() > 0)
+                .findFirst()
+                .orElse(null);
+            if (current == null) {
+                continue;
+            }
+            String label = current.getController() + " " + name;
+            
+            double previousP99 = previous.get("p99Ms").asDouble();
+            double p99 = current.percentileMs(99);
+            if (previousP99 > 0 && p99 > previousP99 * (1 + maxP99Regression)) {
+                regressions.add(String.format("%s: p99 %.2f ms -> %.2f ms", label, previousP99, p99));
+            }
+            
+            double previousThroughput = previous.get("throughput").asDouble();
+            double throughput = current.getRequests() / seconds;
+            if (throughput < previousThroughput * (1 - maxThroughputDrop)) {
+                regressions.add(String.format("%s: throughput %.1f -> %.1f req/s", label, previousThroughput, throughput));
+            }
+            
+            double previousErrors = previous.get("errorRate").asDouble();
+            double errors = (double) current.getErrors() / current.getRequests();
+            if (errors > previousErrors + 0.01) {
+                regressions.add(String.format("%s: error rate %.2f%% -> %.2f%%", label, previousErrors * 100, errors * 100));
+            }
+        }
+        return regressions;
+    }
+}
@@ -2,11 +2,13 @@ package com.laundry;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
 @EnableScheduling
+@EnableAsync
 @EnableCaching
 public class LaundrySchedulerApplication {
     public static void main(String[] args) {
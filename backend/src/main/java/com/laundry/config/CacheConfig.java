@@ -7,6 +7,7 @@ import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
@@ -20,6 +21,10 @@ public class CacheConfig {
             .maximumSize(100)
             .expireAfterWrite(30, TimeUnit.SECONDS)
             .recordStats());
+        // Declared up front so the caches exist (and get metrics bound) before their first use
+        cacheManager.setCacheNames(List.of(
+            "washer-status", "washer-time", "washer-status-text",
+            "dryer-status", "dryer-time", "dryer-status-text"));
         return cacheManager;
     }
 }
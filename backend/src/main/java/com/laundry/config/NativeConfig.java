@@ -0,0 +1,92 @@
+package com.laundry.config;
+
+import com.laundry.dto.BlockUserRequest;
+import com.laundry.dto.BookingBatchConflict;
+import com.laundry.dto.BookingBatchRequest;
+import com.laundry.dto.BookingImportError;
+import com.laundry.dto.BookingImportStatus;
+import com.laundry.dto.BookingRequest;
+import com.laundry.dto.BookingResponse;
+import com.laundry.dto.BookingSeriesRequest;
+import com.laundry.dto.BookingSeriesResponse;
+import com.laundry.dto.BookingUpdateRequest;
+import com.laundry.dto.CalendarFeedTokenResponse;
+import com.laundry.dto.JwtAuthenticationResponse;
+import com.laundry.dto.LoginRequest;
+import com.laundry.dto.SignupRequest;
+import com.laundry.dto.SlotHoldResponse;
+import com.laundry.dto.WaitlistEntryResponse;
+import com.laundry.ha.MachineSnapshot;
+import com.laundry.ha.dto.HAStateResponse;
+import com.laundry.model.ArchivedBooking;
+import com.laundry.model.Booking;
+import com.laundry.model.BookingSeries;
+import com.laundry.model.CalendarFeedToken;
+import com.laundry.model.Household;
+import com.laundry.model.IdempotencyRecord;
+import com.laundry.model.JobLease;
+import com.laundry.model.OutboxEmail;
+import com.laundry.model.User;
+import com.laundry.model.WaitlistEntry;
+import com.laundry.perf.SlowRequest;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+// Reachability hints for the native profile (mvn -Pnative native:compile); no effect on the JVM build
+@Configuration
+@ImportRuntimeHints(NativeConfig.Hints.class)
+@RegisterReflectionForBinding({
+    // Controllers returning ResponseEntity<?> or Map give AOT nothing to infer these from
+    BookingRequest.class, BookingResponse.class, BookingSeriesRequest.class, BookingSeriesResponse.class, BookingUpdateRequest.class, BlockUserRequest.class,
+    BookingBatchRequest.class, BookingBatchConflict.class, LoginRequest.class, SignupRequest.class, SlotHoldResponse.class, WaitlistEntryResponse.class,
+    JwtAuthenticationResponse.class, CalendarFeedTokenResponse.class, BookingImportStatus.class, BookingImportError.class,
+    HAStateResponse.class, MachineSnapshot.class, SlowRequest.class, User.class, Booking.class, JobLease.class
+})
+public class NativeConfig {
+    
+    static class Hints implements RuntimeHintsRegistrar {
+        
+        // JJWT 0.11 loads its implementation classes by name from the api jar
+        private static final List<String> JJWT_CLASSES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+        );
+        
+        // Caffeine picks a generated cache/node class per builder configuration. These match
+        // maximumSize + expireAfterWrite + recordStats, used by CacheConfig and EmailService.
+        private static final List<String> CAFFEINE_CLASSES = List.of(
+            "com.github.benmanes.caffeine.cache.SSSMSW",
+            "com.github.benmanes.caffeine.cache.PSWMS"
+        );
+        
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            JJWT_CLASSES.forEach(name -> hints.reflection().registerType(TypeReference.of(name),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+            CAFFEINE_CLASSES.forEach(name -> hints.reflection().registerType(TypeReference.of(name),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS));
+            
+            for (Class<?> entity : List.of(User.class, Booking.class, BookingSeries.class, ArchivedBooking.class, OutboxEmail.class, JobLease.class, WaitlistEntry.class, IdempotencyRecord.class, CalendarFeedToken.class, Household.class)) {
+                hints.reflection().registerType(entity, MemberCategory.values());
+            }
+            
+            hints.resources().registerPattern("templates/email/*");
+        }
+    }
+}
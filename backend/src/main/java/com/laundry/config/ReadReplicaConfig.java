@@ -0,0 +1,65 @@
+package com.laundry.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Only active when DB_REPLICA_URL is set; otherwise Boot's single auto-configured pool is used.
+// The Hikari pools are not beans of their own and the routing data source is left out of the
+// health check, so readiness only follows the primary and a lost replica just stops being read from.
+@Configuration
+@ConditionalOnExpression("!'${replica.url:}'.isEmpty()")
+public class ReadReplicaConfig {
+    
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties properties,
+                                                        Environment environment,
+                                                        MeterRegistry meterRegistry,
+                                                        @Value("${replica.url}") String replicaUrl,
+                                                        @Value("${replica.username:${spring.datasource.username}}") String replicaUsername,
+                                                        @Value("${replica.password:${spring.datasource.password}}") String replicaPassword,
+                                                        @Value("${replica.max-lag-ms:5000}") long maxLagMs,
+                                                        @Value("${replica.sticky-ms:5000}") long stickyMs) {
+        Binder binder = Binder.get(environment);
+        
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(replicaUrl);
+        replica.setUsername(replicaUsername);
+        replica.setPassword(replicaPassword);
+        replica.setDriverClassName(properties.determineDriverClassName());
+        replica.setReadOnly(true);
+        // The replica may be down when we start; don't fail startup over it
+        replica.setInitializationFailTimeout(-1);
+        binder.bind("replica.hikari", Bindable.ofInstance(replica));
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        
+        ReplicaRouting routing = new ReplicaRouting(replica, maxLagMs, stickyMs, meterRegistry);
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, replica, routing);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
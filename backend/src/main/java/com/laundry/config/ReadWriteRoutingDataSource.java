@@ -0,0 +1,45 @@
+package com.laundry.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+
+// Sends read-only transactions to the replica pool and everything else to the primary.
+// Must sit behind a LazyConnectionDataSourceProxy: the transaction manager asks for a
+// connection before the transaction is marked read-only, and the proxy defers the real
+// checkout until the first statement.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final ReplicaRouting routing;
+    
+    public ReadWriteRoutingDataSource(HikariDataSource primary, HikariDataSource replica, ReplicaRouting routing) {
+        this.primary = primary;
+        this.replica = replica;
+        this.routing = routing;
+        setTargetDataSources(Map.of(
+            ReplicaRouting.Route.PRIMARY, primary,
+            ReplicaRouting.Route.REPLICA, replica
+        ));
+        setDefaultTargetDataSource(primary);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return routing.route();
+    }
+    
+    @Scheduled(initialDelay = 0, fixedDelayString = "${replica.lag-check-ms:5000}")
+    public void checkReplicaLag() {
+        routing.checkLag();
+    }
+    
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+}
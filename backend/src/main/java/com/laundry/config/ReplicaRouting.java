@@ -0,0 +1,98 @@
+package com.laundry.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.laundry.security.UserPrincipal;
+import com.laundry.util.TransactionHooks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Decides per connection whether a transaction may read from the replica
+public class ReplicaRouting {
+    
+    public enum Route { PRIMARY, REPLICA }
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRouting.class);
+    
+    // 0 on a server that is not replaying WAL (e.g. a second standalone instance in development),
+    // 0 when the replica has replayed everything it received, else the age of the last replayed commit
+    private static final String LAG_QUERY = """
+        SELECT CASE
+            WHEN NOT pg_is_in_recovery() THEN 0
+            WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+            ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+        END""";
+    
+    private final JdbcTemplate replica;
+    private final long maxLagMs;
+    
+    // Users who committed a write recently keep reading from the primary so they see it
+    private final Cache<Long, Boolean> recentWriters;
+    
+    private volatile long lagMs = -1;
+    private volatile boolean replicaUsable;
+    
+    public ReplicaRouting(DataSource replica, long maxLagMs, long stickyMs, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMs = maxLagMs;
+        this.recentWriters = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(stickyMs))
+            .build();
+        Gauge.builder("db.replica.lag", this, routing -> routing.lagMs)
+            .description("Replication lag of the read replica in ms, -1 when unreachable")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+    }
+    
+    Route route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Long userId = currentUserId();
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                TransactionHooks.afterCommit(() -> recentWriters.put(userId, Boolean.TRUE));
+            }
+            return Route.PRIMARY;
+        }
+        if (!replicaUsable) {
+            return Route.PRIMARY;
+        }
+        Long userId = currentUserId();
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+    
+    void checkLag() {
+        boolean wasUsable = replicaUsable;
+        try {
+            Double lag = replica.queryForObject(LAG_QUERY, Double.class);
+            lagMs = lag != null ? lag.longValue() : 0;
+            replicaUsable = lagMs <= maxLagMs;
+        } catch (Exception e) {
+            lagMs = -1;
+            replicaUsable = false;
+            log.debug("Replica lag check failed: {}", e.getMessage());
+        }
+        if (wasUsable != replicaUsable) {
+            log.warn("Read replica {} (lag {} ms, limit {} ms)",
+                replicaUsable ? "in use" : "bypassed, reading from primary", lagMs, maxLagMs);
+        }
+    }
+    
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+}
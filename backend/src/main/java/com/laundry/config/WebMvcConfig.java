@@ -0,0 +1,24 @@
+package com.laundry.config;
+
+import com.laundry.perf.TimedJacksonHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+    
+    // Swap Boot's Jackson converter for a timed one sharing the same ObjectMapper
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter jackson
+                    && !(jackson instanceof TimedJacksonHttpMessageConverter)) {
+                converters.set(i, new TimedJacksonHttpMessageConverter(jackson.getObjectMapper()));
+            }
+        }
+    }
+}
@@ -1,15 +1,36 @@
 package com.laundry.controller;
 
 import com.laundry.dto.BlockUserRequest;
+import com.laundry.dto.BookingImportStatus;
+import com.laundry.model.JobLease;
 import com.laundry.model.User;
+import com.laundry.perf.RequestPerfRegistry;
 import com.laundry.repository.UserRepository;
+import com.laundry.security.UserPrincipal;
+import com.laundry.service.BookingExportService;
+import com.laundry.service.BookingImportService;
+import com.laundry.service.BookingPartitionService;
+import com.laundry.service.EmailOutboxDispatcher;
+import com.laundry.service.JobLeaseService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/admin")
@@ -17,19 +38,41 @@ import java.util.List;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
     
+    private static final String TEXT_CSV = "text/csv";
+    
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+    
+    @Autowired
+    private JobLeaseService jobLeaseService;
+    
+    @Autowired
+    private RequestPerfRegistry perfRegistry;
+    
+    @Autowired
+    private BookingPartitionService partitionService;
+    
+    @Autowired
+    private BookingExportService exportService;
+    
+    @Autowired
+    private BookingImportService importService;
+    
+    // User management, exports and imports cover the admin's own household; the operational
+    // endpoints further down (outbox, jobs, perf, partitions) are about the whole backend
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userRepository.findAll();
+    public ResponseEntity<List<User>> getAllUsers(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        List<User> users = userRepository.findByHouseholdId(userPrincipal.getHouseholdId());
         return ResponseEntity.ok(users);
     }
     
     @PostMapping("/block-user")
-    public ResponseEntity<?> blockUser(@Valid @RequestBody BlockUserRequest request) {
-        User user = userRepository.findById(request.getUserId())
-            .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> blockUser(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                       @Valid @RequestBody BlockUserRequest request) {
+        User user = findHouseholdUser(userPrincipal, request.getUserId());
         
         user.setBlocked(true);
         user.setBlockedUntil(request.getBlockedUntil());
@@ -40,9 +83,9 @@ public class AdminController {
     }
     
     @PostMapping("/unblock-user/{userId}")
-    public ResponseEntity<?> unblockUser(@PathVariable Long userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<?> unblockUser(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                         @PathVariable Long userId) {
+        User user = findHouseholdUser(userPrincipal, userId);
         
         user.setBlocked(false);
         user.setBlockedUntil(null);
@@ -51,5 +94,91 @@ public class AdminController {
         userRepository.save(user);
         return ResponseEntity.ok("User unblocked successfully");
     }
+    
+    @GetMapping("/email-outbox")
+    public ResponseEntity<Map<String, Object>> getEmailOutboxStats() {
+        return ResponseEntity.ok(emailOutboxDispatcher.getStats());
+    }
+    
+    @GetMapping("/jobs")
+    public ResponseEntity<List<JobLease>> getJobLeases() {
+        return ResponseEntity.ok(jobLeaseService.getLeases());
+    }
+    
+    @GetMapping("/perf")
+    public ResponseEntity<Map<String, Object>> getPerf(@RequestParam(defaultValue = "20") int limit) {
+        Map<String, Object> perf = new LinkedHashMap<>();
+        perf.put("routes", perfRegistry.routeSummaries());
+        perf.put("slowest", perfRegistry.slowest(Math.max(limit, 0)));
+        return ResponseEntity.ok(perf);
+    }
+    
+    @GetMapping("/booking-partitions")
+    public ResponseEntity<List<Map<String, Object>>> getBookingPartitions() {
+        return ResponseEntity.ok(partitionService.getPartitions());
+    }
+    
+    // e.g. POST /admin/booking-partitions/detach?before=2025-01 detaches everything up to December 2024
+    @PostMapping("/booking-partitions/detach")
+    public ResponseEntity<?> detachBookingPartitions(@RequestParam YearMonth before) {
+        try {
+            return ResponseEntity.ok(partitionService.detachBefore(before));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // Streamed straight from the database; start/end limit it to bookings overlapping that window
+    @GetMapping("/export/bookings.csv")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        Long householdId = userPrincipal.getHouseholdId();
+        return csv("bookings.csv", out -> exportService.writeBookings(householdId, start, end, out));
+    }
+    
+    @GetMapping("/export/users.csv")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long householdId = userPrincipal.getHouseholdId();
+        return csv("users.csv", out -> exportService.writeUsers(householdId, out));
+    }
+    
+    // Takes the CSV as the request body (Content-Type: text/csv) and answers 202 right away;
+    // the import runs in the background and GET /admin/import/bookings/{id} reports on it
+    @PostMapping(value = "/import/bookings", consumes = TEXT_CSV)
+    public ResponseEntity<?> importBookings(@AuthenticationPrincipal UserPrincipal userPrincipal, InputStream csv) {
+        try {
+            BookingImportStatus status = importService.start(userPrincipal.getHouseholdId(), csv);
+            return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{id}")
+                    .buildAndExpand(status.getId())
+                    .toUri())
+                .body(status);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/import/bookings/{id}")
+    public ResponseEntity<BookingImportStatus> getImportStatus(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                               @PathVariable String id) {
+        BookingImportStatus status = importService.getStatus(userPrincipal.getHouseholdId(), id);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+    
+    // Users of other households are reported the same as ones that don't exist
+    private User findHouseholdUser(UserPrincipal userPrincipal, Long userId) {
+        return userRepository.findById(userId)
+            .filter(user -> user.getHouseholdId().equals(userPrincipal.getHouseholdId()))
+            .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+    
+    private static ResponseEntity<StreamingResponseBody> csv(String filename, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(TEXT_CSV + ";charset=UTF-8"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(body);
+    }
 }
-
@@ -0,0 +1,61 @@
+package com.laundry.controller;
+
+import com.laundry.dto.BookingResponse;
+import com.laundry.security.UserPrincipal;
+import com.laundry.service.BookingArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// History that BookingArchiver moved out of the live bookings table. Paged and uncached;
+// the calendar endpoints under /bookings never look here.
+@RestController
+@RequestMapping("/archive")
+@CrossOrigin(origins = "*")
+public class ArchiveController {
+    
+    private static final int MAX_PAGE_SIZE = 200;
+    
+    @Autowired
+    private BookingArchiveService archiveService;
+    
+    // Regular users only see their own bookings; admins see their household's or filter by userId
+    @GetMapping("/bookings")
+    public ResponseEntity<?> getArchivedBookings(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!userPrincipal.isAdmin()) {
+            userId = userPrincipal.getId();
+        }
+        if (start == null) {
+            start = LocalDateTime.of(1970, 1, 1, 0, 0);
+        }
+        if (end == null) {
+            end = LocalDateTime.now();
+        }
+        
+        Page<BookingResponse> bookings =
+            archiveService.search(userPrincipal.getHouseholdId(), userId, start, end, page, size);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("content", bookings.getContent());
+        body.put("page", bookings.getNumber());
+        body.put("size", bookings.getSize());
+        body.put("totalElements", bookings.getTotalElements());
+        body.put("totalPages", bookings.getTotalPages());
+        return ResponseEntity.ok(body);
+    }
+}
@@ -1,18 +1,30 @@
 package com.laundry.controller;
 
+import com.laundry.dto.BookingBatchRequest;
 import com.laundry.dto.BookingRequest;
 import com.laundry.dto.BookingResponse;
+import com.laundry.dto.BookingUpdateRequest;
+import com.laundry.dto.SlotHoldResponse;
+import com.laundry.model.Machine;
 import com.laundry.security.UserPrincipal;
+import com.laundry.service.BookingBatchConflictException;
+import com.laundry.service.BookingConflictException;
 import com.laundry.service.BookingService;
+import com.laundry.service.IdempotencyService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.TransactionException;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/bookings")
@@ -22,20 +34,53 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
     
+    // The POSTs that create bookings take an optional Idempotency-Key header, so a retry
+    // after a lost response gets the original response instead of booking again. Database
+    // failures are rethrown rather than answered with 400: the key is then released and the
+    // retry really runs, instead of replaying a stored error that wasn't the request's fault.
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
     @PostMapping
     public ResponseEntity<?> createBooking(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody BookingRequest request) {
-        try {
-            BookingResponse booking = bookingService.createBooking(userPrincipal.getId(), request);
-            return ResponseEntity.ok(booking);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
+        return idempotencyService.execute(userPrincipal.getId(), idempotencyKey, "POST /bookings", request, () -> {
+            try {
+                BookingResponse booking = bookingService.createBooking(userPrincipal.getId(), request);
+                return ResponseEntity.ok(booking);
+            } catch (DataAccessException | TransactionException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
+    }
+    
+    // All or nothing; 409 lists every item that overlaps something
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBookings(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BookingBatchRequest request) {
+        return idempotencyService.execute(userPrincipal.getId(), idempotencyKey, "POST /bookings/batch", request, () -> {
+            try {
+                List<BookingResponse> bookings = bookingService.createBookings(userPrincipal.getId(), request.getBookings());
+                return ResponseEntity.ok(bookings);
+            } catch (BookingBatchConflictException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getConflicts());
+            } catch (DataAccessException | TransactionException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
     }
     
     @GetMapping
     public ResponseEntity<List<BookingResponse>> getBookings(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
         
@@ -46,7 +91,7 @@ public class BookingController {
             end = start.plusMonths(1);
         }
         
-        List<BookingResponse> bookings = bookingService.getBookings(start, end);
+        List<BookingResponse> bookings = bookingService.getBookings(userPrincipal.getHouseholdId(), start, end);
         return ResponseEntity.ok(bookings);
     }
     
@@ -57,6 +102,22 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
     
+    // 409 when the booking changed since the client loaded it or the new slot is taken
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> rescheduleBooking(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable Long id,
+            @Valid @RequestBody BookingUpdateRequest request) {
+        try {
+            BookingResponse booking = bookingService.rescheduleBooking(id, userPrincipal.getId(), request);
+            return ResponseEntity.ok(booking);
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteBooking(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
@@ -72,14 +133,93 @@ public class BookingController {
     @PostMapping("/next-available")
     public ResponseEntity<?> bookNextAvailable(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestParam(defaultValue = "120") int durationMinutes,
+            @RequestParam(required = false) Set<Machine> machines,
+            @RequestParam(required = false) String notes) {
+        return idempotencyService.execute(userPrincipal.getId(), idempotencyKey, "POST /bookings/next-available", Arrays.asList(durationMinutes, machines, notes), () -> {
+            try {
+                BookingResponse booking = bookingService.bookNextAvailable(userPrincipal.getId(), durationMinutes,
+                    machines != null ? machines : Machine.all(), notes);
+                return ResponseEntity.ok(booking);
+            } catch (DataAccessException | TransactionException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
+    }
+    
+    // Earliest washer slot with the dryer free right after it; creates both bookings
+    @PostMapping("/next-available/wash-then-dry")
+    public ResponseEntity<?> bookWashThenDry(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestParam(defaultValue = "60") int washMinutes,
+            @RequestParam(defaultValue = "60") int dryMinutes,
             @RequestParam(required = false) String notes) {
+        return idempotencyService.execute(userPrincipal.getId(), idempotencyKey, "POST /bookings/next-available/wash-then-dry", Arrays.asList(washMinutes, dryMinutes, notes), () -> {
+            try {
+                List<BookingResponse> bookings = bookingService.bookWashThenDry(userPrincipal.getId(), washMinutes, dryMinutes, notes);
+                return ResponseEntity.ok(bookings);
+            } catch (DataAccessException | TransactionException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
+    }
+    
+    // Holds a slot for a few minutes while the booking form is open
+    @PostMapping("/holds")
+    public ResponseEntity<?> holdSlot(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @Valid @RequestBody BookingRequest request) {
         try {
-            BookingResponse booking = bookingService.bookNextAvailable(userPrincipal.getId(), durationMinutes, notes);
-            return ResponseEntity.ok(booking);
+            SlotHoldResponse hold = bookingService.holdSlot(userPrincipal.getId(), request);
+            return ResponseEntity.ok(hold);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @PostMapping("/holds/next-available")
+    public ResponseEntity<?> holdNextAvailable(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(defaultValue = "120") int durationMinutes,
+            @RequestParam(required = false) Set<Machine> machines) {
+        try {
+            SlotHoldResponse hold = bookingService.holdNextAvailable(userPrincipal.getId(), durationMinutes,
+                machines != null ? machines : Machine.all());
+            return ResponseEntity.ok(hold);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+    
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<?> confirmHold(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @PathVariable String holdId,
+            @RequestParam(required = false) String notes) {
+        return idempotencyService.execute(userPrincipal.getId(), idempotencyKey, "POST /bookings/holds/confirm", Arrays.asList(holdId, notes), () -> {
+            try {
+                BookingResponse booking = bookingService.confirmHold(userPrincipal.getId(), holdId, notes);
+                return ResponseEntity.ok(booking);
+            } catch (DataAccessException | TransactionException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
+    }
+    
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<?> releaseHold(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable String holdId) {
+        bookingService.releaseHold(userPrincipal.getId(), holdId);
+        return ResponseEntity.ok().build();
+    }
 }
-
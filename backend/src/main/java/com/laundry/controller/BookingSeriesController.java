@@ -0,0 +1,69 @@
+package com.laundry.controller;
+
+import com.laundry.dto.BookingSeriesRequest;
+import com.laundry.dto.BookingSeriesResponse;
+import com.laundry.security.UserPrincipal;
+import com.laundry.service.BookingService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Recurring bookings; their occurrences show up in GET /bookings like any other booking
+@RestController
+@RequestMapping("/bookings/series")
+@CrossOrigin(origins = "*")
+public class BookingSeriesController {
+    
+    @Autowired
+    private BookingService bookingService;
+    
+    @PostMapping
+    public ResponseEntity<?> createSeries(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @Valid @RequestBody BookingSeriesRequest request) {
+        try {
+            BookingSeriesResponse series = bookingService.createSeries(userPrincipal.getId(), request);
+            return ResponseEntity.ok(series);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<BookingSeriesResponse>> getMySeries(
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(bookingService.getUserSeries(userPrincipal.getId()));
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteSeries(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable Long id) {
+        try {
+            bookingService.deleteSeries(id, userPrincipal.getId());
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // Cancels the single occurrence starting at `start`
+    @DeleteMapping("/{id}/occurrences")
+    public ResponseEntity<?> cancelOccurrence(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start) {
+        try {
+            bookingService.cancelOccurrence(id, start, userPrincipal.getId());
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
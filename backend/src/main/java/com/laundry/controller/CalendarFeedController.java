@@ -0,0 +1,65 @@
+package com.laundry.controller;
+
+import com.laundry.dto.CalendarFeedTokenResponse;
+import com.laundry.security.UserPrincipal;
+import com.laundry.service.CalendarFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/calendar-feed")
+@CrossOrigin(origins = "*")
+public class CalendarFeedController {
+    
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+    
+    @Autowired
+    private CalendarFeedService calendarFeedService;
+    
+    // Creating a new token revokes the previous one, so the old feed URLs stop working
+    @PostMapping("/token")
+    public ResponseEntity<?> createToken(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        try {
+            CalendarFeedTokenResponse response = calendarFeedService.createToken(userPrincipal.getId());
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @DeleteMapping("/token")
+    public ResponseEntity<?> revokeToken(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        calendarFeedService.revokeToken(userPrincipal.getId());
+        return ResponseEntity.ok().build();
+    }
+    
+    // The two feeds are public (the token in the path is the credential) so calendar apps can
+    // subscribe. ETag and Last-Modified let unchanged polls end in a 304.
+    @GetMapping("/{token}/" + CalendarFeedService.MY_BOOKINGS_FEED)
+    public ResponseEntity<byte[]> getMyBookingsFeed(@PathVariable String token) {
+        return feed(token, false);
+    }
+    
+    @GetMapping("/{token}/" + CalendarFeedService.HOUSEHOLD_FEED)
+    public ResponseEntity<byte[]> getHouseholdFeed(@PathVariable String token) {
+        return feed(token, true);
+    }
+    
+    private ResponseEntity<byte[]> feed(String token, boolean household) {
+        CalendarFeedService.FeedOwner owner = calendarFeedService.findOwner(token);
+        if (owner == null) {
+            return ResponseEntity.notFound().build();
+        }
+        CalendarFeedService.Feed feed = calendarFeedService.getFeed(owner, household);
+        return ResponseEntity.ok()
+            .contentType(TEXT_CALENDAR)
+            .eTag(feed.etag())
+            .lastModified(feed.lastModified())
+            .cacheControl(CacheControl.noCache())
+            .body(feed.body());
+    }
+}
@@ -1,33 +1,44 @@
 package com.laundry.controller;
 
 import com.laundry.ha.HomeAssistantService;
+import com.laundry.ha.MachineReading;
+import com.laundry.ha.MachineSnapshot;
+import com.laundry.ha.MachineSnapshotService;
+import com.laundry.security.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
 
+// Each user sees the machines of their own household
 @RestController
 @RequestMapping("/machines")
 @CrossOrigin(origins = "*")
 public class MachineController {
     
+    private static final Logger log = LoggerFactory.getLogger(MachineController.class);
+    
     @Autowired
     private HomeAssistantService haService;
     
+    @Autowired
+    private MachineSnapshotService snapshotService;
+    
     @GetMapping("/test")
     public ResponseEntity<?> test() {
-        System.out.println("[MachineController] TEST endpoint called");
         return ResponseEntity.ok(Map.of("status", "working", "message", "Test endpoint is working"));
     }
-
+    
     @GetMapping("/washer")
-    public ResponseEntity<?> getWasherStatus() {
-        System.out.println("[MachineController] GET /machines/washer called");
+    public ResponseEntity<?> getWasherStatus(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long householdId = userPrincipal.getHouseholdId();
         try {
-            if (!haService.isEnabled()) {
-                System.out.println("[MachineController] Home Assistant is not enabled");
+            if (!haService.isEnabled(householdId)) {
                 return ResponseEntity.ok(Map.of(
                     "enabled", false,
                     "status", "unknown",
@@ -36,17 +47,21 @@ public class MachineController {
                 ));
             }
             
+            MachineSnapshot snapshot = snapshotService.current(householdId);
+            if (snapshot != null && snapshot.washer() != null) {
+                return ResponseEntity.ok(toResponse(householdId, snapshot.washer()));
+            }
+            
+            // No snapshot yet (first start without a saved one): read HA directly
             Map<String, Object> response = new HashMap<>();
             response.put("enabled", true);
-            response.put("status", haService.getWasherStatus());
-            response.put("running", haService.isWasherRunning());
-            response.put("timeRemainingMinutes", haService.getWasherTimeRemaining());
+            response.put("status", haService.getWasherStatus(householdId));
+            response.put("running", haService.isWasherRunning(householdId));
+            response.put("timeRemainingMinutes", haService.getWasherTimeRemaining(householdId));
             
-            System.out.println("[MachineController] Washer response: " + response);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            System.err.println("[MachineController] Error getting washer status: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error getting washer status", e);
             return ResponseEntity.ok(Map.of(
                 "enabled", false,
                 "status", "error",
@@ -58,11 +73,10 @@ public class MachineController {
     }
     
     @GetMapping("/dryer")
-    public ResponseEntity<?> getDryerStatus() {
-        System.out.println("[MachineController] GET /machines/dryer called");
+    public ResponseEntity<?> getDryerStatus(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long householdId = userPrincipal.getHouseholdId();
         try {
-            if (!haService.isEnabled()) {
-                System.out.println("[MachineController] Home Assistant is not enabled");
+            if (!haService.isEnabled(householdId)) {
                 return ResponseEntity.ok(Map.of(
                     "enabled", false,
                     "status", "unknown",
@@ -71,17 +85,21 @@ public class MachineController {
                 ));
             }
             
+            MachineSnapshot snapshot = snapshotService.current(householdId);
+            if (snapshot != null && snapshot.dryer() != null) {
+                return ResponseEntity.ok(toResponse(householdId, snapshot.dryer()));
+            }
+            
+            // No snapshot yet (first start without a saved one): read HA directly
             Map<String, Object> response = new HashMap<>();
             response.put("enabled", true);
-            response.put("status", haService.getDryerStatus());
-            response.put("running", haService.isDryerRunning());
-            response.put("timeRemainingMinutes", haService.getDryerTimeRemaining());
+            response.put("status", haService.getDryerStatus(householdId));
+            response.put("running", haService.isDryerRunning(householdId));
+            response.put("timeRemainingMinutes", haService.getDryerTimeRemaining(householdId));
             
-            System.out.println("[MachineController] Dryer response: " + response);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            System.err.println("[MachineController] Error getting dryer status: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error getting dryer status", e);
             return ResponseEntity.ok(Map.of(
                 "enabled", false,
                 "status", "error",
@@ -91,5 +109,15 @@ public class MachineController {
             ));
         }
     }
+    
+    private Map<String, Object> toResponse(Long householdId, MachineReading reading) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("enabled", true);
+        response.put("status", reading.status());
+        response.put("running", reading.running());
+        response.put("timeRemainingMinutes", reading.timeRemainingMinutes());
+        response.put("updatedAt", reading.updatedAt());
+        response.put("stale", snapshotService.isStale(householdId, reading));
+        return response;
+    }
 }
-
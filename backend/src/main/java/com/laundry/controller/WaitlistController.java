@@ -0,0 +1,53 @@
+package com.laundry.controller;
+
+import com.laundry.dto.BookingRequest;
+import com.laundry.dto.WaitlistEntryResponse;
+import com.laundry.security.UserPrincipal;
+import com.laundry.service.WaitlistService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/waitlist")
+@CrossOrigin(origins = "*")
+public class WaitlistController {
+    
+    @Autowired
+    private WaitlistService waitlistService;
+    
+    // Wait for a taken slot; it is booked automatically if it frees up
+    @PostMapping
+    public ResponseEntity<?> join(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @Valid @RequestBody BookingRequest request) {
+        try {
+            WaitlistEntryResponse entry = waitlistService.join(userPrincipal.getId(), request);
+            return ResponseEntity.ok(entry);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<WaitlistEntryResponse>> getMyEntries(
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(waitlistService.getUserEntries(userPrincipal.getId()));
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> leave(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable Long id) {
+        try {
+            waitlistService.leave(id, userPrincipal.getId());
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.laundry.dto;
+
+import com.laundry.model.Machine;
+
+// Why one item of a batch can't be booked
+public class BookingBatchConflict {
+    // Position of the item in the request, from 0
+    private int index;
+    
+    private Machine machine;
+    
+    // The other item it overlaps; null when it overlaps an existing booking, series or hold
+    private Integer conflictingIndex;
+    
+    private String message;
+    
+    public BookingBatchConflict() {}
+    
+    public BookingBatchConflict(int index, Machine machine, Integer conflictingIndex, String message) {
+        this.index = index;
+        this.machine = machine;
+        this.conflictingIndex = conflictingIndex;
+        this.message = message;
+    }
+    
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public Machine getMachine() {
+        return machine;
+    }
+    
+    public void setMachine(Machine machine) {
+        this.machine = machine;
+    }
+    
+    public Integer getConflictingIndex() {
+        return conflictingIndex;
+    }
+    
+    public void setConflictingIndex(Integer conflictingIndex) {
+        this.conflictingIndex = conflictingIndex;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
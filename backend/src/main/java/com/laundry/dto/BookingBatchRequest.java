@@ -0,0 +1,20 @@
+package com.laundry.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public class BookingBatchRequest {
+    // Created together or not at all
+    @NotEmpty
+    @Valid
+    private List<BookingRequest> bookings;
+    
+    public List<BookingRequest> getBookings() {
+        return bookings;
+    }
+    
+    public void setBookings(List<BookingRequest> bookings) {
+        this.bookings = bookings;
+    }
+}
@@ -0,0 +1,32 @@
+package com.laundry.dto;
+
+// Why one row of a CSV import wasn't imported
+public class BookingImportError {
+    // Line of the CSV the row starts on, from 1 (the header is line 1)
+    private int line;
+    
+    private String message;
+    
+    public BookingImportError() {}
+    
+    public BookingImportError(int line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+    
+    public int getLine() {
+        return line;
+    }
+    
+    public void setLine(int line) {
+        this.line = line;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,117 @@
+package com.laundry.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Progress of a CSV import as of when it was asked for
+public class BookingImportStatus {
+    
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+    
+    private String id;
+    private State state;
+    private long totalBytes;
+    private long bytesRead;
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    
+    // Only the first errors are kept; rejected counts all of them
+    private List<BookingImportError> errors;
+    
+    // Why the import stopped, when state is FAILED
+    private String failure;
+    
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public State getState() {
+        return state;
+    }
+    
+    public void setState(State state) {
+        this.state = state;
+    }
+    
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+    
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+    
+    public long getBytesRead() {
+        return bytesRead;
+    }
+    
+    public void setBytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+    
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+    
+    public long getImported() {
+        return imported;
+    }
+    
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+    
+    public long getRejected() {
+        return rejected;
+    }
+    
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+    
+    public List<BookingImportError> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<BookingImportError> errors) {
+        this.errors = errors;
+    }
+    
+    public String getFailure() {
+        return failure;
+    }
+    
+    public void setFailure(String failure) {
+        this.failure = failure;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -1,8 +1,10 @@
 package com.laundry.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.laundry.model.Machine;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
+import java.util.Set;
 
 public class BookingRequest {
     @NotNull
@@ -15,6 +17,9 @@ public class BookingRequest {
     
     private String notes;
     
+    // Omitted means the washer and the dryer
+    private Set<Machine> machines;
+    
     public LocalDateTime getStartTime() {
         return startTime;
     }
@@ -38,5 +43,12 @@ public class BookingRequest {
     public void setNotes(String notes) {
         this.notes = notes;
     }
+    
+    public Set<Machine> getMachines() {
+        return machines;
+    }
+    
+    public void setMachines(Set<Machine> machines) {
+        this.machines = machines;
+    }
 }
-
@@ -1,7 +1,9 @@
 package com.laundry.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.laundry.model.Machine;
 import java.time.LocalDateTime;
+import java.util.Set;
 
 public class BookingResponse {
     private Long id;
@@ -18,6 +20,14 @@ public class BookingResponse {
     
     private String notes;
     
+    private Set<Machine> machines;
+    
+    // Set on occurrences of a recurring booking, which have no id of their own
+    private Long seriesId;
+    
+    // Send back when rescheduling; null on series occurrences
+    private Long version;
+    
     @JsonFormat(shape = JsonFormat.Shape.STRING, timezone = "America/New_York")
     private LocalDateTime createdAt;
     
@@ -87,6 +97,30 @@ public class BookingResponse {
         this.notes = notes;
     }
     
+    public Set<Machine> getMachines() {
+        return machines;
+    }
+    
+    public void setMachines(Set<Machine> machines) {
+        this.machines = machines;
+    }
+    
+    public Long getSeriesId() {
+        return seriesId;
+    }
+    
+    public void setSeriesId(Long seriesId) {
+        this.seriesId = seriesId;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,68 @@
+package com.laundry.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.laundry.model.Machine;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+public class BookingSeriesRequest {
+    // First occurrence
+    @NotNull
+    @JsonFormat(shape = JsonFormat.Shape.STRING, timezone = "America/New_York")
+    private LocalDateTime startTime;
+    
+    @NotNull
+    @JsonFormat(shape = JsonFormat.Shape.STRING, timezone = "America/New_York")
+    private LocalDateTime endTime;
+    
+    // e.g. "FREQ=WEEKLY;BYDAY=SA;COUNT=12"
+    @NotBlank
+    private String rrule;
+    
+    private String notes;
+    
+    // Omitted means the washer and the dryer
+    private Set<Machine> machines;
+    
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public String getRrule() {
+        return rrule;
+    }
+    
+    public void setRrule(String rrule) {
+        this.rrule = rrule;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+    
+    public Set<Machine> getMachines() {
+        return machines;
+    }
+    
+    public void setMachines(Set<Machine> machines) {
+        this.machines = machines;
+    }
+}
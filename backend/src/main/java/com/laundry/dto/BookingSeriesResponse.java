@@ -0,0 +1,124 @@
+package com.laundry.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.laundry.model.Machine;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+public class BookingSeriesResponse {
+    private Long id;
+    private Long userId;
+    private String username;
+    
+    @JsonFormat(shape = JsonFormat.Shape.STRING, timezone = "America/New_York")
+    private LocalDateTime startTime;
+    
+    @JsonFormat(shape = JsonFormat.Shape.STRING, timezone = "America/New_York")
+    private LocalDateTime endTime;
+    
+    private String rrule;
+    
+    // End of the last occurrence, null when the series has no end
+    @JsonFormat(shape = JsonFormat.Shape.STRING, timezone = "America/New_York")
+    private LocalDateTime lastEnd;
+    
+    private String notes;
+    
+    private Set<Machine> machines;
+    
+    // Starts of cancelled occurrences
+    @JsonFormat(shape = JsonFormat.Shape.STRING, timezone = "America/New_York")
+    private List<LocalDateTime> exceptions;
+    
+    @JsonFormat(shape = JsonFormat.Shape.STRING, timezone = "America/New_York")
+    private LocalDateTime createdAt;
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public String getRrule() {
+        return rrule;
+    }
+    
+    public void setRrule(String rrule) {
+        this.rrule = rrule;
+    }
+    
+    public LocalDateTime getLastEnd() {
+        return lastEnd;
+    }
+    
+    public void setLastEnd(LocalDateTime lastEnd) {
+        this.lastEnd = lastEnd;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+    
+    public Set<Machine> getMachines() {
+        return machines;
+    }
+    
+    public void setMachines(Set<Machine> machines) {
+        this.machines = machines;
+    }
+    
+    public List<LocalDateTime> getExceptions() {
+        return exceptions;
+    }
+    
+    public void setExceptions(List<LocalDateTime> exceptions) {
+        this.exceptions = exceptions;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,52 @@
+package com.laundry.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+// Fields left out keep their current value
+public class BookingUpdateRequest {
+    @JsonFormat(shape = JsonFormat.Shape.STRING, timezone = "America/New_York")
+    private LocalDateTime startTime;
+    
+    @JsonFormat(shape = JsonFormat.Shape.STRING, timezone = "America/New_York")
+    private LocalDateTime endTime;
+    
+    private String notes;
+    
+    // The version of the booking the change is based on
+    @NotNull
+    private Long version;
+    
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,48 @@
+package com.laundry.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+public class CalendarFeedTokenResponse {
+    // Only returned when the token is created; it can't be looked up again
+    private String token;
+    
+    // Paths of the feeds below the API root, e.g. /calendar-feed/<token>/household.ics
+    private String myBookingsPath;
+    private String householdPath;
+    
+    @JsonFormat(shape = JsonFormat.Shape.STRING, timezone = "America/New_York")
+    private LocalDateTime createdAt;
+    
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
+    public String getMyBookingsPath() {
+        return myBookingsPath;
+    }
+    
+    public void setMyBookingsPath(String myBookingsPath) {
+        this.myBookingsPath = myBookingsPath;
+    }
+    
+    public String getHouseholdPath() {
+        return householdPath;
+    }
+    
+    public void setHouseholdPath(String householdPath) {
+        this.householdPath = householdPath;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
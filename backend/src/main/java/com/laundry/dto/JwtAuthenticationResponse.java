@@ -6,12 +6,15 @@ public class JwtAuthenticationResponse {
     private String accessToken;
     private String tokenType = "Bearer";
     private Long userId;
+    private Long householdId;
     private String username;
     private boolean isAdmin;
     
-    public JwtAuthenticationResponse(String accessToken, Long userId, String username, boolean isAdmin) {
+    public JwtAuthenticationResponse(String accessToken, Long userId, Long householdId, String username,
+                                     boolean isAdmin) {
         this.accessToken = accessToken;
         this.userId = userId;
+        this.householdId = householdId;
         this.username = username;
         this.isAdmin = isAdmin;
     }
@@ -40,6 +43,14 @@ public class JwtAuthenticationResponse {
         this.userId = userId;
     }
     
+    public Long getHouseholdId() {
+        return householdId;
+    }
+    
+    public void setHouseholdId(Long householdId) {
+        this.householdId = householdId;
+    }
+    
     public String getUsername() {
         return username;
     }
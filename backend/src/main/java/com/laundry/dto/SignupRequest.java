@@ -20,6 +20,10 @@ public class SignupRequest {
     private String firstName;
     private String lastName;
     
+    // Slug of the household to join; left out, the default household
+    @Size(max = 64)
+    private String household;
+    
     public String getUsername() {
         return username;
     }
@@ -59,5 +63,13 @@ public class SignupRequest {
     public void setLastName(String lastName) {
         this.lastName = lastName;
     }
+    
+    public String getHousehold() {
+        return household;
+    }
+    
+    public void setHousehold(String household) {
+        this.household = household;
+    }
 }
 
@@ -0,0 +1,62 @@
+package com.laundry.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.laundry.model.Machine;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+public class SlotHoldResponse {
+    private String holdId;
+    
+    @JsonFormat(shape = JsonFormat.Shape.STRING, timezone = "America/New_York")
+    private LocalDateTime startTime;
+    
+    @JsonFormat(shape = JsonFormat.Shape.STRING, timezone = "America/New_York")
+    private LocalDateTime endTime;
+    
+    private Set<Machine> machines;
+    
+    // The hold is dropped at this point unless confirmed first
+    @JsonFormat(shape = JsonFormat.Shape.STRING, timezone = "America/New_York")
+    private LocalDateTime expiresAt;
+    
+    public String getHoldId() {
+        return holdId;
+    }
+    
+    public void setHoldId(String holdId) {
+        this.holdId = holdId;
+    }
+    
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public Set<Machine> getMachines() {
+        return machines;
+    }
+    
+    public void setMachines(Set<Machine> machines) {
+        this.machines = machines;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -1,10 +1,16 @@
 package com.laundry.ha;
 
 import com.laundry.ha.dto.HAStateResponse;
+import com.laundry.model.Household;
+import com.laundry.perf.RequestTimings;
+import com.laundry.repository.HouseholdRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -14,11 +20,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Reads the washer and dryer state from Home Assistant, per household: each household can point
+// at its own HA instance and entities (see resolveConfig)
 @Service
 public class HomeAssistantService {
     
     private final RestTemplate restTemplate;
     
+    private final MeterRegistry meterRegistry;
+    
     @Value("${homeassistant.base-url}")
     private String baseUrl;
     
@@ -59,192 +72,162 @@ public class HomeAssistantService {
     private String dryerEndOfCycleEntity;
     
     @Autowired
-    public HomeAssistantService(RestTemplate restTemplate) {
+    private Environment environment;
+    
+    @Autowired
+    private HouseholdRepository householdRepository;
+    
+    // Resolved once per household; the config only changes with a restart
+    private final Map<Long, HouseholdConfig> configs = new ConcurrentHashMap<>();
+    
+    // Where one household's Home Assistant lives and which entities are its machines
+    private record HouseholdConfig(boolean enabled, String baseUrl, String token,
+                                   String washerRunning, String washerTimeRemaining, String washerStatus,
+                                   String washerSubCycle, String washerEndOfCycle,
+                                   String dryerRunning, String dryerTimeRemaining, String dryerStatus,
+                                   String dryerSubCycle, String dryerEndOfCycle) {
+        
+        boolean usable() {
+            return enabled && token != null && !token.isEmpty();
+        }
+    }
+    
+    @Autowired
+    public HomeAssistantService(RestTemplate restTemplate, MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    private HouseholdConfig config(Long householdId) {
+        return configs.computeIfAbsent(householdId, this::resolveConfig);
     }
     
-    private HttpEntity<Void> authEntity() {
+    // The default household uses the top-level homeassistant.* settings. Any other household
+    // needs homeassistant.households.<slug>.enabled=true; its other settings fall back to the
+    // top-level ones, so households sharing one HA instance only list their own entities.
+    private HouseholdConfig resolveConfig(Long householdId) {
+        if (Household.DEFAULT_ID.equals(householdId)) {
+            return new HouseholdConfig(enabled, baseUrl, token,
+                washerRunningEntity, washerTimeRemainingEntity, washerStatusEntity,
+                washerSubCycleEntity, washerEndOfCycleEntity,
+                dryerRunningEntity, dryerTimeRemainingEntity, dryerStatusEntity,
+                dryerSubCycleEntity, dryerEndOfCycleEntity);
+        }
+        String slug = householdRepository.findById(householdId).map(Household::getSlug).orElse(null);
+        if (slug == null) {
+            return new HouseholdConfig(false, baseUrl, "", "", "", "", "", "", "", "", "", "", "");
+        }
+        String prefix = "homeassistant.households." + slug + ".";
+        return new HouseholdConfig(
+            environment.getProperty(prefix + "enabled", Boolean.class, false),
+            environment.getProperty(prefix + "base-url", baseUrl),
+            environment.getProperty(prefix + "token", token),
+            environment.getProperty(prefix + "entity.washer-running", washerRunningEntity),
+            environment.getProperty(prefix + "entity.washer-time-remaining", washerTimeRemainingEntity),
+            environment.getProperty(prefix + "entity.washer-status", washerStatusEntity),
+            environment.getProperty(prefix + "entity.washer-sub-cycle", washerSubCycleEntity),
+            environment.getProperty(prefix + "entity.washer-end-of-cycle", washerEndOfCycleEntity),
+            environment.getProperty(prefix + "entity.dryer-running", dryerRunningEntity),
+            environment.getProperty(prefix + "entity.dryer-time-remaining", dryerTimeRemainingEntity),
+            environment.getProperty(prefix + "entity.dryer-status", dryerStatusEntity),
+            environment.getProperty(prefix + "entity.dryer-sub-cycle", dryerSubCycleEntity),
+            environment.getProperty(prefix + "entity.dryer-end-of-cycle", dryerEndOfCycleEntity));
+    }
+    
+    private HttpEntity<Void> authEntity(HouseholdConfig config) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(token);
+        headers.setBearerAuth(config.token());
         return new HttpEntity<>(headers);
     }
     
-    private HAStateResponse getEntity(String entityId) {
-        if (!enabled || token == null || token.isEmpty()) {
+    private HAStateResponse getEntity(HouseholdConfig config, String entityId) {
+        if (!config.usable()) {
             return null;
         }
         
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
         try {
-            String url = baseUrl + "/api/states/" + entityId;
+            String url = config.baseUrl() + "/api/states/" + entityId;
             ResponseEntity<HAStateResponse> response = restTemplate.exchange(
                 url, 
                 HttpMethod.GET, 
-                authEntity(), 
+                authEntity(config), 
                 HAStateResponse.class
             );
+            if (response.getBody() == null) {
+                outcome = "empty";
+            }
             return response.getBody();
         } catch (RestClientException e) {
+            outcome = "error";
             System.err.println("Failed to fetch HA entity " + entityId + ": " + e.getMessage());
             return null;
+        } finally {
+            long elapsed = sample.stop(Timer.builder("ha.entity.fetch")
+                .description("Home Assistant state lookups")
+                .tag("entity", entityId)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+            RequestTimings.record(RequestTimings.Phase.HA, elapsed);
         }
     }
     
-    @Cacheable(value = "washer-status", unless = "#result == null")
-    public boolean isWasherRunning() {
-        // Check remote status first
-        HAStateResponse remoteStatus = getEntity(washerRunningEntity);
-        if (remoteStatus != null && "on".equalsIgnoreCase(remoteStatus.getState())) {
-            // Also verify machine state to be more accurate
-            HAStateResponse machineState = getEntity(washerStatusEntity);
-            if (machineState != null && machineState.getState() != null) {
-                String state = machineState.getState();
-                // Machine is running if state is "Run" or similar
-                if ("Run".equalsIgnoreCase(state) || "Running".equalsIgnoreCase(state)) {
-                    return true;
-                }
-                // If state is not "Idle" or "Standby", consider it running
-                if (!"Idle".equalsIgnoreCase(state) && !"Standby".equalsIgnoreCase(state)) {
-                    return true;
-                }
-            }
-            // If remote status is on, assume running
-            return true;
-        }
-        return false;
+    private String getState(HouseholdConfig config, String entityId) {
+        HAStateResponse response = getEntity(config, entityId);
+        return response != null ? response.getState() : null;
     }
     
-    @Cacheable(value = "washer-time", unless = "#result == null")
-    public Integer getWasherTimeRemaining() {
-        HAStateResponse response = getEntity(washerTimeRemainingEntity);
-        if (response == null || response.getState() == null) {
-            return null;
+    private String resolveStatus(HouseholdConfig config, String endOfCycleEntity, String statusEntity,
+                                 String subCycleEntity) {
+        // Check if cycle is finished first
+        if (!endOfCycleEntity.isEmpty() && MachineStates.isOn(getState(config, endOfCycleEntity))) {
+            return "finished";
         }
-        try {
-            String state = response.getState();
-            // Handle "unknown" or empty states
-            if (state == null || state.isEmpty() || "unknown".equalsIgnoreCase(state)) {
-                return null;
-            }
-            // Parse decimal minutes and round to nearest integer
-            double minutes = Double.parseDouble(state);
-            return (int) Math.round(minutes);
-        } catch (Exception e) {
-            return null;
+        
+        String machineState = getState(config, statusEntity);
+        if (machineState == null && !subCycleEntity.isEmpty()) {
+            return MachineStates.normalizeStatus(null, getState(config, subCycleEntity));
         }
+        return MachineStates.normalizeStatus(machineState, null);
+    }
+    
+    // Each cache holds one entry per household, keyed by its id
+    @Cacheable(value = "washer-status", unless = "#result == null")
+    public boolean isWasherRunning(Long householdId) {
+        HouseholdConfig config = config(householdId);
+        return MachineStates.isOn(getState(config, config.washerRunning()));
+    }
+    
+    @Cacheable(value = "washer-time", unless = "#result == null")
+    public Integer getWasherTimeRemaining(Long householdId) {
+        HouseholdConfig config = config(householdId);
+        return MachineStates.parseMinutes(getState(config, config.washerTimeRemaining()));
     }
     
     @Cacheable(value = "washer-status-text", unless = "#result == null")
-    public String getWasherStatus() {
-        // Check if cycle is finished first
-        if (!washerEndOfCycleEntity.isEmpty()) {
-            HAStateResponse endOfCycle = getEntity(washerEndOfCycleEntity);
-            if (endOfCycle != null && "on".equalsIgnoreCase(endOfCycle.getState())) {
-                return "finished";
-            }
-        }
-        
-        // Check machine state
-        HAStateResponse response = getEntity(washerStatusEntity);
-        if (response == null || response.getState() == null) {
-            // Fallback to sub-cycle if available
-            if (!washerSubCycleEntity.isEmpty()) {
-                HAStateResponse subCycle = getEntity(washerSubCycleEntity);
-                if (subCycle != null && subCycle.getState() != null) {
-                    return subCycle.getState().toLowerCase();
-                }
-            }
-            return "unknown";
-        }
-        
-        String state = response.getState();
-        // Normalize common states
-        if ("Run".equalsIgnoreCase(state) || "Running".equalsIgnoreCase(state)) {
-            return "running";
-        }
-        if ("Idle".equalsIgnoreCase(state) || "Standby".equalsIgnoreCase(state)) {
-            return "idle";
-        }
-        
-        return state != null ? state.toLowerCase() : "unknown";
+    public String getWasherStatus(Long householdId) {
+        HouseholdConfig config = config(householdId);
+        return resolveStatus(config, config.washerEndOfCycle(), config.washerStatus(), config.washerSubCycle());
     }
     
     // Dryer methods
     @Cacheable(value = "dryer-status", unless = "#result == null")
-    public boolean isDryerRunning() {
-        // Check remote status first
-        HAStateResponse remoteStatus = getEntity(dryerRunningEntity);
-        if (remoteStatus != null && "on".equalsIgnoreCase(remoteStatus.getState())) {
-            // Also verify machine state to be more accurate
-            HAStateResponse machineState = getEntity(dryerStatusEntity);
-            if (machineState != null && machineState.getState() != null) {
-                String state = machineState.getState();
-                // Machine is running if state is "Run" or similar
-                if ("Run".equalsIgnoreCase(state) || "Running".equalsIgnoreCase(state)) {
-                    return true;
-                }
-                // If state is not "Idle" or "Standby", consider it running
-                if (!"Idle".equalsIgnoreCase(state) && !"Standby".equalsIgnoreCase(state)) {
-                    return true;
-                }
-            }
-            // If remote status is on, assume running
-            return true;
-        }
-        return false;
+    public boolean isDryerRunning(Long householdId) {
+        HouseholdConfig config = config(householdId);
+        return MachineStates.isOn(getState(config, config.dryerRunning()));
     }
     
     @Cacheable(value = "dryer-time", unless = "#result == null")
-    public Integer getDryerTimeRemaining() {
-        HAStateResponse response = getEntity(dryerTimeRemainingEntity);
-        if (response == null || response.getState() == null) {
-            return null;
-        }
-        try {
-            String state = response.getState();
-            if (state == null || state.isEmpty() || "unknown".equalsIgnoreCase(state)) {
-                return null;
-            }
-            // Parse decimal minutes and round to nearest integer
-            double minutes = Double.parseDouble(state);
-            return (int) Math.round(minutes);
-        } catch (Exception e) {
-            return null;
-        }
+    public Integer getDryerTimeRemaining(Long householdId) {
+        HouseholdConfig config = config(householdId);
+        return MachineStates.parseMinutes(getState(config, config.dryerTimeRemaining()));
     }
     
     @Cacheable(value = "dryer-status-text", unless = "#result == null")
-    public String getDryerStatus() {
-        // Check if cycle is finished first
-        if (!dryerEndOfCycleEntity.isEmpty()) {
-            HAStateResponse endOfCycle = getEntity(dryerEndOfCycleEntity);
-            if (endOfCycle != null && "on".equalsIgnoreCase(endOfCycle.getState())) {
-                return "finished";
-            }
-        }
-        
-        // Check machine state
-        HAStateResponse response = getEntity(dryerStatusEntity);
-        if (response == null || response.getState() == null) {
-            // Fallback to sub-cycle if available
-            if (!dryerSubCycleEntity.isEmpty()) {
-                HAStateResponse subCycle = getEntity(dryerSubCycleEntity);
-                if (subCycle != null && subCycle.getState() != null) {
-                    return subCycle.getState().toLowerCase();
-                }
-            }
-            return "unknown";
-        }
-        
-        String state = response.getState();
-        // Normalize common states
-        if ("Run".equalsIgnoreCase(state) || "Running".equalsIgnoreCase(state)) {
-            return "running";
-        }
-        if ("Idle".equalsIgnoreCase(state) || "Standby".equalsIgnoreCase(state)) {
-            return "idle";
-        }
-        
-        return state != null ? state.toLowerCase() : "unknown";
+    public String getDryerStatus(Long householdId) {
+        HouseholdConfig config = config(householdId);
+        return resolveStatus(config, config.dryerEndOfCycle(), config.dryerStatus(), config.dryerSubCycle());
     }
     
     // Evict cache every 30 seconds to keep data fresh
@@ -257,8 +240,16 @@ public class HomeAssistantService {
         // Cache eviction happens automatically
     }
     
-    public boolean isEnabled() {
-        return enabled && token != null && !token.isEmpty();
+    // Drops one household's cached values and leaves the others' alone
+    @CacheEvict(value = {
+        "washer-status", "washer-time", "washer-status-text",
+        "dryer-status", "dryer-time", "dryer-status-text"
+    }, key = "#householdId")
+    public void evictMachineCache(Long householdId) {
+        // Cache eviction happens automatically
+    }
+    
+    public boolean isEnabled(Long householdId) {
+        return config(householdId).usable();
     }
 }
-
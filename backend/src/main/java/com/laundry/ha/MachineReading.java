@@ -0,0 +1,12 @@
+package com.laundry.ha;
+
+import java.time.Instant;
+
+// One machine's state as last read from Home Assistant
+public record MachineReading(boolean running, String status, Integer timeRemainingMinutes, Instant updatedAt) {
+    
+    // HA answers every entity lookup failure with an unknown status, so such a reading carries no information
+    boolean isKnown() {
+        return status != null && !"unknown".equals(status);
+    }
+}
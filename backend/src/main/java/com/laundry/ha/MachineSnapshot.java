@@ -0,0 +1,4 @@
+package com.laundry.ha;
+
+public record MachineSnapshot(MachineReading washer, MachineReading dryer) {
+}
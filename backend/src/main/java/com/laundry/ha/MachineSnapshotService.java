@@ -0,0 +1,199 @@
+package com.laundry.ha;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.model.Household;
+import com.laundry.repository.HouseholdRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps the last known washer/dryer state of each household and mirrors it to a small JSON file
+// per household, so after a restart the UI gets the previous state straight away (marked stale)
+// instead of waiting on HA.
+@Service
+public class MachineSnapshotService {
+    
+    private static final Logger log = LoggerFactory.getLogger(MachineSnapshotService.class);
+    
+    @Autowired
+    private HomeAssistantService haService;
+    
+    @Autowired
+    private HouseholdRepository householdRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${homeassistant.snapshot.file:data/machine-snapshot.json}")
+    private String snapshotFile;
+    
+    @Value("${homeassistant.snapshot.refresh-ms:30000}")
+    private long refreshMs;
+    
+    // Unchanged state is only rewritten this often, to spare the Pi's SD card
+    @Value("${homeassistant.snapshot.persist-interval-ms:300000}")
+    private long persistIntervalMs;
+    
+    private final Map<Long, HouseholdSnapshot> households = new ConcurrentHashMap<>();
+    
+    // One household's machines; refreshes of different households don't wait on each other
+    private static final class HouseholdSnapshot {
+        private final Path file;
+        private volatile MachineSnapshot snapshot;
+        private volatile boolean refreshedSinceStartup;
+        private MachineSnapshot lastPersisted;
+        private Instant lastPersistedAt = Instant.EPOCH;
+        
+        HouseholdSnapshot(Path file) {
+            this.file = file;
+        }
+    }
+    
+    private HouseholdSnapshot household(Long householdId) {
+        return households.computeIfAbsent(householdId, id -> load(snapshotFile(id)));
+    }
+    
+    // The default household keeps the configured file; others get their slug inserted before
+    // the extension, e.g. data/machine-snapshot-flat-2.json
+    private Path snapshotFile(Long householdId) {
+        Path file = Paths.get(snapshotFile);
+        if (Household.DEFAULT_ID.equals(householdId)) {
+            return file;
+        }
+        String slug = householdRepository.findById(householdId)
+            .map(Household::getSlug)
+            .orElse(householdId.toString());
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String householdName = dot > 0
+            ? name.substring(0, dot) + "-" + slug + name.substring(dot)
+            : name + "-" + slug;
+        return file.resolveSibling(householdName);
+    }
+    
+    private HouseholdSnapshot load(Path file) {
+        HouseholdSnapshot household = new HouseholdSnapshot(file);
+        if (!Files.exists(file)) {
+            return household;
+        }
+        try {
+            household.snapshot = objectMapper.readValue(file.toFile(), MachineSnapshot.class);
+            household.lastPersisted = household.snapshot;
+            log.info("Loaded machine snapshot from {}", file);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable machine snapshot {}: {}", file, e.getMessage());
+        }
+        return household;
+    }
+    
+    @PostConstruct
+    void loadDefault() {
+        household(Household.DEFAULT_ID);
+    }
+    
+    // Null until a snapshot has been loaded from disk or fetched
+    public MachineSnapshot current(Long householdId) {
+        return household(householdId).snapshot;
+    }
+    
+    public boolean isStale(Long householdId, MachineReading reading) {
+        return !household(householdId).refreshedSinceStartup
+            || reading.updatedAt() == null
+            || reading.updatedAt().isBefore(Instant.now().minusMillis(2 * refreshMs));
+    }
+    
+    // Runs on the scheduler right after startup, so the first live read never blocks a request
+    @Scheduled(initialDelay = 0, fixedDelayString = "${homeassistant.snapshot.refresh-ms:30000}")
+    public void refresh() {
+        for (Household household : householdRepository.findAll()) {
+            refresh(household.getId());
+        }
+    }
+    
+    public void refresh(Long householdId) {
+        if (!haService.isEnabled(householdId)) {
+            return;
+        }
+        HouseholdSnapshot household = household(householdId);
+        synchronized (household) {
+            // Drop the cached entity values so the snapshot timestamps reflect a real HA read
+            haService.evictMachineCache(householdId);
+            Instant now = Instant.now();
+            MachineReading washer = new MachineReading(haService.isWasherRunning(householdId),
+                haService.getWasherStatus(householdId), haService.getWasherTimeRemaining(householdId), now);
+            MachineReading dryer = new MachineReading(haService.isDryerRunning(householdId),
+                haService.getDryerStatus(householdId), haService.getDryerTimeRemaining(householdId), now);
+            
+            MachineSnapshot previous = household.snapshot;
+            household.snapshot = new MachineSnapshot(
+                newerKnown(washer, previous != null ? previous.washer() : null),
+                newerKnown(dryer, previous != null ? previous.dryer() : null)
+            );
+            household.refreshedSinceStartup = true;
+            
+            if (!sameState(household.snapshot, household.lastPersisted)
+                    || Duration.between(household.lastPersistedAt, now).toMillis() >= persistIntervalMs) {
+                persist(household, household.snapshot, now);
+            }
+        }
+    }
+    
+    // A failed HA lookup keeps the previous reading, with its older timestamp
+    private MachineReading newerKnown(MachineReading fresh, MachineReading previous) {
+        if (!fresh.isKnown() && previous != null && previous.isKnown()) {
+            return previous;
+        }
+        return fresh;
+    }
+    
+    private boolean sameState(MachineSnapshot a, MachineSnapshot b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return sameState(a.washer(), b.washer()) && sameState(a.dryer(), b.dryer());
+    }
+    
+    private boolean sameState(MachineReading a, MachineReading b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.running() == b.running()
+            && Objects.equals(a.status(), b.status())
+            && Objects.equals(a.timeRemainingMinutes(), b.timeRemainingMinutes());
+    }
+    
+    // Write to a temp file in the same directory and rename over the old one, so a crash
+    // or power cut mid-write never leaves a truncated snapshot behind
+    private void persist(HouseholdSnapshot household, MachineSnapshot value, Instant now) {
+        Path file = household.file.toAbsolutePath();
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                objectMapper.writeValue(temp.toFile(), value);
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            household.lastPersisted = value;
+            household.lastPersistedAt = now;
+        } catch (IOException e) {
+            log.warn("Could not write machine snapshot {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.laundry.ha;
+
+// Normalization of raw Home Assistant entity states into the values the UI understands
+public final class MachineStates {
+    
+    private MachineStates() {
+    }
+    
+    public static boolean isOn(String state) {
+        return "on".equalsIgnoreCase(state);
+    }
+    
+    public static String normalizeStatus(String machineState, String subCycleState) {
+        if (machineState == null) {
+            // Fallback to sub-cycle if available
+            return subCycleState != null ? subCycleState.toLowerCase() : "unknown";
+        }
+        if ("Run".equalsIgnoreCase(machineState) || "Running".equalsIgnoreCase(machineState)) {
+            return "running";
+        }
+        if ("Idle".equalsIgnoreCase(machineState) || "Standby".equalsIgnoreCase(machineState)) {
+            return "idle";
+        }
+        return machineState.toLowerCase();
+    }
+    
+    // Decimal minutes rounded to the nearest minute, or null for unknown/unparseable states
+    public static Integer parseMinutes(String state) {
+        if (state == null || state.isEmpty() || "unknown".equalsIgnoreCase(state)) {
+            return null;
+        }
+        try {
+            return (int) Math.round(Double.parseDouble(state));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
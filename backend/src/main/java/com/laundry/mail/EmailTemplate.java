@@ -0,0 +1,156 @@
+package com.laundry.mail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// A template parsed once into literal, variable and section segments. Supports
+// {{name}} (HTML-escaped in HTML templates), {{{name}}} (raw) and {{#name}}...{{/name}},
+// which renders its body only when the value is present and non-empty.
+public final class EmailTemplate {
+    
+    private final String name;
+    private final boolean html;
+    private final List<Segment> segments;
+    private final int sizeHint;
+    
+    private EmailTemplate(String name, boolean html, List<Segment> segments, int sizeHint) {
+        this.name = name;
+        this.html = html;
+        this.segments = segments;
+        this.sizeHint = sizeHint;
+    }
+    
+    public static EmailTemplate compile(String name, String source, boolean html) {
+        List<List<Segment>> stack = new ArrayList<>();
+        List<String> openSections = new ArrayList<>();
+        List<Segment> current = new ArrayList<>();
+        
+        int pos = 0;
+        while (pos < source.length()) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) {
+                current.add(new Literal(source.substring(pos)));
+                break;
+            }
+            if (open > pos) {
+                current.add(new Literal(source.substring(pos, open)));
+            }
+            
+            boolean raw = source.startsWith("{{{", open);
+            String closeToken = raw ? "}}}" : "}}";
+            int close = source.indexOf(closeToken, open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed tag in email template " + name + " at offset " + open);
+            }
+            String tag = source.substring(open + (raw ? 3 : 2), close).trim();
+            pos = close + closeToken.length();
+            
+            if (tag.startsWith("#")) {
+                stack.add(current);
+                openSections.add(tag.substring(1).trim());
+                current = new ArrayList<>();
+            } else if (tag.startsWith("/")) {
+                String section = tag.substring(1).trim();
+                if (openSections.isEmpty() || !openSections.get(openSections.size() - 1).equals(section)) {
+                    throw new IllegalArgumentException("Unexpected {{/" + section + "}} in email template " + name);
+                }
+                openSections.remove(openSections.size() - 1);
+                List<Segment> body = current;
+                current = stack.remove(stack.size() - 1);
+                current.add(new Section(section, body));
+            } else {
+                current.add(new Variable(tag, html && !raw));
+            }
+        }
+        if (!openSections.isEmpty()) {
+            throw new IllegalArgumentException("Unclosed {{#" + openSections.get(0) + "}} in email template " + name);
+        }
+        return new EmailTemplate(name, html, List.copyOf(current), source.length());
+    }
+    
+    public String render(Map<String, ?> model) {
+        StringBuilder out = new StringBuilder(sizeHint + 64);
+        renderTo(out, model);
+        return out.toString();
+    }
+    
+    public void renderTo(StringBuilder out, Map<String, ?> model) {
+        for (Segment segment : segments) {
+            segment.render(out, model);
+        }
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public boolean isHtml() {
+        return html;
+    }
+    
+    static void escapeHtml(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+    
+    private static boolean isPresent(Object value) {
+        if (value == null || Boolean.FALSE.equals(value)) {
+            return false;
+        }
+        if (value instanceof CharSequence text) {
+            return text.length() > 0;
+        }
+        if (value instanceof Collection<?> collection) {
+            return !collection.isEmpty();
+        }
+        return true;
+    }
+    
+    private interface Segment {
+        void render(StringBuilder out, Map<String, ?> model);
+    }
+    
+    private record Literal(String text) implements Segment {
+        @Override
+        public void render(StringBuilder out, Map<String, ?> model) {
+            out.append(text);
+        }
+    }
+    
+    private record Variable(String key, boolean escape) implements Segment {
+        @Override
+        public void render(StringBuilder out, Map<String, ?> model) {
+            Object value = model.get(key);
+            if (value == null) {
+                return;
+            }
+            if (escape) {
+                escapeHtml(out, value.toString());
+            } else {
+                out.append(value);
+            }
+        }
+    }
+    
+    private record Section(String key, List<Segment> body) implements Segment {
+        @Override
+        public void render(StringBuilder out, Map<String, ?> model) {
+            if (isPresent(model.get(key))) {
+                for (Segment segment : body) {
+                    segment.render(out, model);
+                }
+            }
+        }
+    }
+}
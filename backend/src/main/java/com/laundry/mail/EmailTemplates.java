@@ -0,0 +1,50 @@
+package com.laundry.mail;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+// Loads and compiles every template under templates/email once at startup, so a broken
+// template fails the boot rather than the first send
+@Component
+public class EmailTemplates {
+    
+    private static final String LOCATION = "classpath:templates/email/*";
+    
+    private final Map<String, EmailTemplate> templates = new HashMap<>();
+    
+    @PostConstruct
+    public void load() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(LOCATION);
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            if (filename == null || !(filename.endsWith(".html") || filename.endsWith(".txt"))) {
+                continue;
+            }
+            String source = resource.getContentAsString(StandardCharsets.UTF_8);
+            templates.put(filename, EmailTemplate.compile(filename, source, filename.endsWith(".html")));
+        }
+    }
+    
+    public EmailTemplate text(String name) {
+        return get(name + ".txt");
+    }
+    
+    public EmailTemplate html(String name) {
+        return get(name + ".html");
+    }
+    
+    private EmailTemplate get(String filename) {
+        EmailTemplate template = templates.get(filename);
+        if (template == null) {
+            throw new IllegalStateException("Email template not found: " + filename);
+        }
+        return template;
+    }
+}
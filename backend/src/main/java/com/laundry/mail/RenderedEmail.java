@@ -0,0 +1,4 @@
+package com.laundry.mail;
+
+public record RenderedEmail(String subject, String text, String html) {
+}
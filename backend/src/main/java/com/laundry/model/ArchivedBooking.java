@@ -0,0 +1,98 @@
+package com.laundry.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Rows are only ever inserted by the archive SQL in ArchivedBookingRepository
+@Entity
+@Immutable
+@Table(name = "bookings_archive")
+public class ArchivedBooking {
+    @Id
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long userId;
+    
+    @Column(name = "household_id", nullable = false)
+    private Long householdId;
+    
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+    
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+    
+    private String notes;
+    
+    @Column(nullable = false)
+    private boolean usesWasher;
+    
+    @Column(nullable = false)
+    private boolean usesDryer;
+    
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public Long getHouseholdId() {
+        return householdId;
+    }
+    
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+    
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public boolean isUsesWasher() {
+        return usesWasher;
+    }
+    
+    public boolean isUsesDryer() {
+        return usesDryer;
+    }
+    
+    public Set<Machine> getMachines() {
+        Set<Machine> machines = EnumSet.noneOf(Machine.class);
+        if (usesWasher) {
+            machines.add(Machine.WASHER);
+        }
+        if (usesDryer) {
+            machines.add(Machine.DRYER);
+        }
+        return machines;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -3,6 +3,8 @@ package com.laundry.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Entity
 @Table(name = "bookings")
@@ -15,6 +17,10 @@ public class Booking {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
+    // Copied from the user; every overlap check and calendar query is scoped to it
+    @Column(name = "household_id", nullable = false)
+    private Long householdId;
+    
     @NotNull
     @Column(nullable = false)
     private LocalDateTime startTime;
@@ -25,9 +31,25 @@ public class Booking {
     
     private String notes;
     
+    // Each machine is its own resource: overlap checks and write locks are per machine
+    @Column(nullable = false)
+    private boolean usesWasher = true;
+    
+    @Column(nullable = false)
+    private boolean usesDryer = true;
+    
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    // Bumped on every update; reschedules carry the version the client last saw
+    @Version
+    @Column(nullable = false)
+    private Long version = 0L;
+    
+    // Set only on unsaved occurrences expanded from a BookingSeries
+    @Transient
+    private Long seriesId;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -48,6 +70,14 @@ public class Booking {
         this.id = id;
     }
     
+    public Long getHouseholdId() {
+        return householdId;
+    }
+    
+    public void setHouseholdId(Long householdId) {
+        this.householdId = householdId;
+    }
+    
     public User getUser() {
         return user;
     }
@@ -80,6 +110,42 @@ public class Booking {
         this.notes = notes;
     }
     
+    public boolean isUsesWasher() {
+        return usesWasher;
+    }
+    
+    public void setUsesWasher(boolean usesWasher) {
+        this.usesWasher = usesWasher;
+    }
+    
+    public boolean isUsesDryer() {
+        return usesDryer;
+    }
+    
+    public void setUsesDryer(boolean usesDryer) {
+        this.usesDryer = usesDryer;
+    }
+    
+    public boolean uses(Machine machine) {
+        return machine == Machine.WASHER ? usesWasher : usesDryer;
+    }
+    
+    public Set<Machine> getMachines() {
+        Set<Machine> machines = EnumSet.noneOf(Machine.class);
+        if (usesWasher) {
+            machines.add(Machine.WASHER);
+        }
+        if (usesDryer) {
+            machines.add(Machine.DRYER);
+        }
+        return machines;
+    }
+    
+    public void setMachines(Set<Machine> machines) {
+        this.usesWasher = machines.contains(Machine.WASHER);
+        this.usesDryer = machines.contains(Machine.DRYER);
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -88,6 +154,14 @@ public class Booking {
         this.createdAt = createdAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
@@ -95,5 +169,12 @@ public class Booking {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getSeriesId() {
+        return seriesId;
+    }
+    
+    public void setSeriesId(Long seriesId) {
+        this.seriesId = seriesId;
+    }
 }
-
@@ -0,0 +1,219 @@
+package com.laundry.model;
+
+import com.laundry.util.RecurrenceRule;
+import jakarta.persistence.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+// A recurring booking: the first occurrence plus an RRULE, with cancelled occurrences kept
+// as exceptions. Occurrences are never stored; they are expanded for the range being looked at.
+@Entity
+@Table(name = "booking_series")
+public class BookingSeries {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(name = "household_id", nullable = false)
+    private Long householdId;
+    
+    // Start of the first occurrence; all occurrences share its time of day
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+    
+    @Column(nullable = false)
+    private int durationMinutes;
+    
+    @Column(nullable = false)
+    private String rrule;
+    
+    // End of the last occurrence, null for open-ended series; lets queries skip finished series
+    private LocalDateTime lastEnd;
+    
+    @Column(nullable = false)
+    private boolean usesWasher = true;
+    
+    @Column(nullable = false)
+    private boolean usesDryer = true;
+    
+    private String notes;
+    
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "booking_series_exceptions", joinColumns = @JoinColumn(name = "series_id"))
+    @Column(name = "occurrence_start", nullable = false)
+    private Set<LocalDateTime> exceptions = new HashSet<>();
+    
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    @Transient
+    private RecurrenceRule parsedRule;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public RecurrenceRule getRule() {
+        if (parsedRule == null) {
+            parsedRule = RecurrenceRule.parse(rrule, startTime);
+        }
+        return parsedRule;
+    }
+    
+    public Duration getDuration() {
+        return Duration.ofMinutes(durationMinutes);
+    }
+    
+    public boolean occursAt(LocalDateTime start) {
+        return !exceptions.contains(start) && getRule().isOccurrence(start);
+    }
+    
+    // Unsaved Booking standing in for one occurrence, so the calendar, slot search and
+    // reminder code can treat it like any other booking. Must never be persisted.
+    public Booking occurrence(LocalDateTime start) {
+        Booking booking = new Booking();
+        booking.setSeriesId(id);
+        booking.setUser(user);
+        booking.setHouseholdId(householdId);
+        booking.setStartTime(start);
+        booking.setEndTime(start.plusMinutes(durationMinutes));
+        booking.setNotes(notes);
+        booking.setUsesWasher(usesWasher);
+        booking.setUsesDryer(usesDryer);
+        booking.setCreatedAt(createdAt);
+        return booking;
+    }
+    
+    public boolean uses(Machine machine) {
+        return machine == Machine.WASHER ? usesWasher : usesDryer;
+    }
+    
+    public Set<Machine> getMachines() {
+        Set<Machine> machines = EnumSet.noneOf(Machine.class);
+        if (usesWasher) {
+            machines.add(Machine.WASHER);
+        }
+        if (usesDryer) {
+            machines.add(Machine.DRYER);
+        }
+        return machines;
+    }
+    
+    public void setMachines(Set<Machine> machines) {
+        this.usesWasher = machines.contains(Machine.WASHER);
+        this.usesDryer = machines.contains(Machine.DRYER);
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getHouseholdId() {
+        return householdId;
+    }
+    
+    public void setHouseholdId(Long householdId) {
+        this.householdId = householdId;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public void setUser(User user) {
+        this.user = user;
+    }
+    
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+        this.parsedRule = null;
+    }
+    
+    public int getDurationMinutes() {
+        return durationMinutes;
+    }
+    
+    public void setDurationMinutes(int durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+    
+    public String getRrule() {
+        return rrule;
+    }
+    
+    public void setRrule(String rrule) {
+        this.rrule = rrule;
+        this.parsedRule = null;
+    }
+    
+    public LocalDateTime getLastEnd() {
+        return lastEnd;
+    }
+    
+    public void setLastEnd(LocalDateTime lastEnd) {
+        this.lastEnd = lastEnd;
+    }
+    
+    public boolean isUsesWasher() {
+        return usesWasher;
+    }
+    
+    public void setUsesWasher(boolean usesWasher) {
+        this.usesWasher = usesWasher;
+    }
+    
+    public boolean isUsesDryer() {
+        return usesDryer;
+    }
+    
+    public void setUsesDryer(boolean usesDryer) {
+        this.usesDryer = usesDryer;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+    
+    public Set<LocalDateTime> getExceptions() {
+        return exceptions;
+    }
+    
+    public void setExceptions(Set<LocalDateTime> exceptions) {
+        this.exceptions = exceptions;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
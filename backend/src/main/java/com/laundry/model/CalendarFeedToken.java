@@ -0,0 +1,61 @@
+package com.laundry.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Grants read access to a user's .ics feeds without a login; the token itself is only shown
+// once, when it is created
+@Entity
+@Table(name = "calendar_feed_tokens")
+public class CalendarFeedToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, unique = true)
+    private User user;
+    
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+    
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public void setUser(User user) {
+        this.user = user;
+    }
+    
+    public String getTokenHash() {
+        return tokenHash;
+    }
+    
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,80 @@
+package com.laundry.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One laundry room and the people sharing it. Users, bookings, series and waitlist entries
+// carry the household id, and every calendar query and cache is keyed by it.
+@Entity
+@Table(name = "households")
+public class Household {
+    // Created by the migration; everything from before households existed belongs to it
+    public static final Long DEFAULT_ID = 1L;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Names the household at signup and in the homeassistant.households config
+    @Column(nullable = false, unique = true, length = 64)
+    private String slug;
+    
+    @Column(nullable = false)
+    private String name;
+    
+    private LocalDateTime createdAt;
+    
+    // Only changed by HouseholdRepository's update queries; see CalendarVersion
+    @Column(nullable = false)
+    private long calendarVersion = 1;
+    
+    @Column(nullable = false)
+    private LocalDateTime calendarModifiedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        calendarModifiedAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getSlug() {
+        return slug;
+    }
+    
+    public void setSlug(String slug) {
+        this.slug = slug;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public long getCalendarVersion() {
+        return calendarVersion;
+    }
+    
+    public LocalDateTime getCalendarModifiedAt() {
+        return calendarModifiedAt;
+    }
+}
@@ -0,0 +1,104 @@
+package com.laundry.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+    // "<userId>:<Idempotency-Key header>", so users can't replay each other's responses
+    @Id
+    @Column(name = "idem_key", length = 320)
+    private String key;
+    
+    @Column(nullable = false)
+    private Long userId;
+    
+    // SHA-256 of the endpoint and request, to refuse a key reused for a different request
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+    
+    // Null while the first request is still running
+    private Integer statusCode;
+    
+    @Column(length = 100)
+    private String contentType;
+    
+    @Column(columnDefinition = "TEXT")
+    private String body;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    public boolean isCompleted() {
+        return statusCode != null;
+    }
+    
+    // Getters and Setters
+    public String getKey() {
+        return key;
+    }
+    
+    public void setKey(String key) {
+        this.key = key;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getRequestHash() {
+        return requestHash;
+    }
+    
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+    
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+    
+    public void setStatusCode(Integer statusCode) {
+        this.statusCode = statusCode;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+    
+    public void setBody(String body) {
+        this.body = body;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,84 @@
+package com.laundry.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "job_leases")
+public class JobLease {
+    @Id
+    @Column(length = 128)
+    private String name;
+    
+    @Column(nullable = false)
+    private String owner;
+    
+    @Column(nullable = false)
+    private LocalDateTime leaseUntil;
+    
+    private LocalDateTime lastStartedAt;
+    private LocalDateTime lastFinishedAt;
+    
+    @Column(length = 16)
+    private String lastStatus;
+    
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+    
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getOwner() {
+        return owner;
+    }
+    
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+    
+    public LocalDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+    
+    public void setLeaseUntil(LocalDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+    
+    public LocalDateTime getLastStartedAt() {
+        return lastStartedAt;
+    }
+    
+    public void setLastStartedAt(LocalDateTime lastStartedAt) {
+        this.lastStartedAt = lastStartedAt;
+    }
+    
+    public LocalDateTime getLastFinishedAt() {
+        return lastFinishedAt;
+    }
+    
+    public void setLastFinishedAt(LocalDateTime lastFinishedAt) {
+        this.lastFinishedAt = lastFinishedAt;
+    }
+    
+    public String getLastStatus() {
+        return lastStatus;
+    }
+    
+    public void setLastStatus(String lastStatus) {
+        this.lastStatus = lastStatus;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
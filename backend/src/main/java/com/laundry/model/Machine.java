@@ -0,0 +1,14 @@
+package com.laundry.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum Machine {
+    WASHER,
+    DRYER;
+    
+    // Bookings made before machines were tracked (and requests that don't say) take both
+    public static Set<Machine> all() {
+        return EnumSet.allOf(Machine.class);
+    }
+}
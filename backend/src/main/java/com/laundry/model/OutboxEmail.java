@@ -0,0 +1,140 @@
+package com.laundry.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_due", columnList = "status, nextAttemptAt")
+})
+public class OutboxEmail {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String recipient;
+    
+    @Column(nullable = false)
+    private String subject;
+    
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+    
+    @Column(columnDefinition = "TEXT")
+    private String htmlBody;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status = OutboxStatus.PENDING;
+    
+    @Column(nullable = false)
+    private int attempts = 0;
+    
+    // Due time while PENDING, lease expiry while SENDING
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+    
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+    
+    public void setBody(String body) {
+        this.body = body;
+    }
+    
+    public String getHtmlBody() {
+        return htmlBody;
+    }
+    
+    public void setHtmlBody(String htmlBody) {
+        this.htmlBody = htmlBody;
+    }
+    
+    public OutboxStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(OutboxStatus status) {
+        this.status = status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+    
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+}
@@ -0,0 +1,8 @@
+package com.laundry.model;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -14,6 +14,9 @@ public class User {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @Column(name = "household_id", nullable = false)
+    private Long householdId;
+    
     @NotBlank
     @Column(unique = true)
     private String username;
@@ -65,6 +68,14 @@ public class User {
         this.id = id;
     }
     
+    public Long getHouseholdId() {
+        return householdId;
+    }
+    
+    public void setHouseholdId(Long householdId) {
+        this.householdId = householdId;
+    }
+    
     public String getUsername() {
         return username;
     }
@@ -0,0 +1,128 @@
+package com.laundry.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+// A user waiting for a slot that is taken; the id doubles as the queue position
+@Entity
+@Table(name = "waitlist_entries")
+public class WaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(name = "household_id", nullable = false)
+    private Long householdId;
+    
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+    
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+    
+    @Column(nullable = false)
+    private boolean usesWasher = true;
+    
+    @Column(nullable = false)
+    private boolean usesDryer = true;
+    
+    private String notes;
+    
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    public Set<Machine> getMachines() {
+        Set<Machine> machines = EnumSet.noneOf(Machine.class);
+        if (usesWasher) {
+            machines.add(Machine.WASHER);
+        }
+        if (usesDryer) {
+            machines.add(Machine.DRYER);
+        }
+        return machines;
+    }
+    
+    public void setMachines(Set<Machine> machines) {
+        this.usesWasher = machines.contains(Machine.WASHER);
+        this.usesDryer = machines.contains(Machine.DRYER);
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getHouseholdId() {
+        return householdId;
+    }
+    
+    public void setHouseholdId(Long householdId) {
+        this.householdId = householdId;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public void setUser(User user) {
+        this.user = user;
+    }
+    
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public boolean isUsesWasher() {
+        return usesWasher;
+    }
+    
+    public void setUsesWasher(boolean usesWasher) {
+        this.usesWasher = usesWasher;
+    }
+    
+    public boolean isUsesDryer() {
+        return usesDryer;
+    }
+    
+    public void setUsesDryer(boolean usesDryer) {
+        this.usesDryer = usesDryer;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,22 @@
+package com.laundry.perf;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+public class RepositoryTimingAspect {
+    
+    // Covers the inherited CrudRepository methods as well as our own queries
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestTimings.record(RequestTimings.Phase.DB, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.laundry.perf;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// Runs ahead of the security chain so the auth filter is inside the measured time
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestInstrumentationFilter extends OncePerRequestFilter {
+    
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_MDC_KEY = "requestId";
+    
+    private static final Logger log = LoggerFactory.getLogger(RequestInstrumentationFilter.class);
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    
+    @Autowired
+    private RequestPerfRegistry perfRegistry;
+    
+    @Value("${perf.slow-threshold-ms:500}")
+    private long slowThresholdMs;
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String requestId = requestId(request);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+        RequestTimings timings = RequestTimings.begin();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            String route = request.getMethod() + " " + route(request);
+            perfRegistry.recordLatency(route, elapsed);
+            if (elapsed >= slowThresholdMs * 1_000_000) {
+                SlowRequest slow = new SlowRequest(
+                    requestId,
+                    LocalDateTime.now(),
+                    request.getMethod(),
+                    route(request),
+                    request.getRequestURI(),
+                    response.getStatus(),
+                    elapsed / 1_000_000.0,
+                    timings.millisByPhase(),
+                    timings.callsByPhase()
+                );
+                perfRegistry.recordSlow(slow);
+                log.warn("Slow request {} took {} ms: {}", route, slow.totalMs(), slow.phaseMs());
+            }
+            RequestTimings.end();
+            MDC.remove(REQUEST_ID_MDC_KEY);
+        }
+    }
+    
+    // Reuse the caller's ID (e.g. from the proxy) when it is safe to echo back
+    private String requestId(HttpServletRequest request) {
+        String incoming = request.getHeader(REQUEST_ID_HEADER);
+        if (incoming != null && VALID_REQUEST_ID.matcher(incoming).matches()) {
+            return incoming;
+        }
+        return UUID.randomUUID().toString();
+    }
+    
+    private String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNMAPPED";
+    }
+}
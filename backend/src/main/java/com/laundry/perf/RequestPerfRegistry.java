@@ -0,0 +1,69 @@
+package com.laundry.perf;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class RequestPerfRegistry {
+    
+    // Keyed by "METHOD /route/{template}", so the number of histograms is bounded by the controllers
+    private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+    
+    // Most recent slow requests; the oldest entry is overwritten once full
+    private final SlowRequest[] slowRequests;
+    private int nextSlot;
+    
+    public RequestPerfRegistry(@Value("${perf.slow-buffer-size:256}") int slowBufferSize) {
+        this.slowRequests = new SlowRequest[slowBufferSize];
+    }
+    
+    public void recordLatency(String route, long elapsedNanos) {
+        latencies.computeIfAbsent(route, key -> new ConcurrentHistogram(3))
+            .recordValue(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    }
+    
+    public synchronized void recordSlow(SlowRequest request) {
+        slowRequests[nextSlot] = request;
+        nextSlot = (nextSlot + 1) % slowRequests.length;
+    }
+    
+    public synchronized List<SlowRequest> slowest(int limit) {
+        List<SlowRequest> recent = new ArrayList<>();
+        for (SlowRequest request : slowRequests) {
+            if (request != null) {
+                recent.add(request);
+            }
+        }
+        recent.sort(Comparator.comparingDouble(SlowRequest::totalMs).reversed());
+        return recent.subList(0, Math.min(limit, recent.size()));
+    }
+    
+    public List<Map<String, Object>> routeSummaries() {
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        latencies.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> {
+                Histogram histogram = entry.getValue().copy();
+                Map<String, Object> summary = new LinkedHashMap<>();
+                summary.put("route", entry.getKey());
+                summary.put("count", histogram.getTotalCount());
+                summary.put("meanMs", histogram.getMean() / 1000.0);
+                summary.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+                summary.put("p90Ms", histogram.getValueAtPercentile(90) / 1000.0);
+                summary.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+                summary.put("maxMs", histogram.getMaxValue() / 1000.0);
+                summaries.add(summary);
+            });
+        return summaries;
+    }
+}
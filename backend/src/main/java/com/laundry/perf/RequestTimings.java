@@ -0,0 +1,54 @@
+package com.laundry.perf;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Time spent in each phase of the request being served on this thread.
+// Phases can overlap: auth includes the user lookup that is also counted as DB.
+public final class RequestTimings {
+    
+    public enum Phase { AUTH, DB, HA, SERIALIZATION }
+    
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    
+    private final long[] nanos = new long[Phase.values().length];
+    private final int[] calls = new int[Phase.values().length];
+    
+    private RequestTimings() {
+    }
+    
+    static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+    
+    static void end() {
+        CURRENT.remove();
+    }
+    
+    // No-op outside a request, e.g. on scheduler or email sender threads
+    public static void record(Phase phase, long elapsedNanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.nanos[phase.ordinal()] += elapsedNanos;
+            timings.calls[phase.ordinal()]++;
+        }
+    }
+    
+    Map<String, Double> millisByPhase() {
+        Map<String, Double> millis = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            millis.put(phase.name().toLowerCase(), nanos[phase.ordinal()] / 1_000_000.0);
+        }
+        return millis;
+    }
+    
+    Map<String, Integer> callsByPhase() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            counts.put(phase.name().toLowerCase(), calls[phase.ordinal()]);
+        }
+        return counts;
+    }
+}
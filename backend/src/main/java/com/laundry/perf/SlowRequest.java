@@ -0,0 +1,17 @@
+package com.laundry.perf;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public record SlowRequest(
+    String requestId,
+    LocalDateTime finishedAt,
+    String method,
+    String route,
+    String uri,
+    int status,
+    double totalMs,
+    Map<String, Double> phaseMs,
+    Map<String, Integer> phaseCalls
+) {
+}
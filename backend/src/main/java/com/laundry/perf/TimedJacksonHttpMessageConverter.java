@@ -0,0 +1,28 @@
+package com.laundry.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+// Attributes JSON response writing to the serialization phase of the current request
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+    
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            RequestTimings.record(RequestTimings.Phase.SERIALIZATION, System.nanoTime() - start);
+        }
+    }
+}
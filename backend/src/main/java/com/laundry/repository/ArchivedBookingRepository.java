@@ -0,0 +1,54 @@
+package com.laundry.repository;
+
+import com.laundry.model.ArchivedBooking;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    
+    // Moves one chunk of finished bookings into the archive in a single statement. Rows locked
+    // by a concurrent edit are skipped and picked up by a later run; the start_time bound lets
+    // Postgres prune the monthly partitions that can't contain any.
+    @Modifying
+    @Query(value = """
+        WITH doomed AS (
+            SELECT id, start_time FROM bookings
+            WHERE start_time < :cutoff AND end_time < :cutoff
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        ), moved AS (
+            DELETE FROM bookings b USING doomed d
+            WHERE b.id = d.id AND b.start_time = d.start_time
+            RETURNING b.*
+        )
+        INSERT INTO bookings_archive (id, household_id, user_id, start_time, end_time, notes, uses_washer,
+                                      uses_dryer, created_at, updated_at, archived_at)
+        SELECT id, household_id, user_id, start_time, end_time, notes, uses_washer,
+               uses_dryer, created_at, updated_at, localtimestamp FROM moved
+        ON CONFLICT (id) DO NOTHING""", nativeQuery = true)
+    int archiveChunk(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+    
+    Page<ArchivedBooking> findByHouseholdIdAndStartTimeGreaterThanEqualAndStartTimeLessThan(
+        Long householdId, LocalDateTime from, LocalDateTime to, Pageable pageable);
+    
+    Page<ArchivedBooking> findByHouseholdIdAndUserIdAndStartTimeGreaterThanEqualAndStartTimeLessThan(
+        Long householdId, Long userId, LocalDateTime from, LocalDateTime to, Pageable pageable);
+    
+    @Query("SELECT MIN(a.startTime) FROM ArchivedBooking a WHERE a.startTime < :before")
+    LocalDateTime findOldestStartBefore(@Param("before") LocalDateTime before);
+    
+    List<ArchivedBooking> findByStartTimeGreaterThanEqualAndStartTimeLessThanOrderByStartTime(
+        LocalDateTime from, LocalDateTime to);
+    
+    @Modifying
+    @Query("DELETE FROM ArchivedBooking a WHERE a.startTime >= :from AND a.startTime < :to")
+    int deleteByStartTimeRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -2,6 +2,7 @@ package com.laundry.repository;
 
 import com.laundry.model.Booking;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,18 +13,97 @@ import java.util.List;
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByStartTimeBetween(LocalDateTime start, LocalDateTime end);
     
-    @Query("SELECT b FROM Booking b WHERE b.startTime >= :start AND b.endTime <= :end")
-    List<Booking> findBookingsInRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    // Everything but findByStartTimeBetween (the reminder refresh, which covers every household)
+    // and the per-user lookups is scoped to one household, matching the household-first indexes
+    @Query("SELECT b FROM Booking b WHERE b.householdId = :householdId " +
+           "AND b.startTime >= :start AND b.endTime <= :end")
+    List<Booking> findBookingsInRange(@Param("householdId") Long householdId,
+                                      @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
     
-    @Query("SELECT b FROM Booking b WHERE b.startTime >= :now AND b.startTime < :tomorrow")
-    List<Booking> findTodayBookings(@Param("now") LocalDateTime now, @Param("tomorrow") LocalDateTime tomorrow);
+    @Query("SELECT b FROM Booking b WHERE b.householdId = :householdId " +
+           "AND b.startTime >= :now AND b.startTime < :tomorrow")
+    List<Booking> findTodayBookings(@Param("householdId") Long householdId,
+                                    @Param("now") LocalDateTime now, @Param("tomorrow") LocalDateTime tomorrow);
     
-    @Query("SELECT b FROM Booking b WHERE b.startTime >= :weekStart AND b.startTime < :weekEnd")
-    List<Booking> findWeekBookings(@Param("weekStart") LocalDateTime weekStart, @Param("weekEnd") LocalDateTime weekEnd);
+    @Query("SELECT b FROM Booking b JOIN FETCH b.user WHERE b.householdId = :householdId " +
+           "AND b.startTime >= :weekStart AND b.startTime < :weekEnd ORDER BY b.startTime")
+    List<Booking> findWeekBookings(@Param("householdId") Long householdId,
+                                   @Param("weekStart") LocalDateTime weekStart, @Param("weekEnd") LocalDateTime weekEnd);
     
-    @Query("SELECT b FROM Booking b WHERE " +
-           "(b.startTime < :endTime AND b.endTime > :startTime)")
-    List<Booking> findOverlappingBookings(@Param("startTime") LocalDateTime startTime, 
+    @Query("SELECT b FROM Booking b WHERE b.householdId = :householdId " +
+           "AND b.startTime < :endTime AND b.endTime > :startTime")
+    List<Booking> findOverlappingBookings(@Param("householdId") Long householdId,
+                                          @Param("startTime") LocalDateTime startTime, 
                                           @Param("endTime") LocalDateTime endTime);
+    
+    // For the calendar feeds, which print names, so the users come along in the same query
+    @Query("SELECT b FROM Booking b JOIN FETCH b.user WHERE b.householdId = :householdId " +
+           "AND b.startTime < :endTime AND b.endTime > :startTime ORDER BY b.startTime")
+    List<Booking> findOverlappingWithUser(@Param("householdId") Long householdId,
+                                          @Param("startTime") LocalDateTime startTime,
+                                          @Param("endTime") LocalDateTime endTime);
+    
+    @Query("SELECT b FROM Booking b WHERE b.user.id = :userId " +
+           "AND b.startTime < :endTime AND b.endTime > :startTime ORDER BY b.startTime")
+    List<Booking> findUserBookingsOverlapping(@Param("userId") Long userId,
+                                              @Param("startTime") LocalDateTime startTime,
+                                              @Param("endTime") LocalDateTime endTime);
+    
+    // One query per machine so Postgres can use that machine's partial index
+    @Query("SELECT b FROM Booking b WHERE b.householdId = :householdId AND b.usesWasher = true " +
+           "AND b.startTime < :endTime AND b.endTime > :startTime")
+    List<Booking> findOverlappingWasherBookings(@Param("householdId") Long householdId,
+                                                @Param("startTime") LocalDateTime startTime,
+                                                @Param("endTime") LocalDateTime endTime);
+    
+    @Query("SELECT b FROM Booking b WHERE b.householdId = :householdId AND b.usesDryer = true " +
+           "AND b.startTime < :endTime AND b.endTime > :startTime")
+    List<Booking> findOverlappingDryerBookings(@Param("householdId") Long householdId,
+                                               @Param("startTime") LocalDateTime startTime,
+                                               @Param("endTime") LocalDateTime endTime);
+    
+    // Inserts the booking unless it overlaps another one on a shared machine, as one statement;
+    // returns the new id, or null when the slot was taken
+    @Query(value = """
+        INSERT INTO bookings (household_id, user_id, start_time, end_time, notes, uses_washer, uses_dryer,
+                              created_at, updated_at)
+        SELECT :householdId, :userId, :startTime, :endTime, CAST(:notes AS varchar), :usesWasher, :usesDryer,
+               :now, :now
+        WHERE NOT EXISTS (
+            SELECT 1 FROM bookings b
+            WHERE b.household_id = :householdId AND b.start_time < :endTime AND b.end_time > :startTime
+              AND ((:usesWasher AND b.uses_washer) OR (:usesDryer AND b.uses_dryer)))
+        RETURNING id""", nativeQuery = true)
+    Long insertIfFree(@Param("householdId") Long householdId,
+                      @Param("userId") Long userId,
+                      @Param("startTime") LocalDateTime startTime,
+                      @Param("endTime") LocalDateTime endTime,
+                      @Param("notes") String notes,
+                      @Param("usesWasher") boolean usesWasher,
+                      @Param("usesDryer") boolean usesDryer,
+                      @Param("now") LocalDateTime now);
+    
+    // Moves the booking and bumps its version, but only if it is still at `version` and the new
+    // window doesn't overlap another booking on one of its machines; returns the rows updated.
+    // A move into another month relocates the row to that month's partition.
+    @Modifying
+    @Query(value = """
+        UPDATE bookings AS t
+        SET start_time = :startTime, end_time = :endTime, notes = CAST(:notes AS varchar),
+            version = t.version + 1, updated_at = :now
+        WHERE t.id = :id AND t.version = :version
+          AND NOT EXISTS (
+            SELECT 1 FROM bookings b
+            WHERE b.household_id = t.household_id AND b.id <> t.id
+              AND b.start_time < :endTime AND b.end_time > :startTime
+              AND ((t.uses_washer AND b.uses_washer) OR (t.uses_dryer AND b.uses_dryer)))""", nativeQuery = true)
+    int rescheduleIfFree(@Param("id") Long id,
+                         @Param("version") Long version,
+                         @Param("startTime") LocalDateTime startTime,
+                         @Param("endTime") LocalDateTime endTime,
+                         @Param("notes") String notes,
+                         @Param("now") LocalDateTime now);
+    
+    @Query(value = "SELECT version FROM bookings WHERE id = :id", nativeQuery = true)
+    Long findVersionById(@Param("id") Long id);
 }
-
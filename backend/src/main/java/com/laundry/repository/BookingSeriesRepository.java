@@ -0,0 +1,29 @@
+package com.laundry.repository;
+
+import com.laundry.model.BookingSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingSeriesRepository extends JpaRepository<BookingSeries, Long> {
+    
+    // Series with at least one occurrence that could touch [from, to); exceptions and user
+    // come along so expanding them doesn't go back to the database per series
+    @Query("SELECT DISTINCT s FROM BookingSeries s JOIN FETCH s.user LEFT JOIN FETCH s.exceptions " +
+           "WHERE s.householdId = :householdId AND s.startTime < :to AND (s.lastEnd IS NULL OR s.lastEnd > :from)")
+    List<BookingSeries> findActiveBetween(@Param("householdId") Long householdId,
+                                          @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // Across every household, for the reminder scheduler
+    @Query("SELECT DISTINCT s FROM BookingSeries s JOIN FETCH s.user LEFT JOIN FETCH s.exceptions " +
+           "WHERE s.startTime < :to AND (s.lastEnd IS NULL OR s.lastEnd > :from)")
+    List<BookingSeries> findAllActiveBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Query("SELECT DISTINCT s FROM BookingSeries s JOIN FETCH s.user LEFT JOIN FETCH s.exceptions " +
+           "WHERE s.user.id = :userId ORDER BY s.startTime")
+    List<BookingSeries> findByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,22 @@
+package com.laundry.repository;
+
+import com.laundry.model.CalendarFeedToken;
+import com.laundry.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface CalendarFeedTokenRepository extends JpaRepository<CalendarFeedToken, Long> {
+    @Query("SELECT t.user FROM CalendarFeedToken t WHERE t.tokenHash = :tokenHash")
+    Optional<User> findUserByTokenHash(@Param("tokenHash") String tokenHash);
+    
+    Optional<CalendarFeedToken> findByUserId(Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM CalendarFeedToken t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
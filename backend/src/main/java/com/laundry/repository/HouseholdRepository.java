@@ -0,0 +1,41 @@
+package com.laundry.repository;
+
+import com.laundry.model.Household;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface HouseholdRepository extends JpaRepository<Household, Long> {
+    Optional<Household> findBySlug(String slug);
+    
+    // A projection rather than the entity, so a copy in the persistence context is never read stale
+    @Query("SELECT h.calendarVersion AS calendarVersion, h.calendarModifiedAt AS calendarModifiedAt " +
+           "FROM Household h WHERE h.id = :id")
+    Optional<CalendarState> findCalendarState(@Param("id") Long id);
+    
+    // Called after the booking transaction commits; always a short transaction of its own, so the
+    // households row is never locked for the length of a booking write
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("UPDATE Household h SET h.calendarVersion = h.calendarVersion + 1, h.calendarModifiedAt = :now " +
+           "WHERE h.id = :id")
+    int bumpCalendarVersion(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("UPDATE Household h SET h.calendarVersion = h.calendarVersion + 1, h.calendarModifiedAt = :now")
+    int bumpAllCalendarVersions(@Param("now") LocalDateTime now);
+    
+    interface CalendarState {
+        long getCalendarVersion();
+        
+        LocalDateTime getCalendarModifiedAt();
+    }
+}
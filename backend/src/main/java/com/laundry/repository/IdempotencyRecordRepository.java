@@ -0,0 +1,44 @@
+package com.laundry.repository;
+
+import com.laundry.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    // Claims the key for a new execution: inserts it, or takes over a row whose response (or
+    // in-progress lease, if its instance died) has expired. Returns 0 if someone else has it.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO idempotency_keys (idem_key, user_id, request_hash, created_at, expires_at) " +
+                   "VALUES (:key, :userId, :requestHash, :now, :leaseUntil) " +
+                   "ON CONFLICT (idem_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, " +
+                   "status_code = NULL, content_type = NULL, body = NULL, " +
+                   "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+                   "WHERE idempotency_keys.expires_at <= :now", nativeQuery = true)
+    int tryClaim(@Param("key") String key, @Param("userId") Long userId, @Param("requestHash") String requestHash,
+                 @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.contentType = :contentType, " +
+           "r.body = :body, r.expiresAt = :expiresAt WHERE r.key = :key")
+    int complete(@Param("key") String key, @Param("statusCode") int statusCode,
+                 @Param("contentType") String contentType, @Param("body") String body,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.statusCode IS NULL")
+    int release(@Param("key") String key);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,42 @@
+package com.laundry.repository;
+
+import com.laundry.model.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+    // Inserts the lease, or takes it over only if the previous holder's lease has expired
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO job_leases (name, owner, lease_until, last_started_at) " +
+                   "VALUES (:name, :owner, :leaseUntil, :now) " +
+                   "ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, " +
+                   "lease_until = EXCLUDED.lease_until, last_started_at = EXCLUDED.last_started_at " +
+                   "WHERE job_leases.lease_until <= :now", nativeQuery = true)
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+                   @Param("leaseUntil") LocalDateTime leaseUntil, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLease l SET l.lastFinishedAt = :now, l.lastStatus = :status, l.lastError = :error " +
+           "WHERE l.name = :name AND l.owner = :owner")
+    int recordFinish(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now,
+                     @Param("status") String status, @Param("error") String error);
+    
+    // Expires the lease now, so the next tryAcquire by any node succeeds
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLease l SET l.leaseUntil = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM JobLease l WHERE l.leaseUntil < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,21 @@
+package com.laundry.repository;
+
+import com.laundry.model.OutboxEmail;
+import com.laundry.model.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+    long countByStatus(OutboxStatus status);
+    
+    // Rows locked by another dispatcher are skipped rather than waited on
+    @Query(value = "SELECT * FROM email_outbox WHERE status IN ('PENDING', 'SENDING') " +
+                   "AND next_attempt_at <= :now ORDER BY next_attempt_at, id " +
+                   "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEmail> lockDueEmails(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
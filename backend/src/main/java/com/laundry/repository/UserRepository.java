@@ -3,6 +3,8 @@ package com.laundry.repository;
 import com.laundry.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,5 +13,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+    List<User> findByUsernameIn(Collection<String> usernames);
+    List<User> findByHouseholdId(Long householdId);
 }
 
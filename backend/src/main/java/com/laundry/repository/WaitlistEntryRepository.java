@@ -0,0 +1,31 @@
+package com.laundry.repository;
+
+import com.laundry.model.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.endTime > :now")
+    List<WaitlistEntry> findPending(@Param("now") LocalDateTime now);
+    
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.user.id = :userId ORDER BY w.startTime")
+    List<WaitlistEntry> findByUserId(@Param("userId") Long userId);
+    
+    long countByUserIdAndEndTimeAfter(Long userId, LocalDateTime now);
+    
+    // 0 when another instance already claimed (promoted or removed) the entry
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.id = :id")
+    int claim(@Param("id") Long id);
+    
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.endTime <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,5 +1,7 @@
 package com.laundry.security;
 
+import com.laundry.perf.RequestTimings;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,7 +9,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -26,34 +27,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, 
                                    HttpServletResponse response, 
                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
         try {
             String jwt = getJwtFromRequest(request);
-            String requestURI = request.getRequestURI();
             
-            logger.debug("Processing request: " + requestURI);
-            logger.debug("JWT token present: " + (jwt != null));
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.parseToken(jwt) : null;
             
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                logger.debug("JWT token is valid");
-                Long userId = tokenProvider.getUserIdFromToken(jwt);
-                logger.debug("User ID from token: " + userId);
+            if (claims != null) {
+                Long userId = tokenProvider.getUserId(claims);
+                UserPrincipal userDetails = (UserPrincipal) customUserDetailsService.loadUserById(userId);
                 
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
-                logger.debug("User details loaded: " + userDetails.getUsername());
-                
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                logger.debug("Authentication set in security context");
+                // A token minted for another household (the user was moved since) is not honoured
+                if (userDetails.getHouseholdId().equals(tokenProvider.getHouseholdId(claims))) {
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                } else {
+                    logger.debug("Rejected JWT for another household for " + request.getRequestURI());
+                }
             } else if (StringUtils.hasText(jwt)) {
-                logger.debug("JWT token is invalid");
-            } else {
-                logger.debug("No JWT token found in request");
+                logger.debug("Rejected invalid JWT for " + request.getRequestURI());
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
+        } finally {
+            RequestTimings.record(RequestTimings.Phase.AUTH, System.nanoTime() - start);
         }
         
         filterChain.doFilter(request, response);
@@ -1,7 +1,9 @@
 package com.laundry.security;
 
+import com.laundry.model.Household;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -19,48 +21,56 @@ public class JwtTokenProvider {
     @Value("${spring.security.jwt.expiration}")
     private long jwtExpirationMs;
     
+    // Deriving the key and building the parser cost more than checking a token, so do it once
+    private SecretKey signingKey;
+    private JwtParser parser;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+    
     public String generateToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
         
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        
         return Jwts.builder()
                 .setSubject(Long.toString(userPrincipal.getId()))
                 .claim("username", userPrincipal.getUsername())
                 .claim("isAdmin", userPrincipal.isAdmin())
+                .claim("householdId", userPrincipal.getHouseholdId())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(key)
+                .signWith(signingKey)
                 .compact();
     }
     
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
-        return Long.parseLong(claims.getSubject());
+    public boolean validateToken(String authToken) {
+        return parseToken(authToken) != null;
     }
     
-    public boolean validateToken(String authToken) {
+    // Verifies the signature once; callers read everything they need from the returned claims
+    public Claims parseToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return parser.parseClaimsJws(authToken).getBody();
         } catch (JwtException | IllegalArgumentException e) {
             System.err.println("JWT validation failed: " + e.getMessage());
-            return false;
+            return null;
         }
     }
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    public Long getUserId(Claims claims) {
+        return Long.parseLong(claims.getSubject());
+    }
+    
+    // Tokens issued before households existed have no claim; all of those users are in the default one
+    public Long getHouseholdId(Claims claims) {
+        Number householdId = claims.get("householdId", Number.class);
+        return householdId != null ? householdId.longValue() : Household.DEFAULT_ID;
     }
 }
 
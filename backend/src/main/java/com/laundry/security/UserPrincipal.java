@@ -10,15 +10,17 @@ import java.util.Collections;
 
 public class UserPrincipal implements UserDetails {
     private Long id;
+    private Long householdId;
     private String username;
     private String email;
     private String password;
     private boolean isAdmin;
     private boolean isBlocked;
     
-    public UserPrincipal(Long id, String username, String email, String password, 
+    public UserPrincipal(Long id, Long householdId, String username, String email, String password, 
                         boolean isAdmin, boolean isBlocked) {
         this.id = id;
+        this.householdId = householdId;
         this.username = username;
         this.email = email;
         this.password = password;
@@ -29,6 +31,7 @@ public class UserPrincipal implements UserDetails {
     public static UserPrincipal create(User user) {
         return new UserPrincipal(
             user.getId(),
+            user.getHouseholdId(),
             user.getUsername(),
             user.getEmail(),
             user.getPassword(),
@@ -41,6 +44,11 @@ public class UserPrincipal implements UserDetails {
         return id;
     }
     
+    // Every booking, calendar and machine request is answered for this household only
+    public Long getHouseholdId() {
+        return householdId;
+    }
+    
     @Override
     public String getUsername() {
         return username;
@@ -3,7 +3,9 @@ package com.laundry.service;
 import com.laundry.dto.JwtAuthenticationResponse;
 import com.laundry.dto.LoginRequest;
 import com.laundry.dto.SignupRequest;
+import com.laundry.model.Household;
 import com.laundry.model.User;
+import com.laundry.repository.HouseholdRepository;
 import com.laundry.repository.UserRepository;
 import com.laundry.security.JwtTokenProvider;
 import com.laundry.security.UserPrincipal;
@@ -22,6 +24,9 @@ public class AuthService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private HouseholdRepository householdRepository;
+    
     @Autowired
     private PasswordEncoder passwordEncoder;
     
@@ -47,6 +52,7 @@ public class AuthService {
         return new JwtAuthenticationResponse(
             jwt,
             userPrincipal.getId(),
+            userPrincipal.getHouseholdId(),
             userPrincipal.getUsername(),
             userPrincipal.isAdmin()
         );
@@ -62,7 +68,15 @@ public class AuthService {
             throw new RuntimeException("Email is already in use!");
         }
         
+        Long householdId = Household.DEFAULT_ID;
+        if (signupRequest.getHousehold() != null && !signupRequest.getHousehold().isBlank()) {
+            householdId = householdRepository.findBySlug(signupRequest.getHousehold().trim())
+                .map(Household::getId)
+                .orElseThrow(() -> new RuntimeException("Unknown household"));
+        }
+        
         User user = new User();
+        user.setHouseholdId(householdId);
         user.setUsername(signupRequest.getUsername());
         user.setEmail(signupRequest.getEmail());
         user.setPassword(passwordEncoder.encode(signupRequest.getPassword()));
@@ -0,0 +1,153 @@
+package com.laundry.service;
+
+import com.laundry.dto.BookingResponse;
+import com.laundry.model.ArchivedBooking;
+import com.laundry.model.User;
+import com.laundry.repository.ArchivedBookingRepository;
+import com.laundry.repository.UserRepository;
+import com.laundry.util.Csv;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class BookingArchiveService {
+    
+    private static final String EXPORT_HEADER = Csv.row("id", "household_id", "user_id", "start_time", "end_time",
+        "notes", "uses_washer", "uses_dryer", "created_at", "updated_at", "archived_at");
+    
+    @Autowired
+    private ArchivedBookingRepository archiveRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private CalendarVersion calendarVersion;
+    
+    // Each chunk commits on its own, so row locks are held for one chunk at most
+    @Transactional
+    public int archiveChunk(LocalDateTime cutoff, int limit) {
+        int moved = archiveRepository.archiveChunk(cutoff, limit);
+        if (moved > 0) {
+            calendarVersion.bumpAllAfterCommit();
+        }
+        return moved;
+    }
+    
+    @Transactional(readOnly = true)
+    public YearMonth oldestArchivedMonthBefore(LocalDateTime before) {
+        LocalDateTime oldest = archiveRepository.findOldestStartBefore(before);
+        return oldest != null ? YearMonth.from(oldest) : null;
+    }
+    
+    // Appends the month's archived bookings to bookings-YYYY-MM.csv.gz and removes them from the
+    // table. The file is flushed before the delete commits; if the commit then fails the rows are
+    // exported again next time, so a month file can hold duplicates but never loses rows.
+    @Transactional
+    public int exportMonth(YearMonth month, Path directory) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        List<ArchivedBooking> bookings =
+            archiveRepository.findByStartTimeGreaterThanEqualAndStartTimeLessThanOrderByStartTime(from, to);
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+        
+        Path file = directory.resolve("bookings-" + month + ".csv.gz");
+        try {
+            Files.createDirectories(directory);
+            // A file from before households has the old columns; keep it aside rather than mixing layouts
+            if (Files.exists(file) && !EXPORT_HEADER.equals(readHeader(file))) {
+                Files.move(file, directory.resolve("bookings-" + month + ".pre-households.csv.gz"),
+                    StandardCopyOption.REPLACE_EXISTING);
+            }
+            boolean newFile = !Files.exists(file);
+            // Appending a second gzip member keeps the file readable with zcat / gunzip
+            try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                 Writer writer = new OutputStreamWriter(new GZIPOutputStream(out), StandardCharsets.UTF_8)) {
+                if (newFile) {
+                    writer.write(EXPORT_HEADER);
+                }
+                for (ArchivedBooking booking : bookings) {
+                    writer.write(Csv.row(booking.getId(), booking.getHouseholdId(), booking.getUserId(), booking.getStartTime(),
+                        booking.getEndTime(), booking.getNotes(), booking.isUsesWasher(), booking.isUsesDryer(),
+                        booking.getCreatedAt(), booking.getUpdatedAt(), booking.getArchivedAt()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+        
+        archiveRepository.deleteByStartTimeRange(from, to);
+        return bookings.size();
+    }
+    
+    private static String readHeader(Path file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            return line != null ? line + "\r\n" : null;
+        }
+    }
+    
+    // Served from the archive table only; meant for occasional history lookups, not the calendar
+    @Transactional(readOnly = true)
+    public Page<BookingResponse> search(Long householdId, Long userId, LocalDateTime from, LocalDateTime to,
+                                        int page, int size) {
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "startTime"));
+        Page<ArchivedBooking> bookings = userId != null
+            ? archiveRepository.findByHouseholdIdAndUserIdAndStartTimeGreaterThanEqualAndStartTimeLessThan(
+                householdId, userId, from, to, pageRequest)
+            : archiveRepository.findByHouseholdIdAndStartTimeGreaterThanEqualAndStartTimeLessThan(
+                householdId, from, to, pageRequest);
+        
+        Map<Long, User> users = userRepository.findAllById(
+                bookings.stream().map(ArchivedBooking::getUserId).distinct().toList())
+            .stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        return bookings.map(booking -> convertToResponse(booking, users.get(booking.getUserId())));
+    }
+    
+    private BookingResponse convertToResponse(ArchivedBooking booking, User user) {
+        BookingResponse response = new BookingResponse();
+        response.setId(booking.getId());
+        response.setUserId(booking.getUserId());
+        // Deleted accounts keep their history without a name
+        if (user != null) {
+            response.setUsername(user.getUsername());
+            response.setFirstName(user.getFirstName());
+            response.setLastName(user.getLastName());
+        }
+        response.setStartTime(booking.getStartTime());
+        response.setEndTime(booking.getEndTime());
+        response.setNotes(booking.getNotes());
+        response.setMachines(booking.getMachines());
+        response.setCreatedAt(booking.getCreatedAt());
+        return response;
+    }
+}
@@ -0,0 +1,114 @@
+package com.laundry.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+// Nightly retention: finished bookings older than after-days move to bookings_archive in small
+// chunks, and when an export directory is set, archive months older than export-after-months
+// are written out as gzip'd CSV files and removed from the table.
+@Component
+public class BookingArchiver {
+    
+    private static final Logger log = LoggerFactory.getLogger(BookingArchiver.class);
+    
+    @Autowired
+    private BookingArchiveService archiveService;
+    
+    @Autowired
+    private JobLeaseService jobLeaseService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${bookings.archive.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${bookings.archive.after-days:180}")
+    private int afterDays;
+    
+    @Value("${bookings.archive.chunk-size:500}")
+    private int chunkSize;
+    
+    // Caps one night's work so a first run over years of history doesn't hold the lease for hours
+    @Value("${bookings.archive.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+    
+    @Value("${bookings.archive.export-dir:}")
+    private String exportDir;
+    
+    @Value("${bookings.archive.export-after-months:24}")
+    private int exportAfterMonths;
+    
+    private Counter archivedCounter;
+    private Counter exportedCounter;
+    
+    @PostConstruct
+    void registerMetrics() {
+        archivedCounter = Counter.builder("booking.archived")
+            .description("Bookings moved to the archive table")
+            .register(meterRegistry);
+        exportedCounter = Counter.builder("booking.archive.exported")
+            .description("Archived bookings written to export files")
+            .register(meterRegistry);
+    }
+    
+    @Scheduled(cron = "${bookings.archive.cron:0 45 3 * * *}")
+    public void runRetention() {
+        if (!enabled) {
+            return;
+        }
+        jobLeaseService.runExclusive("booking-archive", Duration.ofHours(1), () -> {
+            archiveOldBookings();
+            exportOldArchive();
+        });
+    }
+    
+    public int archiveOldBookings() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            int moved = archiveService.archiveChunk(cutoff, chunkSize);
+            total += moved;
+            if (moved < chunkSize) {
+                break;
+            }
+        }
+        archivedCounter.increment(total);
+        if (total > 0) {
+            log.info("Archived {} bookings that ended before {}", total, cutoff);
+        }
+        return total;
+    }
+    
+    public int exportOldArchive() {
+        if (exportDir.isBlank()) {
+            return 0;
+        }
+        Path directory = Paths.get(exportDir);
+        LocalDateTime before = YearMonth.now().minusMonths(exportAfterMonths).atDay(1).atStartOfDay();
+        int total = 0;
+        for (YearMonth month = archiveService.oldestArchivedMonthBefore(before);
+                month != null && month.atDay(1).atStartOfDay().isBefore(before);
+                month = month.plusMonths(1)) {
+            total += archiveService.exportMonth(month, directory);
+        }
+        exportedCounter.increment(total);
+        if (total > 0) {
+            log.info("Exported {} archived bookings to {}", total, directory.toAbsolutePath());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,108 @@
+package com.laundry.service;
+
+import com.laundry.dto.BookingBatchConflict;
+import com.laundry.model.Booking;
+import com.laundry.model.Machine;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Conflict check for a batch of new bookings in one pass per machine. Against what is already
+// taken each item is a binary search in the MachineTimeline; against each other the items are
+// sorted by start once and swept with the latest end seen so far, which overlaps the current
+// item whenever any earlier-starting item does.
+final class BookingBatch {
+    
+    private BookingBatch() {}
+    
+    static List<BookingBatchConflict> conflicts(List<Booking> items, MachineTimeline taken) {
+        List<BookingBatchConflict> conflicts = new ArrayList<>();
+        for (Machine machine : Machine.values()) {
+            String machineName = machine.name().toLowerCase(Locale.ROOT);
+            List<Integer> onMachine = new ArrayList<>();
+            for (int i = 0; i < items.size(); i++) {
+                if (items.get(i).uses(machine)) {
+                    onMachine.add(i);
+                }
+            }
+            onMachine.sort(Comparator.comparing((Integer i) -> items.get(i).getStartTime()).thenComparing(i -> i));
+            
+            int latest = -1;
+            LocalDateTime latestEnd = null;
+            for (int index : onMachine) {
+                Booking item = items.get(index);
+                if (!taken.isFree(machine, item.getStartTime(), item.getEndTime())) {
+                    conflicts.add(new BookingBatchConflict(index, machine, null,
+                        "Overlaps an existing booking on the " + machineName));
+                }
+                if (latestEnd != null && item.getStartTime().isBefore(latestEnd)) {
+                    conflicts.add(new BookingBatchConflict(index, machine, latest,
+                        "Overlaps item " + latest + " of this batch on the " + machineName));
+                }
+                if (latestEnd == null || item.getEndTime().isAfter(latestEnd)) {
+                    latest = index;
+                    latestEnd = item.getEndTime();
+                }
+            }
+        }
+        conflicts.sort(Comparator.comparingInt(BookingBatchConflict::getIndex));
+        return conflicts;
+    }
+    
+    // Import mode: conflicting rows are skipped and the rest inserted, so only rows that will
+    // really be inserted may block later ones. Items are swept once in start order; an item is
+    // accepted only if it is clear on every machine it uses, and only then does it move the
+    // sweep on those machines. Each rejected item gets exactly one conflict.
+    static List<BookingBatchConflict> importConflicts(List<Booking> items, MachineTimeline taken) {
+        List<Integer> order = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing((Integer i) -> items.get(i).getStartTime()).thenComparing(i -> i));
+        
+        // Per machine, the accepted item with the latest end so far
+        Map<Machine, Integer> latest = new EnumMap<>(Machine.class);
+        List<BookingBatchConflict> conflicts = new ArrayList<>();
+        for (int index : order) {
+            Booking item = items.get(index);
+            BookingBatchConflict conflict = importConflict(index, item, items, latest, taken);
+            if (conflict != null) {
+                conflicts.add(conflict);
+                continue;
+            }
+            for (Machine machine : item.getMachines()) {
+                Integer previous = latest.get(machine);
+                if (previous == null || item.getEndTime().isAfter(items.get(previous).getEndTime())) {
+                    latest.put(machine, index);
+                }
+            }
+        }
+        conflicts.sort(Comparator.comparingInt(BookingBatchConflict::getIndex));
+        return conflicts;
+    }
+    
+    // Existing bookings are checked first on every machine, so that is what a row is rejected for
+    // when it clashes with both
+    private static BookingBatchConflict importConflict(int index, Booking item, List<Booking> items,
+                                                       Map<Machine, Integer> latest, MachineTimeline taken) {
+        for (Machine machine : Machine.values()) {
+            if (item.uses(machine) && !taken.isFree(machine, item.getStartTime(), item.getEndTime())) {
+                return new BookingBatchConflict(index, machine, null,
+                    "Overlaps an existing booking on the " + machine.name().toLowerCase(Locale.ROOT));
+            }
+        }
+        for (Machine machine : Machine.values()) {
+            Integer previous = latest.get(machine);
+            if (item.uses(machine) && previous != null && item.getStartTime().isBefore(items.get(previous).getEndTime())) {
+                return new BookingBatchConflict(index, machine, previous,
+                    "Overlaps item " + previous + " of this batch on the " + machine.name().toLowerCase(Locale.ROOT));
+            }
+        }
+        return null;
+    }
+}
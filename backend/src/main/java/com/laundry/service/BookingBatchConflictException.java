@@ -0,0 +1,20 @@
+package com.laundry.service;
+
+import com.laundry.dto.BookingBatchConflict;
+
+import java.util.List;
+
+// A batch was refused as a whole; lists every item that couldn't be booked
+public class BookingBatchConflictException extends BookingConflictException {
+    
+    private final List<BookingBatchConflict> conflicts;
+    
+    public BookingBatchConflictException(List<BookingBatchConflict> conflicts) {
+        super(conflicts.size() + " of the requested bookings conflict");
+        this.conflicts = conflicts;
+    }
+    
+    public List<BookingBatchConflict> getConflicts() {
+        return conflicts;
+    }
+}
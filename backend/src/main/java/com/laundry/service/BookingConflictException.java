@@ -0,0 +1,10 @@
+package com.laundry.service;
+
+// The change lost against a concurrent one (stale version or a slot taken in the meantime);
+// controllers answer 409 so the client reloads and retries
+public class BookingConflictException extends RuntimeException {
+    
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,116 @@
+package com.laundry.service;
+
+import com.laundry.util.Csv;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// CSV exports for admins. Rows are written to the response as they come off a JDBC cursor
+// (the Postgres driver only uses one inside a transaction, with a fetch size set), so memory
+// stays the same however many rows there are. The bookings export reads back in through
+// POST /admin/import/bookings.
+@Service
+public class BookingExportService {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Rows fetched per round trip while streaming
+    @Value("${admin.export.fetch-size:500}")
+    private int fetchSize;
+    
+    // The household's bookings overlapping [from, to) in start order; either bound may be null
+    // for no limit. Series occurrences are not included, only bookings stored as rows.
+    @Transactional(readOnly = true)
+    public void writeBookings(Long householdId, LocalDateTime from, LocalDateTime to, OutputStream out)
+            throws IOException {
+        StringBuilder sql = new StringBuilder("""
+            SELECT b.id, b.user_id, u.username, b.start_time, b.end_time, b.notes,
+                   b.uses_washer, b.uses_dryer, b.created_at, b.updated_at
+            FROM bookings b JOIN users u ON u.id = b.user_id
+            WHERE b.household_id = ?""");
+        List<Object> args = new ArrayList<>();
+        args.add(householdId);
+        if (to != null) {
+            sql.append(" AND b.start_time < ?");
+            args.add(to);
+        }
+        if (from != null) {
+            sql.append(" AND b.end_time > ?");
+            args.add(from);
+        }
+        sql.append(" ORDER BY b.start_time, b.id");
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(Csv.row("id", "user_id", "username", "start_time", "end_time", "notes",
+            "uses_washer", "uses_dryer", "created_at", "updated_at"));
+        stream(sql.toString(), args, writer, rs -> Csv.row(rs.getLong("id"), rs.getLong("user_id"),
+            rs.getString("username"), rs.getObject("start_time", LocalDateTime.class),
+            rs.getObject("end_time", LocalDateTime.class), rs.getString("notes"), rs.getBoolean("uses_washer"),
+            rs.getBoolean("uses_dryer"), rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("updated_at", LocalDateTime.class)));
+        writer.flush();
+    }
+    
+    // The household's users, everything but the password hashes
+    @Transactional(readOnly = true)
+    public void writeUsers(Long householdId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(Csv.row("id", "username", "email", "first_name", "last_name", "is_admin", "is_blocked",
+            "blocked_until", "block_reason", "created_at"));
+        stream("""
+            SELECT id, username, email, first_name, last_name, is_admin, is_blocked, blocked_until,
+                   block_reason, created_at
+            FROM users WHERE household_id = ?
+            ORDER BY id""", List.of(householdId), writer, rs -> Csv.row(rs.getLong("id"),
+            rs.getString("username"), rs.getString("email"), rs.getString("first_name"),
+            rs.getString("last_name"), rs.getBoolean("is_admin"), rs.getBoolean("is_blocked"),
+            rs.getObject("blocked_until", LocalDateTime.class), rs.getString("block_reason"),
+            rs.getObject("created_at", LocalDateTime.class)));
+        writer.flush();
+    }
+    
+    private void stream(String sql, List<Object> args, Writer writer, CsvRowMapper mapper) throws IOException {
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < args.size(); i++) {
+                    statement.setObject(i + 1, args.get(i));
+                }
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    writer.write(mapper.row(rs));
+                } catch (IOException e) {
+                    // Usually the client went away; stops the query instead of reading on
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    @FunctionalInterface
+    private interface CsvRowMapper {
+        String row(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,406 @@
+package com.laundry.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.laundry.dto.BookingBatchConflict;
+import com.laundry.dto.BookingImportError;
+import com.laundry.dto.BookingImportStatus;
+import com.laundry.model.Booking;
+import com.laundry.model.Machine;
+import com.laundry.model.User;
+import com.laundry.repository.UserRepository;
+import com.laundry.util.Csv;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Bulk import of bookings from CSV, in the format GET /admin/export/bookings.csv writes. The
+// upload is copied to a temp file and the request returns straight away; a single background
+// thread then reads the file record by record and hands it to BookingService.importBookings
+// in chunks, each its own transaction with one overlap query and one JDBC batch insert. Rows
+// that don't parse or overlap something are skipped and reported with their line number.
+//
+// Progress is kept in memory on the instance that took the upload, for a day.
+@Service
+public class BookingImportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(BookingImportService.class);
+    
+    // bookings.notes is varchar(255)
+    private static final int MAX_NOTES_LENGTH = 255;
+    
+    @Autowired
+    private BookingService bookingService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    // Rows per transaction
+    @Value("${admin.import.chunk-size:500}")
+    private int chunkSize;
+    
+    // Row errors kept for the status; the rejected count goes on past this
+    @Value("${admin.import.max-errors:200}")
+    private int maxErrors;
+    
+    // One import at a time, so two files can't race each other for the same slots
+    private final ExecutorService importer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final Cache<String, Job> jobs = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofDays(1))
+        .maximumSize(100)
+        .build();
+    
+    // Imports into the household; rows naming users of other households are rejected
+    public BookingImportStatus start(Long householdId, InputStream csv) {
+        Path file;
+        try {
+            file = Files.createTempFile("booking-import-", ".csv");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store the upload", e);
+        }
+        try {
+            Files.copy(csv, file, StandardCopyOption.REPLACE_EXISTING);
+            if (Files.size(file) == 0) {
+                throw new RuntimeException("The CSV is empty");
+            }
+            Job job = new Job(householdId, Files.size(file));
+            jobs.put(job.id, job);
+            importer.execute(() -> run(job, file));
+            return job.snapshot();
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("Could not store the upload", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+    
+    // Null when there's no such import of the household on this instance (or it finished more
+    // than a day ago)
+    public BookingImportStatus getStatus(Long householdId, String id) {
+        Job job = jobs.getIfPresent(id);
+        return job != null && job.householdId.equals(householdId) ? job.snapshot() : null;
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        importer.shutdownNow();
+    }
+    
+    private void run(Job job, Path file) {
+        job.state = BookingImportStatus.State.RUNNING;
+        try (Csv.Reader reader = new Csv.Reader(new BufferedReader(new InputStreamReader(
+                new CountingInputStream(Files.newInputStream(file), job.bytesRead), StandardCharsets.UTF_8)))) {
+            Columns columns = Columns.of(reader.next());
+            
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            List<String> fields;
+            while ((fields = reader.next()) != null) {
+                job.rowsRead.incrementAndGet();
+                try {
+                    chunk.add(columns.parse(fields, reader.getRecordLine()));
+                } catch (RuntimeException e) {
+                    job.reject(reader.getRecordLine(), e.getMessage());
+                }
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk);
+            }
+            job.finish(BookingImportStatus.State.COMPLETED, null);
+            log.info("Booking import {} finished: {} imported, {} rejected", job.id, job.imported, job.rejected);
+        } catch (Exception e) {
+            // Chunks committed before the failure stay imported; the status says how many
+            log.warn("Booking import {} failed after {} rows", job.id, job.rowsRead, e);
+            job.finish(BookingImportStatus.State.FAILED, e.getMessage());
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+    
+    private void importChunk(Job job, List<Row> rows) {
+        Set<Long> userIds = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        for (Row row : rows) {
+            if (row.userId != null) {
+                userIds.add(row.userId);
+            } else {
+                usernames.add(row.username);
+            }
+        }
+        Map<Long, User> usersById = userIds.isEmpty() ? Map.of() : userRepository.findAllById(userIds).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<String, User> usersByName = usernames.isEmpty() ? Map.of() : userRepository.findByUsernameIn(usernames)
+            .stream()
+            .collect(Collectors.toMap(User::getUsername, Function.identity()));
+        
+        List<Booking> items = new ArrayList<>(rows.size());
+        List<Integer> lines = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            User user = row.userId != null ? usersById.get(row.userId) : usersByName.get(row.username);
+            if (user == null || !user.getHouseholdId().equals(job.householdId)) {
+                job.reject(row.line, "Unknown user " + (row.userId != null ? row.userId : row.username));
+                continue;
+            }
+            Booking item = new Booking();
+            item.setUser(user);
+            item.setStartTime(row.startTime);
+            item.setEndTime(row.endTime);
+            item.setNotes(row.notes);
+            item.setMachines(row.machines);
+            item.setCreatedAt(row.createdAt);
+            items.add(item);
+            lines.add(row.line);
+        }
+        if (items.isEmpty()) {
+            return;
+        }
+        
+        List<BookingBatchConflict> conflicts = bookingService.importBookings(job.householdId, items);
+        Map<Integer, String> rejected = new HashMap<>();
+        for (BookingBatchConflict conflict : conflicts) {
+            String machine = conflict.getMachine().name().toLowerCase(Locale.ROOT);
+            rejected.putIfAbsent(conflict.getIndex(), conflict.getConflictingIndex() != null
+                ? "Overlaps line " + lines.get(conflict.getConflictingIndex()) + " on the " + machine
+                : "Overlaps an existing booking on the " + machine);
+        }
+        rejected.forEach((index, message) -> job.reject(lines.get(index), message));
+        job.imported.addAndGet(items.size() - rejected.size());
+    }
+    
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", file, e);
+        }
+    }
+    
+    private record Row(int line, Long userId, String username, LocalDateTime startTime, LocalDateTime endTime,
+                       String notes, Set<Machine> machines, LocalDateTime createdAt) {}
+    
+    // Positions of the known columns in the header; unknown columns (e.g. id) are ignored
+    private record Columns(int userId, int username, int startTime, int endTime, int notes, int usesWasher,
+                           int usesDryer, int createdAt) {
+        
+        static Columns of(List<String> header) {
+            if (header == null) {
+                throw new RuntimeException("The CSV is empty");
+            }
+            // Spreadsheet programs like to start the file with a byte order mark
+            List<String> names = header.stream()
+                .map(name -> name.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
+            Columns columns = new Columns(names.indexOf("user_id"), names.indexOf("username"),
+                names.indexOf("start_time"), names.indexOf("end_time"), names.indexOf("notes"),
+                names.indexOf("uses_washer"), names.indexOf("uses_dryer"), names.indexOf("created_at"));
+            if (columns.userId < 0 && columns.username < 0) {
+                throw new RuntimeException("The header needs a user_id or username column");
+            }
+            if (columns.startTime < 0 || columns.endTime < 0) {
+                throw new RuntimeException("The header needs start_time and end_time columns");
+            }
+            return columns;
+        }
+        
+        Row parse(List<String> fields, int line) {
+            String userId = field(fields, this.userId);
+            String username = field(fields, this.username);
+            Long id = null;
+            if (userId != null) {
+                try {
+                    id = Long.parseLong(userId);
+                } catch (NumberFormatException e) {
+                    throw new RuntimeException("user_id is not a number");
+                }
+            } else if (username == null) {
+                throw new RuntimeException("user_id or username is required");
+            }
+            
+            LocalDateTime startTime = dateTime(fields, this.startTime, "start_time");
+            LocalDateTime endTime = dateTime(fields, this.endTime, "end_time");
+            if (startTime == null || endTime == null) {
+                throw new RuntimeException("start_time and end_time are required");
+            }
+            if (!endTime.isAfter(startTime)) {
+                throw new RuntimeException("end_time must be after start_time");
+            }
+            
+            // Without the columns a booking takes both machines, as in the API
+            Set<Machine> machines = EnumSet.noneOf(Machine.class);
+            if (bool(fields, usesWasher, "uses_washer")) {
+                machines.add(Machine.WASHER);
+            }
+            if (bool(fields, usesDryer, "uses_dryer")) {
+                machines.add(Machine.DRYER);
+            }
+            if (machines.isEmpty()) {
+                throw new RuntimeException("A booking needs at least one machine");
+            }
+            
+            String notes = field(fields, this.notes);
+            if (notes != null && notes.length() > MAX_NOTES_LENGTH) {
+                throw new RuntimeException("notes is longer than " + MAX_NOTES_LENGTH + " characters");
+            }
+            return new Row(line, id, username, startTime, endTime, notes, machines,
+                dateTime(fields, createdAt, "created_at"));
+        }
+        
+        // Null for a missing column or an empty field
+        private static String field(List<String> fields, int index) {
+            if (index < 0 || index >= fields.size() || fields.get(index).isEmpty()) {
+                return null;
+            }
+            return fields.get(index);
+        }
+        
+        private static LocalDateTime dateTime(List<String> fields, int index, String name) {
+            String value = field(fields, index);
+            try {
+                return value != null ? LocalDateTime.parse(value.trim()) : null;
+            } catch (DateTimeParseException e) {
+                throw new RuntimeException(name + " is not a date-time like 2025-03-01T09:30");
+            }
+        }
+        
+        private static boolean bool(List<String> fields, int index, String name) {
+            if (index < 0) {
+                return true;
+            }
+            String value = field(fields, index);
+            if ("true".equalsIgnoreCase(value)) {
+                return true;
+            }
+            if ("false".equalsIgnoreCase(value)) {
+                return false;
+            }
+            throw new RuntimeException(name + " must be true or false");
+        }
+    }
+    
+    private final class Job {
+        final String id = UUID.randomUUID().toString();
+        final Long householdId;
+        final long totalBytes;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        final AtomicLong bytesRead = new AtomicLong();
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong imported = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final List<BookingImportError> errors = new ArrayList<>();
+        volatile BookingImportStatus.State state = BookingImportStatus.State.QUEUED;
+        volatile String failure;
+        volatile LocalDateTime finishedAt;
+        
+        Job(Long householdId, long totalBytes) {
+            this.householdId = householdId;
+            this.totalBytes = totalBytes;
+        }
+        
+        void reject(int line, String message) {
+            rejected.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new BookingImportError(line, message));
+                }
+            }
+        }
+        
+        void finish(BookingImportStatus.State state, String failure) {
+            this.failure = failure;
+            this.finishedAt = LocalDateTime.now();
+            this.state = state;
+        }
+        
+        BookingImportStatus snapshot() {
+            BookingImportStatus status = new BookingImportStatus();
+            status.setId(id);
+            status.setState(state);
+            status.setTotalBytes(totalBytes);
+            status.setBytesRead(Math.min(bytesRead.get(), totalBytes));
+            status.setRowsRead(rowsRead.get());
+            status.setImported(imported.get());
+            status.setRejected(rejected.get());
+            List<BookingImportError> copy;
+            synchronized (errors) {
+                copy = new ArrayList<>(errors);
+            }
+            // Parse errors are found before the overlaps of their chunk
+            copy.sort(Comparator.comparingInt(BookingImportError::getLine));
+            status.setErrors(copy);
+            status.setFailure(failure);
+            status.setCreatedAt(createdAt);
+            status.setFinishedAt(finishedAt);
+            return status;
+        }
+    }
+    
+    // Counts what the parser has consumed, for progress
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count;
+        
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.laundry.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BookingMetrics {
+    
+    private final MeterRegistry registry;
+    private final Counter overlapRejections;
+    private final DistributionSummary overlapQueriesPerSearch;
+    
+    public BookingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.overlapRejections = Counter.builder("booking.overlap.rejections")
+            .description("Booking requests refused because the slot was taken")
+            .register(registry);
+        this.overlapQueriesPerSearch = DistributionSummary.builder("booking.next_available.overlap_queries")
+            .description("Overlap queries issued by one next-available search")
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+    
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+    
+    // operation is create or next_available; outcome is success or rejected
+    public void record(Timer.Sample sample, String operation, String outcome) {
+        sample.stop(Timer.builder("booking")
+            .description("Booking write latency")
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .register(registry));
+    }
+    
+    public void overlapRejected() {
+        overlapRejections.increment();
+    }
+    
+    public void recordOverlapQueries(int queries) {
+        overlapQueriesPerSearch.record(queries);
+    }
+}
@@ -0,0 +1,63 @@
+package com.laundry.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+// Maintenance for the month-partitioned bookings table. The partition DDL itself lives in the
+// plpgsql functions from the V2 migration, so the app and a DBA at a psql prompt do the same thing.
+@Service
+public class BookingPartitionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(BookingPartitionService.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${bookings.partitions.months-ahead:3}")
+    private int monthsAhead;
+    
+    @Transactional
+    public int ensureFuturePartitions() {
+        Integer created = jdbcTemplate.queryForObject(
+            "SELECT ensure_booking_partitions(?)", Integer.class, monthsAhead);
+        if (created != null && created > 0) {
+            log.info("Created {} booking partition(s)", created);
+        }
+        return created != null ? created : 0;
+    }
+    
+    // Detached months keep their rows in standalone bookings_YYYY_MM tables but drop out of
+    // every booking query. Bookings of those months still in the default partition stay put.
+    @Transactional
+    public List<String> detachBefore(YearMonth month) {
+        if (!month.isBefore(YearMonth.now())) {
+            throw new RuntimeException("Only past months can be detached");
+        }
+        List<String> detached = jdbcTemplate.queryForList(
+            "SELECT detach_booking_partitions_before(?)", String.class, month.atDay(1));
+        if (!detached.isEmpty()) {
+            log.info("Detached booking partitions {}", detached);
+        }
+        return detached;
+    }
+    
+    public List<Map<String, Object>> getPartitions() {
+        return jdbcTemplate.queryForList("""
+            SELECT c.relname AS name,
+                   pg_get_expr(c.relpartbound, c.oid) AS bounds,
+                   c.reltuples::bigint AS estimated_rows
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'bookings'::regclass
+            ORDER BY c.relname""");
+    }
+}
@@ -0,0 +1,179 @@
+package com.laundry.service;
+
+import com.laundry.model.Booking;
+import com.laundry.model.BookingSeries;
+import com.laundry.model.Machine;
+import com.laundry.repository.BookingRepository;
+import com.laundry.repository.BookingSeriesRepository;
+import com.laundry.util.RecurrenceRule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+// Expansion and overlap checks for recurring bookings. Occurrences only ever exist as unsaved
+// Booking objects for the range a caller asks about; nothing here writes.
+@Service
+public class BookingSeriesService {
+    
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    
+    // Upper bound for open-ended series when looking for single bookings they would hit
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(9999, 1, 1, 0, 0);
+    
+    @Autowired
+    private BookingSeriesRepository seriesRepository;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    // The household's occurrences overlapping [from, to), ordered by start; a null household
+    // means every household, for background jobs like the reminder scheduler
+    @Transactional(readOnly = true)
+    public List<Booking> occurrencesOverlapping(Long householdId, LocalDateTime from, LocalDateTime to) {
+        List<Booking> occurrences = new ArrayList<>();
+        List<BookingSeries> active = householdId != null
+            ? seriesRepository.findActiveBetween(householdId, from, to)
+            : seriesRepository.findAllActiveBetween(from, to);
+        for (BookingSeries series : active) {
+            for (LocalDateTime start : series.getRule().overlapping(from, to, series.getDuration())) {
+                if (!series.getExceptions().contains(start)) {
+                    occurrences.add(series.occurrence(start));
+                }
+            }
+        }
+        occurrences.sort(Comparator.comparing(Booking::getStartTime));
+        return occurrences;
+    }
+    
+    @Transactional(readOnly = true)
+    public boolean hasOccurrenceOverlapping(Long householdId, Set<Machine> machines, LocalDateTime start,
+                                            LocalDateTime end) {
+        for (Booking occurrence : occurrencesOverlapping(householdId, start, end)) {
+            for (Machine machine : machines) {
+                if (occurrence.uses(machine)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    // Describes the first existing booking or series of the candidate's household it would
+    // collide with, or null
+    @Transactional(readOnly = true)
+    public String findConflict(BookingSeries candidate) {
+        LocalDateTime from = candidate.getStartTime();
+        LocalDateTime to = candidate.getLastEnd() != null ? candidate.getLastEnd() : FAR_FUTURE;
+        RecurrenceRule rule = candidate.getRule();
+        
+        // Single bookings are finite, so each is checked with one arithmetic lookup into the rule
+        for (Booking booking : bookingRepository.findOverlappingBookings(candidate.getHouseholdId(), from, to)) {
+            if (shareMachine(candidate, booking)
+                    && !rule.overlapping(booking.getStartTime(), booking.getEndTime(), candidate.getDuration()).isEmpty()) {
+                return "Series overlaps with the booking on " + booking.getStartTime();
+            }
+        }
+        
+        for (BookingSeries existing : seriesRepository.findActiveBetween(candidate.getHouseholdId(), from, to)) {
+            if (seriesOverlap(candidate, existing)) {
+                return "Series overlaps with another recurring booking starting " + existing.getStartTime();
+            }
+        }
+        return null;
+    }
+    
+    // Two series repeat jointly every lcm(period a, period b) days, so comparing the occurrences
+    // of one such window (where both are active) decides the question for their whole lifetime.
+    // Series on different machines or at times of day that never meet are ruled out first.
+    // Exceptions are ignored: a cancelled occurrence in the window recurs a period later.
+    static boolean seriesOverlap(BookingSeries a, BookingSeries b) {
+        if (!shareMachine(a, b) || !timesOfDayMeet(a, b)) {
+            return false;
+        }
+        
+        LocalDateTime from = later(a.getStartTime(), b.getStartTime());
+        LocalDateTime to = earlier(a.getLastEnd(), b.getLastEnd());
+        long hyperperiodDays = lcm(a.getRule().getPeriodDays(), b.getRule().getPeriodDays());
+        Duration longest = a.getDuration().compareTo(b.getDuration()) >= 0 ? a.getDuration() : b.getDuration();
+        LocalDateTime windowEnd = from.plusDays(hyperperiodDays).plus(longest);
+        if (to != null && to.isBefore(windowEnd)) {
+            windowEnd = to;
+        }
+        if (!from.isBefore(windowEnd)) {
+            return false;
+        }
+        
+        List<LocalDateTime> aStarts = a.getRule().overlapping(from, windowEnd, a.getDuration());
+        List<LocalDateTime> bStarts = b.getRule().overlapping(from, windowEnd, b.getDuration());
+        int i = 0;
+        int j = 0;
+        while (i < aStarts.size() && j < bStarts.size()) {
+            LocalDateTime aStart = aStarts.get(i);
+            LocalDateTime aEnd = aStart.plus(a.getDuration());
+            LocalDateTime bStart = bStarts.get(j);
+            LocalDateTime bEnd = bStart.plus(b.getDuration());
+            if (aStart.isBefore(bEnd) && bStart.isBefore(aEnd)) {
+                return true;
+            }
+            if (aEnd.isAfter(bEnd)) {
+                j++;
+            } else {
+                i++;
+            }
+        }
+        return false;
+    }
+    
+    // Occurrences sit at fixed times of day, so two series shorter than a day can only collide
+    // if their daily windows intersect on the 24h clock
+    private static boolean timesOfDayMeet(BookingSeries a, BookingSeries b) {
+        if (a.getDurationMinutes() >= MINUTES_PER_DAY || b.getDurationMinutes() >= MINUTES_PER_DAY) {
+            return true;
+        }
+        int aStart = a.getStartTime().getHour() * 60 + a.getStartTime().getMinute();
+        int bStart = b.getStartTime().getHour() * 60 + b.getStartTime().getMinute();
+        return Math.floorMod(bStart - aStart, MINUTES_PER_DAY) < a.getDurationMinutes()
+            || Math.floorMod(aStart - bStart, MINUTES_PER_DAY) < b.getDurationMinutes();
+    }
+    
+    private static boolean shareMachine(BookingSeries series, Booking booking) {
+        return (series.isUsesWasher() && booking.isUsesWasher()) || (series.isUsesDryer() && booking.isUsesDryer());
+    }
+    
+    private static boolean shareMachine(BookingSeries a, BookingSeries b) {
+        return (a.isUsesWasher() && b.isUsesWasher()) || (a.isUsesDryer() && b.isUsesDryer());
+    }
+    
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+    
+    // Null means open-ended
+    private static LocalDateTime earlier(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.isBefore(b) ? a : b;
+    }
+    
+    private static long lcm(long a, long b) {
+        long x = a;
+        long y = b;
+        while (y != 0) {
+            long t = x % y;
+            x = y;
+            y = t;
+        }
+        return a / x * b;
+    }
+}
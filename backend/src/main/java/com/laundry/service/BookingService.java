@@ -1,18 +1,46 @@
 package com.laundry.service;
 
+import com.laundry.dto.BookingBatchConflict;
 import com.laundry.dto.BookingRequest;
 import com.laundry.dto.BookingResponse;
+import com.laundry.dto.BookingSeriesRequest;
+import com.laundry.dto.BookingSeriesResponse;
+import com.laundry.dto.BookingUpdateRequest;
+import com.laundry.dto.SlotHoldResponse;
 import com.laundry.ha.HomeAssistantService;
 import com.laundry.model.Booking;
+import com.laundry.model.BookingSeries;
+import com.laundry.model.Machine;
 import com.laundry.model.User;
+import com.laundry.model.WaitlistEntry;
 import com.laundry.repository.BookingRepository;
+import com.laundry.repository.BookingSeriesRepository;
+import com.laundry.util.RecurrenceRule;
 import com.laundry.repository.UserRepository;
+import com.laundry.repository.WaitlistEntryRepository;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,43 +55,398 @@ public class BookingService {
     @Autowired(required = false)
     private HomeAssistantService haService;
     
+    @Autowired
+    private ReminderScheduler reminderScheduler;
+    
+    @Autowired
+    private CalendarVersion calendarVersion;
+    
+    @Autowired
+    private BookingMetrics bookingMetrics;
+    
+    @Autowired
+    private MachineLocks machineLocks;
+    
+    @Autowired
+    private BookingSeriesRepository seriesRepository;
+    
+    @Autowired
+    private BookingSeriesService seriesService;
+    
+    @Autowired
+    private SlotHolds slotHolds;
+    
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+    
+    @Autowired
+    private EmailService emailService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${bookings.batch.max-size:20}")
+    private int maxBatchSize;
+    
+    private static final String INSERT_BOOKING = """
+        INSERT INTO bookings (household_id, user_id, start_time, end_time, notes, uses_washer, uses_dryer,
+                              created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+    
     @Transactional
     public BookingResponse createBooking(Long userId, BookingRequest request) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
+        Timer.Sample sample = bookingMetrics.start();
+        try {
+            BookingResponse response = doCreateBooking(userId, request);
+            bookingMetrics.record(sample, "create", "success");
+            return response;
+        } catch (RuntimeException e) {
+            bookingMetrics.record(sample, "create", "rejected");
+            throw e;
+        }
+    }
+    
+    private BookingResponse doCreateBooking(Long userId, BookingRequest request) {
+        User user = findBookableUser(userId);
         
-        if (user.isBlocked()) {
-            if (user.getBlockedUntil() != null && LocalDateTime.now().isBefore(user.getBlockedUntil())) {
-                throw new RuntimeException("User is blocked until " + user.getBlockedUntil());
-            } else if (user.getBlockedUntil() == null) {
-                throw new RuntimeException("User is permanently blocked");
+        Set<Machine> machines = request.getMachines() != null ? request.getMachines() : Machine.all();
+        if (machines.isEmpty()) {
+            throw new RuntimeException("A booking needs at least one machine");
+        }
+        
+        // Held until commit, so a concurrent booking of the same machine waits for this one
+        Long householdId = user.getHouseholdId();
+        machineLocks.lock(householdId, machines);
+        
+        // Check for overlapping bookings on the same machines (same time slots, not just same day)
+        if (!isFree(householdId, machines, request.getStartTime(), request.getEndTime(), userId)) {
+            bookingMetrics.overlapRejected();
+            throw new RuntimeException("Time slot overlaps with existing booking");
+        }
+        
+        Booking booking = saveBooking(user, request.getStartTime(), request.getEndTime(), machines, request.getNotes());
+        calendarVersion.bumpAfterCommit(householdId);
+        return convertToResponse(booking);
+    }
+    
+    // Books several slots at once, all or none. Everything already taken in the batch's overall
+    // window is loaded with one query and every item is checked against it and against the
+    // other items in a sorted sweep (see BookingBatch); the rows then go in as one JDBC batch.
+    @Transactional
+    public List<BookingResponse> createBookings(Long userId, List<BookingRequest> requests) {
+        Timer.Sample sample = bookingMetrics.start();
+        try {
+            List<BookingResponse> responses = doCreateBookings(userId, requests);
+            bookingMetrics.record(sample, "batch", "success");
+            return responses;
+        } catch (BookingConflictException e) {
+            bookingMetrics.record(sample, "batch", "conflict");
+            throw e;
+        } catch (RuntimeException e) {
+            bookingMetrics.record(sample, "batch", "rejected");
+            throw e;
+        }
+    }
+    
+    private List<BookingResponse> doCreateBookings(Long userId, List<BookingRequest> requests) {
+        User user = findBookableUser(userId);
+        if (requests.size() > maxBatchSize) {
+            throw new RuntimeException("At most " + maxBatchSize + " bookings can be made at once");
+        }
+        
+        List<Booking> items = new ArrayList<>(requests.size());
+        Set<Machine> machines = EnumSet.noneOf(Machine.class);
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            Set<Machine> itemMachines = request.getMachines() != null ? request.getMachines() : Machine.all();
+            if (itemMachines.isEmpty()) {
+                throw new RuntimeException("Item " + i + ": a booking needs at least one machine");
             }
+            if (!request.getEndTime().isAfter(request.getStartTime())) {
+                throw new RuntimeException("Item " + i + ": end time must be after start time");
+            }
+            
+            Booking item = new Booking();
+            item.setUser(user);
+            item.setHouseholdId(user.getHouseholdId());
+            item.setStartTime(request.getStartTime());
+            item.setEndTime(request.getEndTime());
+            item.setNotes(request.getNotes());
+            item.setMachines(itemMachines);
+            items.add(item);
+            machines.addAll(itemMachines);
+            from = from == null || item.getStartTime().isBefore(from) ? item.getStartTime() : from;
+            to = to == null || item.getEndTime().isAfter(to) ? item.getEndTime() : to;
         }
         
+        Long householdId = user.getHouseholdId();
+        machineLocks.lock(householdId, machines);
+        List<Booking> taken = new ArrayList<>(bookingRepository.findOverlappingBookings(householdId, from, to));
+        taken.addAll(seriesService.occurrencesOverlapping(householdId, from, to));
+        taken.addAll(slotHolds.overlapping(householdId, from, to, userId));
+        bookingMetrics.recordOverlapQueries(2);
         
-        // Check for overlapping bookings (same time slots, not just same day)
-        List<Booking> overlapping = bookingRepository.findOverlappingBookings(
-            request.getStartTime(), 
-            request.getEndTime()
-        );
+        List<BookingBatchConflict> conflicts = BookingBatch.conflicts(items, new MachineTimeline(taken));
+        if (!conflicts.isEmpty()) {
+            bookingMetrics.overlapRejected();
+            throw new BookingBatchConflictException(conflicts);
+        }
         
-        if (!overlapping.isEmpty()) {
+        insertBookings(items, LocalDateTime.now());
+        for (Booking item : items) {
+            reminderScheduler.scheduleAfterCommit(item.getId(), item.getStartTime());
+        }
+        calendarVersion.bumpAfterCommit(householdId);
+        return items.stream()
+            .map(this::convertToResponse)
+            .collect(Collectors.toList());
+    }
+    
+    // One round trip for the whole batch; sets the generated ids on the bookings
+    private void insertBookings(List<Booking> bookings, LocalDateTime now) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_BOOKING, new String[] { "id" }),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    Booking booking = bookings.get(i);
+                    statement.setLong(1, booking.getHouseholdId());
+                    statement.setLong(2, booking.getUser().getId());
+                    statement.setObject(3, booking.getStartTime());
+                    statement.setObject(4, booking.getEndTime());
+                    statement.setString(5, booking.getNotes());
+                    statement.setBoolean(6, booking.isUsesWasher());
+                    statement.setBoolean(7, booking.isUsesDryer());
+                    statement.setObject(8, booking.getCreatedAt() != null ? booking.getCreatedAt() : now);
+                    statement.setObject(9, now);
+                }
+                
+                @Override
+                public int getBatchSize() {
+                    return bookings.size();
+                }
+            }, keys);
+        
+        List<Map<String, Object>> rows = keys.getKeyList();
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            booking.setId(((Number) rows.get(i).get("id")).longValue());
+            if (booking.getCreatedAt() == null) {
+                booking.setCreatedAt(now);
+            }
+        }
+    }
+    
+    // One chunk of an admin CSV import (see BookingImportService). Unlike a batch, the chunk
+    // isn't all or nothing: rows that overlap something already taken, or an earlier row of the
+    // chunk, are left out and reported, and the rest go in. Past slots and blocked users are
+    // allowed, since imports are mostly history. All items belong to users of the household.
+    @Transactional
+    public List<BookingBatchConflict> importBookings(Long householdId, List<Booking> items) {
+        Timer.Sample sample = bookingMetrics.start();
+        try {
+            List<BookingBatchConflict> conflicts = doImportBookings(householdId, items);
+            bookingMetrics.record(sample, "import", conflicts.isEmpty() ? "success" : "conflict");
+            return conflicts;
+        } catch (RuntimeException e) {
+            bookingMetrics.record(sample, "import", "rejected");
+            throw e;
+        }
+    }
+    
+    private List<BookingBatchConflict> doImportBookings(Long householdId, List<Booking> items) {
+        Set<Machine> machines = EnumSet.noneOf(Machine.class);
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (Booking item : items) {
+            item.setHouseholdId(householdId);
+            machines.addAll(item.getMachines());
+            from = from == null || item.getStartTime().isBefore(from) ? item.getStartTime() : from;
+            to = to == null || item.getEndTime().isAfter(to) ? item.getEndTime() : to;
+        }
+        
+        machineLocks.lock(householdId, machines);
+        List<Booking> taken = new ArrayList<>(bookingRepository.findOverlappingBookings(householdId, from, to));
+        taken.addAll(seriesService.occurrencesOverlapping(householdId, from, to));
+        taken.addAll(slotHolds.overlapping(householdId, from, to, null));
+        bookingMetrics.recordOverlapQueries(2);
+        
+        List<BookingBatchConflict> conflicts = BookingBatch.importConflicts(items, new MachineTimeline(taken));
+        if (!conflicts.isEmpty()) {
+            bookingMetrics.overlapRejected();
+        }
+        Set<Integer> rejected = conflicts.stream()
+            .map(BookingBatchConflict::getIndex)
+            .collect(Collectors.toSet());
+        List<Booking> accepted = new ArrayList<>(items.size() - rejected.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (!rejected.contains(i)) {
+                accepted.add(items.get(i));
+            }
+        }
+        
+        if (!accepted.isEmpty()) {
+            insertBookings(accepted, LocalDateTime.now());
+            for (Booking booking : accepted) {
+                reminderScheduler.scheduleAfterCommit(booking.getId(), booking.getStartTime());
+            }
+            calendarVersion.bumpAfterCommit(householdId);
+        }
+        return conflicts;
+    }
+    
+    // Holds the slot for the user for a few minutes while they fill in the booking form
+    @Transactional
+    public SlotHoldResponse holdSlot(Long userId, BookingRequest request) {
+        Long householdId = findBookableUser(userId).getHouseholdId();
+        
+        Set<Machine> machines = request.getMachines() != null ? request.getMachines() : Machine.all();
+        if (machines.isEmpty()) {
+            throw new RuntimeException("A booking needs at least one machine");
+        }
+        if (!request.getEndTime().isAfter(request.getStartTime())) {
+            throw new RuntimeException("End time must be after start time");
+        }
+        
+        // Same lock as booking creation, so a booking can't slip in between the check and the hold
+        machineLocks.lock(householdId, machines);
+        if (!isFree(householdId, machines, request.getStartTime(), request.getEndTime(), userId)) {
+            bookingMetrics.overlapRejected();
+            throw new RuntimeException("Time slot overlaps with existing booking");
+        }
+        return convertToResponse(
+            slotHolds.place(householdId, userId, request.getStartTime(), request.getEndTime(), machines));
+    }
+    
+    // Holds the earliest free slot of the given length; the next-available dialog shows it
+    // to the user before they confirm
+    @Transactional
+    public SlotHoldResponse holdNextAvailable(Long userId, int durationMinutes, Set<Machine> machines) {
+        Long householdId = findBookableUser(userId).getHouseholdId();
+        if (machines.isEmpty()) {
+            throw new RuntimeException("A booking needs at least one machine");
+        }
+        
+        machineLocks.lock(householdId, machines);
+        LocalDateTime nextSlot = findNextAvailableSlot(householdId, durationMinutes, machines, userId);
+        if (nextSlot == null) {
+            throw new RuntimeException("No available slots found in the next 7 days");
+        }
+        return convertToResponse(
+            slotHolds.place(householdId, userId, nextSlot, nextSlot.plusMinutes(durationMinutes), machines));
+    }
+    
+    // The slot was checked when the hold was placed and nobody on this instance can book over
+    // a hold, so confirming is a single conditional insert rather than another overlap query.
+    // The insert still refuses to overlap, for bookings made through another instance.
+    @Transactional
+    public BookingResponse confirmHold(Long userId, String holdId, String notes) {
+        Timer.Sample sample = bookingMetrics.start();
+        try {
+            BookingResponse response = doConfirmHold(userId, holdId, notes);
+            bookingMetrics.record(sample, "confirm_hold", "success");
+            return response;
+        } catch (RuntimeException e) {
+            bookingMetrics.record(sample, "confirm_hold", "rejected");
+            throw e;
+        }
+    }
+    
+    private BookingResponse doConfirmHold(Long userId, String holdId, String notes) {
+        User user = findBookableUser(userId);
+        Long householdId = user.getHouseholdId();
+        
+        machineLocks.lock(householdId, slotHolds.find(holdId, userId).getMachines());
+        SlotHolds.Hold hold = slotHolds.take(holdId, userId);
+        
+        LocalDateTime now = LocalDateTime.now();
+        Long bookingId = bookingRepository.insertIfFree(householdId, userId, hold.getStartTime(), hold.getEndTime(),
+            notes, hold.getMachines().contains(Machine.WASHER), hold.getMachines().contains(Machine.DRYER), now);
+        if (bookingId == null) {
+            bookingMetrics.overlapRejected();
             throw new RuntimeException("Time slot overlaps with existing booking");
         }
         
         Booking booking = new Booking();
+        booking.setId(bookingId);
         booking.setUser(user);
-        booking.setStartTime(request.getStartTime());
-        booking.setEndTime(request.getEndTime());
-        booking.setNotes(request.getNotes());
+        booking.setHouseholdId(householdId);
+        booking.setStartTime(hold.getStartTime());
+        booking.setEndTime(hold.getEndTime());
+        booking.setNotes(notes);
+        booking.setMachines(hold.getMachines());
+        booking.setCreatedAt(now);
+        reminderScheduler.scheduleAfterCommit(bookingId, booking.getStartTime());
+        calendarVersion.bumpAfterCommit(householdId);
+        return convertToResponse(booking);
+    }
+    
+    public void releaseHold(Long userId, String holdId) {
+        slotHolds.release(holdId, userId);
+    }
+    
+    @Transactional(readOnly = true)
+    public boolean isSlotFree(Long householdId, Set<Machine> machines, LocalDateTime start, LocalDateTime end,
+                              Long userId) {
+        return isFree(householdId, machines, start, end, userId);
+    }
+    
+    // Books a waitlist entry if its whole window is free now. Returns null when it isn't, or
+    // when another instance claimed the entry first.
+    @Transactional
+    public BookingResponse promoteFromWaitlist(Long entryId) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId).orElse(null);
+        if (entry == null) {
+            return null;
+        }
         
-        booking = bookingRepository.save(booking);
+        Set<Machine> machines = entry.getMachines();
+        Long householdId = entry.getHouseholdId();
+        machineLocks.lock(householdId, machines);
+        if (!isFree(householdId, machines, entry.getStartTime(), entry.getEndTime(), entry.getUser().getId())
+                || waitlistRepository.claim(entryId) == 0) {
+            return null;
+        }
+        
+        User user = findBookableUser(entry.getUser().getId());
+        Booking booking = saveBooking(user, entry.getStartTime(), entry.getEndTime(), machines, entry.getNotes());
+        emailService.sendWaitlistPromotion(booking);
+        calendarVersion.bumpAfterCommit(householdId);
         return convertToResponse(booking);
     }
     
+    // Other users' holds count as taken; the user's own don't get in their way
+    private boolean isFree(Long householdId, Set<Machine> machines, LocalDateTime start, LocalDateTime end,
+                           Long userId) {
+        if (slotHolds.isHeldByOthers(householdId, machines, start, end, userId)) {
+            return false;
+        }
+        if (machines.contains(Machine.WASHER)
+                && !bookingRepository.findOverlappingWasherBookings(householdId, start, end).isEmpty()) {
+            return false;
+        }
+        if (machines.contains(Machine.DRYER)
+                && !bookingRepository.findOverlappingDryerBookings(householdId, start, end).isEmpty()) {
+            return false;
+        }
+        return !seriesService.hasOccurrenceOverlapping(householdId, machines, start, end);
+    }
+    
     @Transactional(readOnly = true)
-    public List<BookingResponse> getBookings(LocalDateTime start, LocalDateTime end) {
-        List<Booking> bookings = bookingRepository.findBookingsInRange(start, end);
+    public List<BookingResponse> getBookings(Long householdId, LocalDateTime start, LocalDateTime end) {
+        List<Booking> bookings = new ArrayList<>(bookingRepository.findBookingsInRange(householdId, start, end));
+        // Same containment rule as the query above
+        for (Booking occurrence : seriesService.occurrencesOverlapping(householdId, start, end)) {
+            if (!occurrence.getStartTime().isBefore(start) && !occurrence.getEndTime().isAfter(end)) {
+                bookings.add(occurrence);
+            }
+        }
+        bookings.sort(Comparator.comparing(Booking::getStartTime));
         return bookings.stream()
             .map(this::convertToResponse)
             .collect(Collectors.toList());
@@ -87,31 +470,309 @@ public class BookingService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
-        // Allow deletion if user owns the booking OR user is an admin
-        if (!booking.getUser().getId().equals(userId) && !user.isAdmin()) {
+        // Allow deletion if user owns the booking OR user is an admin of its household
+        if (!booking.getUser().getId().equals(userId) && !isAdminOf(user, booking.getHouseholdId())) {
             throw new RuntimeException("Not authorized to delete this booking");
         }
         
         bookingRepository.delete(booking);
+        reminderScheduler.cancelAfterCommit(bookingId);
+        calendarVersion.bumpAfterCommit(booking.getHouseholdId());
+        // Handled after commit and off this thread (see WaitlistService)
+        eventPublisher.publishEvent(new SlotFreedEvent(booking.getHouseholdId(), booking.getStartTime(),
+            booking.getEndTime(), booking.getMachines()));
+    }
+    
+    // Moves a booking and/or changes its notes in one statement. The update only applies if the
+    // booking is still at the version the client saw and the new window is free, so a stale or
+    // racing change fails with BookingConflictException instead of double booking.
+    @Transactional
+    public BookingResponse rescheduleBooking(Long bookingId, Long userId, BookingUpdateRequest request) {
+        Timer.Sample sample = bookingMetrics.start();
+        try {
+            BookingResponse response = doRescheduleBooking(bookingId, userId, request);
+            bookingMetrics.record(sample, "reschedule", "success");
+            return response;
+        } catch (BookingConflictException e) {
+            bookingMetrics.record(sample, "reschedule", "conflict");
+            throw e;
+        } catch (RuntimeException e) {
+            bookingMetrics.record(sample, "reschedule", "rejected");
+            throw e;
+        }
+    }
+    
+    private BookingResponse doRescheduleBooking(Long bookingId, Long userId, BookingUpdateRequest request) {
+        Booking booking = bookingRepository.findById(bookingId)
+            .orElseThrow(() -> new RuntimeException("Booking not found"));
+        
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        // Same rule as deletion: the owner or an admin
+        Long ownerId = booking.getUser().getId();
+        if (!ownerId.equals(userId) && !isAdminOf(user, booking.getHouseholdId())) {
+            throw new RuntimeException("Not authorized to change this booking");
+        }
+        if (ownerId.equals(userId)) {
+            findBookableUser(userId);
+        }
+        
+        LocalDateTime start = request.getStartTime() != null ? request.getStartTime() : booking.getStartTime();
+        LocalDateTime end = request.getEndTime() != null ? request.getEndTime() : booking.getEndTime();
+        String notes = request.getNotes() != null ? request.getNotes() : booking.getNotes();
+        if (!end.isAfter(start)) {
+            throw new RuntimeException("End time must be after start time");
+        }
+        if (!booking.getVersion().equals(request.getVersion())) {
+            throw new BookingConflictException("Booking was changed by someone else; reload and try again");
+        }
+        
+        // Holds and series occurrences aren't rows, so they are checked here under the machine
+        // lock; other bookings are checked by the update itself
+        Set<Machine> machines = booking.getMachines();
+        Long householdId = booking.getHouseholdId();
+        machineLocks.lock(householdId, machines);
+        if (slotHolds.isHeldByOthers(householdId, machines, start, end, ownerId)
+                || seriesService.hasOccurrenceOverlapping(householdId, machines, start, end)) {
+            bookingMetrics.overlapRejected();
+            throw new BookingConflictException("Time slot overlaps with existing booking");
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        if (bookingRepository.rescheduleIfFree(bookingId, request.getVersion(), start, end, notes, now) == 0) {
+            Long currentVersion = bookingRepository.findVersionById(bookingId);
+            if (currentVersion == null) {
+                throw new RuntimeException("Booking not found");
+            }
+            if (!currentVersion.equals(request.getVersion())) {
+                throw new BookingConflictException("Booking was changed by someone else; reload and try again");
+            }
+            bookingMetrics.overlapRejected();
+            throw new BookingConflictException("Time slot overlaps with existing booking");
+        }
+        
+        // The managed entity is stale now and must not be flushed, so respond from a copy
+        Booking updated = new Booking();
+        updated.setId(bookingId);
+        updated.setUser(booking.getUser());
+        updated.setHouseholdId(householdId);
+        updated.setStartTime(start);
+        updated.setEndTime(end);
+        updated.setNotes(notes);
+        updated.setMachines(machines);
+        updated.setVersion(request.getVersion() + 1);
+        updated.setCreatedAt(booking.getCreatedAt());
+        
+        if (!start.equals(booking.getStartTime()) || !end.equals(booking.getEndTime())) {
+            reminderScheduler.scheduleAfterCommit(bookingId, start);
+            eventPublisher.publishEvent(new SlotFreedEvent(householdId, booking.getStartTime(), booking.getEndTime(),
+                machines));
+        }
+        calendarVersion.bumpAfterCommit(householdId);
+        return convertToResponse(updated);
     }
     
     @Transactional(readOnly = true)
-    public List<Booking> getTodayBookings() {
+    public List<Booking> getTodayBookings(Long householdId) {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime tomorrow = now.plusDays(1).withHour(0).withMinute(0).withSecond(0);
-        return bookingRepository.findTodayBookings(now, tomorrow);
+        return bookingRepository.findTodayBookings(householdId, now, tomorrow);
     }
     
     @Transactional(readOnly = true)
-    public List<Booking> getWeekBookings() {
+    public List<Booking> getWeekBookings(Long householdId) {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime weekStart = now.withHour(0).withMinute(0).withSecond(0);
         LocalDateTime weekEnd = weekStart.plusWeeks(1);
-        return bookingRepository.findWeekBookings(weekStart, weekEnd);
+        List<Booking> bookings = new ArrayList<>(bookingRepository.findWeekBookings(householdId, weekStart, weekEnd));
+        for (Booking occurrence : seriesService.occurrencesOverlapping(householdId, weekStart, weekEnd)) {
+            if (!occurrence.getStartTime().isBefore(weekStart)) {
+                bookings.add(occurrence);
+            }
+        }
+        bookings.sort(Comparator.comparing(Booking::getStartTime));
+        return bookings;
+    }
+    
+    @Transactional
+    public BookingSeriesResponse createSeries(Long userId, BookingSeriesRequest request) {
+        Timer.Sample sample = bookingMetrics.start();
+        try {
+            BookingSeriesResponse response = doCreateSeries(userId, request);
+            bookingMetrics.record(sample, "create_series", "success");
+            return response;
+        } catch (RuntimeException e) {
+            bookingMetrics.record(sample, "create_series", "rejected");
+            throw e;
+        }
+    }
+    
+    private BookingSeriesResponse doCreateSeries(Long userId, BookingSeriesRequest request) {
+        User user = findBookableUser(userId);
+        
+        Set<Machine> machines = request.getMachines() != null ? request.getMachines() : Machine.all();
+        if (machines.isEmpty()) {
+            throw new RuntimeException("A booking needs at least one machine");
+        }
+        long durationMinutes = Duration.between(request.getStartTime(), request.getEndTime()).toMinutes();
+        // Occurrences are at least a day apart, so this also keeps them from overlapping each other
+        if (durationMinutes <= 0 || durationMinutes > 24 * 60) {
+            throw new RuntimeException("Each occurrence must end after it starts and last at most a day");
+        }
+        
+        BookingSeries series = new BookingSeries();
+        series.setUser(user);
+        series.setHouseholdId(user.getHouseholdId());
+        series.setStartTime(request.getStartTime());
+        series.setDurationMinutes((int) durationMinutes);
+        series.setNotes(request.getNotes());
+        series.setMachines(machines);
+        // Stored in canonical form, so equivalent rules read the same everywhere
+        RecurrenceRule rule = RecurrenceRule.parse(request.getRrule(), request.getStartTime());
+        series.setRrule(rule.toString());
+        if (rule.getLastStart() != null) {
+            series.setLastEnd(rule.getLastStart().plusMinutes(durationMinutes));
+        }
+        
+        machineLocks.lock(series.getHouseholdId(), machines);
+        String conflict = seriesService.findConflict(series);
+        if (conflict == null) {
+            conflict = heldSlotConflict(series, userId);
+        }
+        if (conflict != null) {
+            bookingMetrics.overlapRejected();
+            throw new RuntimeException(conflict);
+        }
+        
+        series = seriesRepository.save(series);
+        reminderScheduler.scheduleSeriesAfterCommit();
+        calendarVersion.bumpAfterCommit(series.getHouseholdId());
+        return convertToResponse(series);
+    }
+    
+    private String heldSlotConflict(BookingSeries series, Long userId) {
+        LocalDateTime to = series.getLastEnd() != null ? series.getLastEnd() : LocalDateTime.MAX;
+        for (Booking held : slotHolds.overlapping(series.getHouseholdId(), series.getStartTime(), to, userId)) {
+            boolean sharesMachine = (series.isUsesWasher() && held.isUsesWasher()) || (series.isUsesDryer() && held.isUsesDryer());
+            if (sharesMachine && !series.getRule().overlapping(held.getStartTime(), held.getEndTime(), series.getDuration()).isEmpty()) {
+                return "Series overlaps with a slot someone is booking right now (" + held.getStartTime() + ")";
+            }
+        }
+        return null;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<BookingSeriesResponse> getUserSeries(Long userId) {
+        return seriesRepository.findByUserId(userId).stream()
+            .map(this::convertToResponse)
+            .collect(Collectors.toList());
+    }
+    
+    @Transactional
+    public void deleteSeries(Long seriesId, Long userId) {
+        BookingSeries series = findOwnSeries(seriesId, userId);
+        seriesRepository.delete(series);
+        reminderScheduler.cancelSeriesAfterCommit(seriesId);
+        calendarVersion.bumpAfterCommit(series.getHouseholdId());
+        LocalDateTime now = LocalDateTime.now();
+        eventPublisher.publishEvent(new SlotFreedEvent(series.getHouseholdId(),
+            series.getStartTime().isAfter(now) ? series.getStartTime() : now,
+            series.getLastEnd() != null ? series.getLastEnd() : LocalDateTime.MAX, series.getMachines()));
     }
     
+    // Cancels one occurrence and leaves the rest of the series alone
     @Transactional
-    public BookingResponse bookNextAvailable(Long userId, int durationMinutes, String notes) {
+    public void cancelOccurrence(Long seriesId, LocalDateTime occurrenceStart, Long userId) {
+        BookingSeries series = findOwnSeries(seriesId, userId);
+        if (!series.occursAt(occurrenceStart)) {
+            throw new RuntimeException("The series has no occurrence at " + occurrenceStart);
+        }
+        series.getExceptions().add(occurrenceStart);
+        reminderScheduler.cancelOccurrenceAfterCommit(seriesId, occurrenceStart);
+        calendarVersion.bumpAfterCommit(series.getHouseholdId());
+        eventPublisher.publishEvent(new SlotFreedEvent(series.getHouseholdId(), occurrenceStart,
+            occurrenceStart.plus(series.getDuration()), series.getMachines()));
+    }
+    
+    private BookingSeries findOwnSeries(Long seriesId, Long userId) {
+        BookingSeries series = seriesRepository.findById(seriesId)
+            .orElseThrow(() -> new RuntimeException("Recurring booking not found"));
+        
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        // Same rule as single bookings: the owner or an admin of the household
+        if (!series.getUser().getId().equals(userId) && !isAdminOf(user, series.getHouseholdId())) {
+            throw new RuntimeException("Not authorized to change this recurring booking");
+        }
+        return series;
+    }
+    
+    @Transactional
+    public BookingResponse bookNextAvailable(Long userId, int durationMinutes, Set<Machine> machines, String notes) {
+        Timer.Sample sample = bookingMetrics.start();
+        try {
+            BookingResponse response = doBookNextAvailable(userId, durationMinutes, machines, notes);
+            bookingMetrics.record(sample, "next_available", "success");
+            return response;
+        } catch (RuntimeException e) {
+            bookingMetrics.record(sample, "next_available", "rejected");
+            throw e;
+        }
+    }
+    
+    private BookingResponse doBookNextAvailable(Long userId, int durationMinutes, Set<Machine> machines, String notes) {
+        User user = findBookableUser(userId);
+        if (machines.isEmpty()) {
+            throw new RuntimeException("A booking needs at least one machine");
+        }
+        
+        Long householdId = user.getHouseholdId();
+        machineLocks.lock(householdId, machines);
+        LocalDateTime nextSlot = findNextAvailableSlot(householdId, durationMinutes, machines, userId);
+        if (nextSlot == null) {
+            throw new RuntimeException("No available slots found in the next 7 days");
+        }
+        
+        Booking booking = saveBooking(user, nextSlot, nextSlot.plusMinutes(durationMinutes), machines, notes);
+        calendarVersion.bumpAfterCommit(householdId);
+        return convertToResponse(booking);
+    }
+    
+    // Books the washer and then the dryer straight after it, as the earliest pair of slots
+    // found by one search; both bookings commit together or not at all
+    @Transactional
+    public List<BookingResponse> bookWashThenDry(Long userId, int washMinutes, int dryMinutes, String notes) {
+        Timer.Sample sample = bookingMetrics.start();
+        try {
+            List<BookingResponse> response = doBookWashThenDry(userId, washMinutes, dryMinutes, notes);
+            bookingMetrics.record(sample, "wash_then_dry", "success");
+            return response;
+        } catch (RuntimeException e) {
+            bookingMetrics.record(sample, "wash_then_dry", "rejected");
+            throw e;
+        }
+    }
+    
+    private List<BookingResponse> doBookWashThenDry(Long userId, int washMinutes, int dryMinutes, String notes) {
+        User user = findBookableUser(userId);
+        Long householdId = user.getHouseholdId();
+        
+        machineLocks.lock(householdId, Machine.all());
+        LocalDateTime washStart = findNextWashThenDrySlot(householdId, washMinutes, dryMinutes, userId);
+        if (washStart == null) {
+            throw new RuntimeException("No available slots found in the next 7 days");
+        }
+        
+        LocalDateTime washEnd = washStart.plusMinutes(washMinutes);
+        Booking wash = saveBooking(user, washStart, washEnd, EnumSet.of(Machine.WASHER), notes);
+        Booking dry = saveBooking(user, washEnd, washEnd.plusMinutes(dryMinutes), EnumSet.of(Machine.DRYER), notes);
+        calendarVersion.bumpAfterCommit(householdId);
+        return List.of(convertToResponse(wash), convertToResponse(dry));
+    }
+    
+    private User findBookableUser(Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
@@ -122,23 +783,54 @@ public class BookingService {
                 throw new RuntimeException("User is permanently blocked");
             }
         }
-        
-        LocalDateTime nextSlot = findNextAvailableSlot(durationMinutes);
-        if (nextSlot == null) {
-            throw new RuntimeException("No available slots found in the next 7 days");
-        }
-        
+        return user;
+    }
+    
+    // Admins manage the bookings of their own household only
+    private static boolean isAdminOf(User user, Long householdId) {
+        return user.isAdmin() && user.getHouseholdId().equals(householdId);
+    }
+    
+    private Booking saveBooking(User user, LocalDateTime start, LocalDateTime end, Set<Machine> machines, String notes) {
         Booking booking = new Booking();
         booking.setUser(user);
-        booking.setStartTime(nextSlot);
-        booking.setEndTime(nextSlot.plusMinutes(durationMinutes));
+        booking.setHouseholdId(user.getHouseholdId());
+        booking.setStartTime(start);
+        booking.setEndTime(end);
         booking.setNotes(notes);
+        booking.setMachines(machines);
         
         booking = bookingRepository.save(booking);
-        return convertToResponse(booking);
+        reminderScheduler.scheduleAfterCommit(booking.getId(), booking.getStartTime());
+        return booking;
+    }
+    
+    LocalDateTime findNextAvailableSlot(Long householdId, int durationMinutes) {
+        return findNextAvailableSlot(householdId, durationMinutes, Machine.all(), null);
     }
     
-    private LocalDateTime findNextAvailableSlot(int durationMinutes) {
+    // Slots held by anyone but userId count as taken
+    LocalDateTime findNextAvailableSlot(Long householdId, int durationMinutes, Set<Machine> machines, Long userId) {
+        return findNextSlot(householdId, durationMinutes, userId,
+            (timeline, start) -> timeline.isFree(machines, start, start.plusMinutes(durationMinutes)));
+    }
+    
+    LocalDateTime findNextWashThenDrySlot(Long householdId, int washMinutes, int dryMinutes) {
+        return findNextWashThenDrySlot(householdId, washMinutes, dryMinutes, null);
+    }
+    
+    LocalDateTime findNextWashThenDrySlot(Long householdId, int washMinutes, int dryMinutes, Long userId) {
+        return findNextSlot(householdId, washMinutes + dryMinutes, userId, (timeline, start) -> {
+            LocalDateTime washEnd = start.plusMinutes(washMinutes);
+            return timeline.isFree(Machine.WASHER, start, washEnd)
+                && timeline.isFree(Machine.DRYER, washEnd, washEnd.plusMinutes(dryMinutes));
+        });
+    }
+    
+    // Walks the hourly candidate slots within operating hours. Every booking in the search
+    // window is loaded once up front and the candidates are checked against that in memory.
+    private LocalDateTime findNextSlot(Long householdId, int durationMinutes, Long userId,
+                                       BiPredicate<MachineTimeline, LocalDateTime> fits) {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime searchStart = now.plusMinutes(30); // Start searching 30 minutes from now
         LocalDateTime searchEnd = now.plusDays(7); // Search up to 7 days ahead
@@ -153,6 +845,14 @@ public class BookingService {
         int startHour = 6;
         int endHour = 23;
         
+        LocalDateTime windowEnd = searchEnd.plusMinutes(durationMinutes);
+        List<Booking> taken =
+            new ArrayList<>(bookingRepository.findOverlappingBookings(householdId, searchStart, windowEnd));
+        taken.addAll(seriesService.occurrencesOverlapping(householdId, searchStart, windowEnd));
+        taken.addAll(slotHolds.overlapping(householdId, searchStart, windowEnd, userId));
+        MachineTimeline timeline = new MachineTimeline(taken);
+        bookingMetrics.recordOverlapQueries(2);
+        
         LocalDateTime current = searchStart;
         while (current.isBefore(searchEnd)) {
             // Skip if outside operating hours
@@ -170,10 +870,7 @@ public class BookingService {
                 continue;
             }
             
-            // Check for overlapping bookings
-            List<Booking> overlapping = bookingRepository.findOverlappingBookings(current, slotEnd);
-            
-            if (overlapping.isEmpty()) {
+            if (fits.test(timeline, current)) {
                 return current;
             }
             
@@ -184,7 +881,7 @@ public class BookingService {
         return null; // No available slot found
     }
     
-    private BookingResponse convertToResponse(Booking booking) {
+    BookingResponse convertToResponse(Booking booking) {
         BookingResponse response = new BookingResponse();
         response.setId(booking.getId());
         response.setUserId(booking.getUser().getId());
@@ -194,8 +891,37 @@ public class BookingService {
         response.setStartTime(booking.getStartTime());
         response.setEndTime(booking.getEndTime());
         response.setNotes(booking.getNotes());
+        response.setMachines(booking.getMachines());
+        response.setSeriesId(booking.getSeriesId());
+        response.setVersion(booking.getSeriesId() == null ? booking.getVersion() : null);
         response.setCreatedAt(booking.getCreatedAt());
         return response;
     }
+    
+    SlotHoldResponse convertToResponse(SlotHolds.Hold hold) {
+        SlotHoldResponse response = new SlotHoldResponse();
+        response.setHoldId(hold.getId());
+        response.setStartTime(hold.getStartTime());
+        response.setEndTime(hold.getEndTime());
+        response.setMachines(hold.getMachines());
+        response.setExpiresAt(LocalDateTime.ofInstant(hold.getExpiresAt(), ZoneId.systemDefault()));
+        return response;
+    }
+    
+    BookingSeriesResponse convertToResponse(BookingSeries series) {
+        BookingSeriesResponse response = new BookingSeriesResponse();
+        response.setId(series.getId());
+        response.setUserId(series.getUser().getId());
+        response.setUsername(series.getUser().getUsername());
+        response.setStartTime(series.getStartTime());
+        response.setEndTime(series.getStartTime().plusMinutes(series.getDurationMinutes()));
+        response.setRrule(series.getRrule());
+        response.setLastEnd(series.getLastEnd());
+        response.setNotes(series.getNotes());
+        response.setMachines(series.getMachines());
+        response.setExceptions(series.getExceptions().stream().sorted().toList());
+        response.setCreatedAt(series.getCreatedAt());
+        return response;
+    }
 }
 
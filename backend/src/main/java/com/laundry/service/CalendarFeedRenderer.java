@@ -0,0 +1,142 @@
+package com.laundry.service;
+
+import com.laundry.model.Booking;
+import com.laundry.model.Machine;
+import com.laundry.model.User;
+import com.laundry.repository.BookingRepository;
+import com.laundry.util.Ics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.StringJoiner;
+
+// Writes the .ics feeds: bookings and series occurrences from days-back before `day` to
+// days-ahead after it. Occurrences are written out one by one rather than as an RRULE, so
+// cancelled occurrences simply aren't there.
+//
+// Read-write transaction on purpose: that keeps it on the primary, since a feed rendered from
+// a lagging replica would stay cached until the next booking change.
+@Component
+public class CalendarFeedRenderer {
+    
+    private static final String UID_DOMAIN = "@laundry-scheduler";
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private BookingSeriesService seriesService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${calendar-feed.days-back:30}")
+    private int daysBack;
+    
+    @Value("${calendar-feed.days-ahead:90}")
+    private int daysAhead;
+    
+    // Suggested polling interval for calendar apps that honour it
+    @Value("${calendar-feed.refresh-minutes:15}")
+    private int refreshMinutes;
+    
+    private Counter renders;
+    
+    @PostConstruct
+    void registerMetrics() {
+        renders = Counter.builder("calendar.feed.renders")
+            .description("Calendar feeds rendered because the calendar or the day changed")
+            .register(meterRegistry);
+    }
+    
+    // userId null renders the household feed with everyone's bookings
+    @Transactional
+    public byte[] render(Long householdId, Long userId, LocalDate day) {
+        LocalDateTime from = day.minusDays(daysBack).atStartOfDay();
+        LocalDateTime to = day.plusDays(daysAhead + 1).atStartOfDay();
+        
+        List<Booking> bookings = new ArrayList<>(userId == null
+            ? bookingRepository.findOverlappingWithUser(householdId, from, to)
+            : bookingRepository.findUserBookingsOverlapping(userId, from, to));
+        for (Booking occurrence : seriesService.occurrencesOverlapping(householdId, from, to)) {
+            if (userId == null || occurrence.getUser().getId().equals(userId)) {
+                bookings.add(occurrence);
+            }
+        }
+        bookings.sort(Comparator.comparing(Booking::getStartTime));
+        
+        Instant fallbackStamp = day.atStartOfDay(ZoneId.systemDefault()).toInstant();
+        StringBuilder ics = new StringBuilder(256 + bookings.size() * 256);
+        ics.append(Ics.line("BEGIN", "VCALENDAR"))
+            .append(Ics.line("VERSION", "2.0"))
+            .append(Ics.line("PRODID", "-//Laundry Scheduler//Bookings//EN"))
+            .append(Ics.line("CALSCALE", "GREGORIAN"))
+            .append(Ics.line("METHOD", "PUBLISH"))
+            .append(Ics.line("X-WR-CALNAME", Ics.text(userId == null ? "Laundry" : "My laundry")))
+            .append(Ics.line("REFRESH-INTERVAL;VALUE=DURATION", "PT" + refreshMinutes + "M"))
+            .append(Ics.line("X-PUBLISHED-TTL", "PT" + refreshMinutes + "M"));
+        for (Booking booking : bookings) {
+            appendEvent(ics, booking, userId == null, fallbackStamp);
+        }
+        ics.append(Ics.line("END", "VCALENDAR"));
+        
+        renders.increment();
+        return ics.toString().getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private void appendEvent(StringBuilder ics, Booking booking, boolean withName, Instant fallbackStamp) {
+        String uid = booking.getSeriesId() != null
+            ? "series-" + booking.getSeriesId() + "-" + Ics.localTime(booking.getStartTime()) + UID_DOMAIN
+            : "booking-" + booking.getId() + UID_DOMAIN;
+        // Derived from the booking rather than the render time, so re-rendering an unchanged
+        // calendar gives the same bytes and the same ETag
+        Instant stamp = booking.getCreatedAt() != null
+            ? booking.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant()
+            : fallbackStamp;
+        String summary = withName
+            ? "Laundry: " + displayName(booking.getUser()) + " (" + machines(booking) + ")"
+            : "Laundry (" + machines(booking) + ")";
+        
+        ics.append(Ics.line("BEGIN", "VEVENT"))
+            .append(Ics.line("UID", uid))
+            .append(Ics.line("DTSTAMP", Ics.utcTime(stamp)))
+            .append(Ics.line("DTSTART", Ics.localTime(booking.getStartTime())))
+            .append(Ics.line("DTEND", Ics.localTime(booking.getEndTime())));
+        if (booking.getSeriesId() == null && booking.getVersion() != null) {
+            // Rescheduling bumps the version, which tells calendar apps the event changed
+            ics.append(Ics.line("SEQUENCE", booking.getVersion().toString()));
+        }
+        ics.append(Ics.line("SUMMARY", Ics.text(summary)));
+        if (booking.getNotes() != null && !booking.getNotes().isBlank()) {
+            ics.append(Ics.line("DESCRIPTION", Ics.text(booking.getNotes())));
+        }
+        ics.append(Ics.line("END", "VEVENT"));
+    }
+    
+    private static String displayName(User user) {
+        String name = ((user.getFirstName() != null ? user.getFirstName() : "") + " "
+            + (user.getLastName() != null ? user.getLastName() : "")).trim();
+        return name.isEmpty() ? user.getUsername() : name;
+    }
+    
+    private static String machines(Booking booking) {
+        StringJoiner names = new StringJoiner(" + ");
+        for (Machine machine : booking.getMachines()) {
+            names.add(machine.name().toLowerCase());
+        }
+        return names.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.laundry.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.laundry.dto.CalendarFeedTokenResponse;
+import com.laundry.model.CalendarFeedToken;
+import com.laundry.model.User;
+import com.laundry.repository.CalendarFeedTokenRepository;
+import com.laundry.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HexFormat;
+
+// iCalendar subscription feeds. Calendar apps poll them every few minutes, so each feed is
+// kept as rendered bytes under the calendar version and day it was rendered for; a poll
+// between booking changes is a token lookup and a cache hit, usually answered with a 304.
+@Service
+public class CalendarFeedService {
+    
+    public static final String MY_BOOKINGS_FEED = "my-bookings.ics";
+    public static final String HOUSEHOLD_FEED = "household.ics";
+    
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    @Autowired
+    private CalendarFeedTokenRepository tokenRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private CalendarFeedRenderer renderer;
+    
+    @Autowired
+    private CalendarVersion calendarVersion;
+    
+    // Token hash -> owner. Revoking clears the entry here; other instances notice within a minute.
+    private final Cache<String, FeedOwner> tokenUsers = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofMinutes(1))
+        .maximumSize(1_000)
+        .build();
+    
+    // Stale versions are never asked for again and age out
+    private final Cache<FeedKey, Feed> feeds = Caffeine.newBuilder()
+        .expireAfterAccess(Duration.ofDays(1))
+        .maximumSize(500)
+        .build();
+    
+    public record Feed(byte[] body, String etag, Instant lastModified) {}
+    
+    public record FeedOwner(Long userId, Long householdId) {}
+    
+    // userId null is the household feed; each household's feeds follow its own calendar version
+    private record FeedKey(Long householdId, Long userId, long calendarVersion, LocalDate day) {}
+    
+    // Creates the user's feed token, replacing (and so revoking) any earlier one
+    @Transactional
+    public CalendarFeedTokenResponse createToken(Long userId) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(secret);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        
+        CalendarFeedToken feedToken = tokenRepository.findByUserId(userId).orElse(null);
+        if (feedToken == null) {
+            feedToken = new CalendarFeedToken();
+            feedToken.setUser(user);
+        } else {
+            tokenUsers.invalidate(feedToken.getTokenHash());
+            feedToken.setCreatedAt(LocalDateTime.now());
+        }
+        feedToken.setTokenHash(hash(token));
+        feedToken = tokenRepository.save(feedToken);
+        
+        CalendarFeedTokenResponse response = new CalendarFeedTokenResponse();
+        response.setToken(token);
+        response.setMyBookingsPath("/calendar-feed/" + token + "/" + MY_BOOKINGS_FEED);
+        response.setHouseholdPath("/calendar-feed/" + token + "/" + HOUSEHOLD_FEED);
+        response.setCreatedAt(feedToken.getCreatedAt());
+        return response;
+    }
+    
+    @Transactional
+    public void revokeToken(Long userId) {
+        tokenRepository.findByUserId(userId).ifPresent(feedToken -> {
+            tokenUsers.invalidate(feedToken.getTokenHash());
+            tokenRepository.delete(feedToken);
+        });
+    }
+    
+    // The owner of the token, or null if it doesn't exist (any more)
+    public FeedOwner findOwner(String token) {
+        return tokenUsers.get(hash(token), tokenHash -> tokenRepository.findUserByTokenHash(tokenHash)
+            .map(user -> new FeedOwner(user.getId(), user.getHouseholdId()))
+            .orElse(null));
+    }
+    
+    public Feed getFeed(FeedOwner owner, boolean household) {
+        LocalDate today = LocalDate.now();
+        Long householdId = owner.householdId();
+        FeedKey feedKey = new FeedKey(householdId, household ? null : owner.userId(),
+            calendarVersion.current(householdId), today);
+        return feeds.get(feedKey, key -> {
+            byte[] body = renderer.render(key.householdId(), key.userId(), key.day());
+            // The window moves at midnight even when no booking changed
+            Instant dayStart = today.atStartOfDay(ZoneId.systemDefault()).toInstant();
+            Instant changed = calendarVersion.getLastModified(householdId);
+            Instant lastModified = (changed.isAfter(dayStart) ? changed : dayStart).truncatedTo(ChronoUnit.SECONDS);
+            return new Feed(body, "\"" + hash(body).substring(0, 32) + "\"", lastModified);
+        });
+    }
+    
+    private static String hash(String value) {
+        return hash(value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String hash(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.laundry.service;
+
+import com.laundry.repository.HouseholdRepository;
+import com.laundry.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Monotonic version of each household's booking calendar, bumped after every committed booking
+// change in that household. Anything derived purely from one household's calendar can be cached
+// under its current version; a change in one household leaves the others' caches valid. The
+// version lives on the households row, so a change made through any instance invalidates every
+// instance's caches.
+//
+// The bump runs after the booking transaction commits, in a short transaction of its own. Booking
+// writes therefore never hold the households row lock, and writes for different machines keep
+// contending on nothing but their own MachineLocks. A render between the commit and the bump is
+// cached under the old version and simply replaced once the bump lands.
+@Component
+public class CalendarVersion {
+    
+    private static final Logger log = LoggerFactory.getLogger(CalendarVersion.class);
+    
+    @Autowired
+    private HouseholdRepository householdRepository;
+    
+    public long current(Long householdId) {
+        return state(householdId).getCalendarVersion();
+    }
+    
+    public Instant getLastModified(Long householdId) {
+        return state(householdId).getCalendarModifiedAt().atZone(ZoneId.systemDefault()).toInstant();
+    }
+    
+    public void bumpAfterCommit(Long householdId) {
+        TransactionHooks.afterCommit(() -> bump(householdId));
+    }
+    
+    public void bump(Long householdId) {
+        try {
+            householdRepository.bumpCalendarVersion(householdId, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            // The booking is committed either way; its household's caches catch up on the next change
+            log.warn("Could not bump the calendar version of household {}: {}", householdId, e.getMessage());
+        }
+    }
+    
+    // For changes that cut across households, like the archiver
+    public void bumpAllAfterCommit() {
+        TransactionHooks.afterCommit(() -> {
+            try {
+                householdRepository.bumpAllCalendarVersions(LocalDateTime.now());
+            } catch (RuntimeException e) {
+                log.warn("Could not bump the calendar versions: {}", e.getMessage());
+            }
+        });
+    }
+    
+    private HouseholdRepository.CalendarState state(Long householdId) {
+        return householdRepository.findCalendarState(householdId)
+            .orElseThrow(() -> new IllegalArgumentException("Unknown household " + householdId));
+    }
+}
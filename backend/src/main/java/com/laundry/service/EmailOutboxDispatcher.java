@@ -0,0 +1,195 @@
+package com.laundry.service;
+
+import com.laundry.model.OutboxEmail;
+import com.laundry.model.OutboxStatus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class EmailOutboxDispatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    
+    @Autowired
+    private EmailOutboxService outboxService;
+    
+    @Autowired
+    private JavaMailSender mailSender;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${email.outbox.batch-size:20}")
+    private int batchSize;
+    
+    @Value("${email.outbox.bulk-size:10}")
+    private int bulkSize;
+    
+    private final ExecutorService senders;
+    
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong totalSendNanos = new AtomicLong();
+    private final AtomicLong maxSendNanos = new AtomicLong();
+    private volatile long lastSendNanos;
+    private Timer sendTimer;
+    
+    public EmailOutboxDispatcher(@Value("${email.outbox.parallelism:2}") int parallelism) {
+        AtomicInteger threadIds = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "email-sender-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PostConstruct
+    void registerMetrics() {
+        FunctionCounter.builder("email.sent", sentCount, AtomicLong::get)
+            .description("Emails accepted by the SMTP server")
+            .register(meterRegistry);
+        FunctionCounter.builder("email.failed", failedCount, AtomicLong::get)
+            .description("Email send attempts that failed")
+            .register(meterRegistry);
+        Gauge.builder("email.outbox.depth", outboxService, service -> service.countByStatus(OutboxStatus.PENDING))
+            .description("Emails waiting in the outbox")
+            .register(meterRegistry);
+        sendTimer = Timer.builder("email.send")
+            .description("SMTP session time per bulk send")
+            .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:5000}")
+    public void dispatch() {
+        List<OutboxEmail> batch;
+        do {
+            batch = outboxService.claimBatch(batchSize);
+            List<CompletableFuture<Void>> sends = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i += bulkSize) {
+                List<OutboxEmail> chunk = batch.subList(i, Math.min(i + bulkSize, batch.size()));
+                sends.add(CompletableFuture.runAsync(() -> sendBulk(chunk), senders));
+            }
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+        } while (batch.size() == batchSize);
+    }
+    
+    // Sends the chunk over a single SMTP session; one bad recipient does not fail the rest
+    private void sendBulk(List<OutboxEmail> chunk) {
+        Map<MimeMessage, OutboxEmail> messages = new LinkedHashMap<>();
+        for (OutboxEmail email : chunk) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException e) {
+                markFailed(email, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        
+        Map<Object, Exception> failures = Map.of();
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                failures = allFailed(messages, e);
+            }
+        } catch (Exception e) {
+            failures = allFailed(messages, e);
+        }
+        recordLatency(System.nanoTime() - start, messages.size());
+        
+        for (Map.Entry<MimeMessage, OutboxEmail> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                sentCount.incrementAndGet();
+                outboxService.markSent(entry.getValue().getId());
+            } else {
+                markFailed(entry.getValue(), failure);
+            }
+        }
+    }
+    
+    private MimeMessage toMimeMessage(OutboxEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        boolean multipart = email.getHtmlBody() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(message, multipart, "UTF-8");
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        if (multipart) {
+            helper.setText(email.getBody(), email.getHtmlBody());
+        } else {
+            helper.setText(email.getBody());
+        }
+        return message;
+    }
+    
+    private Map<Object, Exception> allFailed(Map<MimeMessage, OutboxEmail> messages, Exception e) {
+        Map<Object, Exception> failures = new LinkedHashMap<>();
+        messages.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+    
+    private void markFailed(OutboxEmail email, Exception e) {
+        failedCount.incrementAndGet();
+        log.warn("Failed to send email {} to {} (attempt {}): {}",
+            email.getId(), email.getRecipient(), email.getAttempts(), e.getMessage());
+        outboxService.markFailed(email.getId(), e.getMessage());
+    }
+    
+    // Latency is tracked per message, amortised over the session that carried it
+    private void recordLatency(long sessionNanos, int messageCount) {
+        long perMessage = sessionNanos / messageCount;
+        lastSendNanos = perMessage;
+        totalSendNanos.addAndGet(sessionNanos);
+        maxSendNanos.accumulateAndGet(perMessage, Math::max);
+        sendTimer.record(sessionNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public Map<String, Object> getStats() {
+        long attempts = sentCount.get() + failedCount.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", outboxService.countByStatus(OutboxStatus.PENDING));
+        stats.put("sending", outboxService.countByStatus(OutboxStatus.SENDING));
+        stats.put("failed", outboxService.countByStatus(OutboxStatus.FAILED));
+        stats.put("sentSinceStartup", sentCount.get());
+        stats.put("failedSinceStartup", failedCount.get());
+        stats.put("lastSendMs", lastSendNanos / 1_000_000.0);
+        stats.put("avgSendMs", attempts == 0 ? 0.0 : totalSendNanos.get() / 1_000_000.0 / attempts);
+        stats.put("maxSendMs", maxSendNanos.get() / 1_000_000.0);
+        return stats;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+    }
+}
@@ -0,0 +1,91 @@
+package com.laundry.service;
+
+import com.laundry.mail.RenderedEmail;
+import com.laundry.model.OutboxEmail;
+import com.laundry.model.OutboxStatus;
+import com.laundry.repository.OutboxEmailRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class EmailOutboxService {
+    
+    @Autowired
+    private OutboxEmailRepository outboxRepository;
+    
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+    
+    @Value("${email.outbox.base-backoff-ms:30000}")
+    private long baseBackoffMs;
+    
+    @Value("${email.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+    
+    @Value("${email.outbox.lease-ms:120000}")
+    private long leaseMs;
+    
+    // Joins the caller's transaction so the email is only queued if the business change commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEmail enqueue(String recipient, RenderedEmail rendered) {
+        OutboxEmail email = new OutboxEmail();
+        email.setRecipient(recipient);
+        email.setSubject(rendered.subject());
+        email.setBody(rendered.text());
+        email.setHtmlBody(rendered.html());
+        return outboxRepository.save(email);
+    }
+    
+    @Transactional
+    public List<OutboxEmail> claimBatch(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEmail> batch = outboxRepository.lockDueEmails(now, batchSize);
+        
+        // A SENDING row past its lease belongs to a dispatcher that died mid-send
+        LocalDateTime leaseUntil = now.plusNanos(leaseMs * 1_000_000);
+        for (OutboxEmail email : batch) {
+            email.setStatus(OutboxStatus.SENDING);
+            email.setAttempts(email.getAttempts() + 1);
+            email.setNextAttemptAt(leaseUntil);
+        }
+        return batch;
+    }
+    
+    @Transactional
+    public void markSent(Long emailId) {
+        outboxRepository.findById(emailId).ifPresent(email -> {
+            email.setStatus(OutboxStatus.SENT);
+            email.setSentAt(LocalDateTime.now());
+            email.setLastError(null);
+        });
+    }
+    
+    @Transactional
+    public void markFailed(Long emailId, String error) {
+        outboxRepository.findById(emailId).ifPresent(email -> {
+            email.setLastError(error);
+            if (email.getAttempts() >= maxAttempts) {
+                email.setStatus(OutboxStatus.FAILED);
+                return;
+            }
+            email.setStatus(OutboxStatus.PENDING);
+            email.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs(email.getAttempts()) * 1_000_000));
+        });
+    }
+    
+    @Transactional(readOnly = true)
+    public long countByStatus(OutboxStatus status) {
+        return outboxRepository.countByStatus(status);
+    }
+    
+    private long backoffMs(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(baseBackoffMs << exponent, maxBackoffMs);
+    }
+}
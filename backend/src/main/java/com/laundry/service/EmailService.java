@@ -1,103 +1,213 @@
 package com.laundry.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.laundry.mail.EmailTemplates;
+import com.laundry.mail.RenderedEmail;
 import com.laundry.model.Booking;
+import com.laundry.model.BookingSeries;
 import com.laundry.model.User;
+import com.laundry.repository.BookingRepository;
+import com.laundry.repository.BookingSeriesRepository;
 import com.laundry.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class EmailService {
     
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxService outboxService;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private BookingSeriesRepository seriesRepository;
+    
+    @Autowired
+    private EmailTemplates templates;
+    
+    @Autowired
+    private CalendarVersion calendarVersion;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Shared schedule tables, keyed by household and its calendar version so a booking change
+    // invalidates that household's table and no other
+    private final Cache<ScheduleKey, ScheduleFragment> scheduleFragments = Caffeine.newBuilder()
+        .maximumSize(256)
+        .expireAfterWrite(Duration.ofHours(1))
+        .recordStats()
+        .build();
+    
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("hh:mm a");
     
-    public void sendWeeklySchedule(List<Booking> bookings) {
-        List<User> users = userRepository.findAll();
+    @PostConstruct
+    void registerMetrics() {
+        CaffeineCacheMetrics.monitor(meterRegistry, scheduleFragments, "email-schedule-fragments");
+    }
+    
+    // Emails are queued in the outbox and delivered by EmailOutboxDispatcher
+    @Transactional
+    public void sendWeeklySchedule(Long householdId, List<Booking> bookings) {
+        List<User> users = userRepository.findByHouseholdId(householdId);
         
+        // The schedule table is rendered once; only the greeting differs per recipient
+        ScheduleFragment schedule = weeklyScheduleFragment(householdId, bookings);
         for (User user : users) {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(user.getEmail());
-            message.setSubject("Weekly Laundry Schedule");
-            message.setText(buildWeeklyScheduleEmail(bookings));
-            
-            try {
-                mailSender.send(message);
-            } catch (Exception e) {
-                System.err.println("Failed to send email to " + user.getEmail() + ": " + e.getMessage());
-            }
+            outboxService.enqueue(user.getEmail(), renderWeeklySchedule(user, schedule));
         }
     }
     
-    public void sendDailyReminder(Booking booking) {
-        User user = booking.getUser();
-        
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(user.getEmail());
-        message.setSubject("Laundry Reminder: Your booking is today!");
-        message.setText(buildDailyReminderEmail(booking));
+    @Transactional
+    public void sendBookingReminder(Long bookingId, LocalDateTime expectedStart, int leadMinutes) {
+        // Skip reminders for bookings that were cancelled or moved after the timer was set
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null || !booking.getStartTime().equals(expectedStart)) {
+            return;
+        }
         
-        try {
-            mailSender.send(message);
-        } catch (Exception e) {
-            System.err.println("Failed to send reminder to " + user.getEmail() + ": " + e.getMessage());
+        outboxService.enqueue(booking.getUser().getEmail(), renderReminder(booking, leadMinutes));
+    }
+    
+    @Transactional
+    public void sendSeriesReminder(Long seriesId, LocalDateTime occurrenceStart, int leadMinutes) {
+        // Same for occurrences: the series may have been deleted or the occurrence cancelled
+        BookingSeries series = seriesRepository.findById(seriesId).orElse(null);
+        if (series == null || !series.occursAt(occurrenceStart)) {
+            return;
         }
+        
+        outboxService.enqueue(series.getUser().getEmail(), renderReminder(series.occurrence(occurrenceStart), leadMinutes));
     }
     
-    private String buildWeeklyScheduleEmail(List<Booking> bookings) {
-        StringBuilder email = new StringBuilder();
-        email.append("Hello!\n\n");
-        email.append("Here's the laundry schedule for the upcoming week:\n\n");
+    // Joins the promoting transaction, so the email is only queued if the booking commits
+    @Transactional
+    public void sendWaitlistPromotion(Booking booking) {
+        outboxService.enqueue(booking.getUser().getEmail(), renderWaitlistPromotion(booking));
+    }
+    
+    public RenderedEmail renderWeeklySchedule(User recipient, List<Booking> bookings) {
+        return renderWeeklySchedule(recipient, weeklyScheduleFragment(recipient.getHouseholdId(), bookings));
+    }
+    
+    public RenderedEmail renderReminder(Booking booking, int leadMinutes) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("name", displayName(booking.getUser()));
+        model.put("leadTime", formatLeadTime(leadMinutes));
+        model.put("date", booking.getStartTime().format(DATE_FORMATTER));
+        model.put("startTime", booking.getStartTime().format(TIME_FORMATTER));
+        model.put("endTime", booking.getEndTime().format(TIME_FORMATTER));
+        model.put("notes", booking.getNotes());
         
+        return new RenderedEmail(
+            "Laundry Reminder: Your booking starts " + formatLeadTime(leadMinutes) + "!",
+            templates.text("reminder").render(model),
+            templates.html("reminder").render(model)
+        );
+    }
+    
+    // Builds and caches this week's schedule tables ahead of the weekly mail (used by StartupWarmUp)
+    void primeWeeklySchedule(Long householdId, List<Booking> bookings) {
+        weeklyScheduleFragment(householdId, bookings);
+    }
+    
+    public RenderedEmail renderWaitlistPromotion(Booking booking) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("name", displayName(booking.getUser()));
+        model.put("date", booking.getStartTime().format(DATE_FORMATTER));
+        model.put("startTime", booking.getStartTime().format(TIME_FORMATTER));
+        model.put("endTime", booking.getEndTime().format(TIME_FORMATTER));
+        model.put("notes", booking.getNotes());
+        
+        return new RenderedEmail(
+            "Laundry: A slot you were waiting for is now yours",
+            templates.text("waitlist-promoted").render(model),
+            templates.html("waitlist-promoted").render(model)
+        );
+    }
+    
+    private RenderedEmail renderWeeklySchedule(User recipient, ScheduleFragment schedule) {
+        Map<String, Object> textModel = Map.of("name", displayName(recipient), "schedule", schedule.text());
+        Map<String, Object> htmlModel = Map.of("name", displayName(recipient), "schedule", schedule.html());
+        return new RenderedEmail(
+            "Weekly Laundry Schedule",
+            templates.text("weekly-schedule").render(textModel),
+            templates.html("weekly-schedule").render(htmlModel)
+        );
+    }
+    
+    private ScheduleFragment weeklyScheduleFragment(Long householdId, List<Booking> bookings) {
+        ScheduleKey key = new ScheduleKey(householdId, calendarVersion.current(householdId),
+            bookings.stream().map(this::scheduleEntry).toList());
+        return scheduleFragments.get(key, k -> buildScheduleFragment(bookings));
+    }
+    
+    // Series occurrences have no id of their own
+    private String scheduleEntry(Booking booking) {
+        return booking.getId() != null
+            ? booking.getId().toString()
+            : booking.getSeriesId() + "@" + booking.getStartTime();
+    }
+    
+    private ScheduleFragment buildScheduleFragment(List<Booking> bookings) {
         if (bookings.isEmpty()) {
-            email.append("No bookings scheduled for this week.\n");
-        } else {
-            bookings.forEach(booking -> {
-                email.append(String.format("%s - %s: %s %s\n",
-                    booking.getStartTime().format(DATE_FORMATTER),
-                    booking.getStartTime().format(TIME_FORMATTER),
-                    booking.getUser().getFirstName() != null ? booking.getUser().getFirstName() : booking.getUser().getUsername(),
-                    booking.getUser().getLastName() != null ? booking.getUser().getLastName() : ""
-                ));
-                if (booking.getNotes() != null && !booking.getNotes().isEmpty()) {
-                    email.append("  Notes: ").append(booking.getNotes()).append("\n");
-                }
-                email.append("\n");
-            });
+            return new ScheduleFragment(
+                templates.text("weekly-schedule-empty").render(Map.of()),
+                templates.html("weekly-schedule-empty").render(Map.of())
+            );
         }
         
-        email.append("\nHave a great week!\n");
-        return email.toString();
-    }
-    
-    private String buildDailyReminderEmail(Booking booking) {
-        StringBuilder email = new StringBuilder();
-        email.append("Hello ").append(
-            booking.getUser().getFirstName() != null ? 
-            booking.getUser().getFirstName() : 
-            booking.getUser().getUsername()
-        ).append("!\n\n");
-        email.append("This is a reminder that you have a laundry booking today:\n\n");
-        email.append(String.format("Time: %s - %s\n",
-            booking.getStartTime().format(TIME_FORMATTER),
-            booking.getEndTime().format(TIME_FORMATTER)
-        ));
-        if (booking.getNotes() != null && !booking.getNotes().isEmpty()) {
-            email.append("Notes: ").append(booking.getNotes()).append("\n");
+        StringBuilder textRows = new StringBuilder();
+        StringBuilder htmlRows = new StringBuilder();
+        for (Booking booking : bookings) {
+            User user = booking.getUser();
+            Map<String, Object> row = new HashMap<>();
+            row.put("date", booking.getStartTime().format(DATE_FORMATTER));
+            row.put("time", booking.getStartTime().format(TIME_FORMATTER));
+            row.put("person", displayName(user) + (user.getLastName() != null ? " " + user.getLastName() : ""));
+            row.put("notes", booking.getNotes());
+            templates.text("weekly-schedule-row").renderTo(textRows, row);
+            templates.html("weekly-schedule-row").renderTo(htmlRows, row);
+        }
+        return new ScheduleFragment(
+            templates.text("weekly-schedule-table").render(Map.of("rows", textRows)),
+            templates.html("weekly-schedule-table").render(Map.of("rows", htmlRows))
+        );
+    }
+    
+    private String displayName(User user) {
+        return user.getFirstName() != null ? user.getFirstName() : user.getUsername();
+    }
+    
+    private String formatLeadTime(int leadMinutes) {
+        if (leadMinutes % 60 == 0) {
+            int hours = leadMinutes / 60;
+            return hours == 1 ? "in 1 hour" : "in " + hours + " hours";
         }
-        email.append("\nDon't forget!\n");
-        return email.toString();
+        return leadMinutes == 1 ? "in 1 minute" : "in " + leadMinutes + " minutes";
+    }
+    
+    private record ScheduleKey(Long householdId, long calendarVersion, List<String> entries) {
+    }
+    
+    private record ScheduleFragment(String text, String html) {
     }
 }
-
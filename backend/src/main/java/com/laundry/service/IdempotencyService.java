@@ -0,0 +1,225 @@
+package com.laundry.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.laundry.model.IdempotencyRecord;
+import com.laundry.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Runs a mutating request at most once per Idempotency-Key and user, and answers retries with
+// the original response. Executions on this instance are tracked as futures in a Caffeine
+// cache, so a duplicate that arrives while the first is still running waits for its result
+// instead of running again. Finished responses are also written to idempotency_keys, which
+// covers retries after a restart or through another instance.
+@Service
+public class IdempotencyService {
+    
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    @Autowired
+    private IdempotencyRecordRepository repository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // How long a response is replayed for
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+    
+    // How long a duplicate waits for the first execution, and how long a key stays claimed by
+    // an execution that never finished (e.g. its instance died)
+    @Value("${idempotency.in-flight-timeout-seconds:30}")
+    private long inFlightTimeoutSeconds;
+    
+    private Cache<String, CompletableFuture<StoredResponse>> responses;
+    private Counter memoryReplays;
+    private Counter databaseReplays;
+    
+    @PostConstruct
+    void init() {
+        responses = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofHours(ttlHours))
+            .maximumSize(10_000)
+            .build();
+        memoryReplays = Counter.builder("idempotency.replays")
+            .description("Retried requests answered with the stored response")
+            .tag("source", "memory")
+            .register(meterRegistry);
+        databaseReplays = Counter.builder("idempotency.replays")
+            .description("Retried requests answered with the stored response")
+            .tag("source", "database")
+            .register(meterRegistry);
+    }
+    
+    // `endpoint` and `request` identify the request, so a key reused for something else is refused
+    public ResponseEntity<?> execute(Long userId, String idempotencyKey, String endpoint, Object request,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        
+        String key = userId + ":" + idempotencyKey;
+        String requestHash = hash(endpoint, request);
+        
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = responses.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            return replay(await(existing), requestHash, memoryReplays);
+        }
+        
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (repository.tryClaim(key, userId, requestHash, now, now.plusSeconds(inFlightTimeoutSeconds)) == 0) {
+                // Finished earlier (before a restart or on another instance), or running there now
+                IdempotencyRecord record = repository.findById(key).orElse(null);
+                StoredResponse stored = record != null && record.isCompleted() ? StoredResponse.of(record) : null;
+                if (stored == null) {
+                    responses.asMap().remove(key, mine);
+                }
+                mine.complete(stored);
+                return replay(stored, requestHash, databaseReplays);
+            }
+            
+            ResponseEntity<?> result;
+            try {
+                result = action.get();
+            } catch (RuntimeException e) {
+                // Usually the database itself failing; the claim then expires on its own
+                try {
+                    repository.release(key);
+                } catch (RuntimeException releaseFailure) {
+                    e.addSuppressed(releaseFailure);
+                }
+                throw e;
+            }
+            
+            // Only outcomes of the request itself (success, validation, conflict) are stored;
+            // failures of ours throw above or come back as 5xx and are run again on retry
+            StoredResponse response = store(result, requestHash);
+            if (result.getStatusCode().is5xxServerError()) {
+                // Not the caller's fault, so a retry should really run again
+                repository.release(key);
+                responses.asMap().remove(key, mine);
+            } else {
+                repository.complete(key, response.status(), response.contentType(), response.body(),
+                    LocalDateTime.now().plusHours(ttlHours));
+            }
+            mine.complete(response);
+            return result;
+        } catch (RuntimeException e) {
+            responses.asMap().remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    public int purgeExpired() {
+        return repository.deleteExpiredBefore(LocalDateTime.now());
+    }
+    
+    // Null means the first execution hasn't finished within the timeout
+    private StoredResponse await(CompletableFuture<StoredResponse> inFlight) {
+        try {
+            return inFlight.get(inFlightTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            // The first execution failed; the duplicate fails the same way
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+    
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash, Counter replays) {
+        if (stored == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("A request with this " + HEADER + " is still in progress");
+        }
+        if (!stored.requestHash().equals(requestHash)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(HEADER + " was already used for a different request");
+        }
+        replays.increment();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.status())
+            .header(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            builder.header(HttpHeaders.CONTENT_TYPE, stored.contentType());
+        }
+        return builder.body(stored.body());
+    }
+    
+    // Serialized the way the message converters would: strings as text, everything else as JSON
+    private StoredResponse store(ResponseEntity<?> result, String requestHash) {
+        Object body = result.getBody();
+        String contentType = null;
+        String text = null;
+        if (body instanceof String string) {
+            contentType = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8";
+            text = string;
+        } else if (body != null) {
+            contentType = MediaType.APPLICATION_JSON_VALUE;
+            try {
+                text = objectMapper.writeValueAsString(body);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Could not store the response", e);
+            }
+        }
+        return new StoredResponse(result.getStatusCode().value(), contentType, text, requestHash);
+    }
+    
+    private String hash(String endpoint, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(endpoint.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new RuntimeException("Could not fingerprint the request", e);
+        }
+    }
+    
+    private record StoredResponse(int status, String contentType, String body, String requestHash) {
+        static StoredResponse of(IdempotencyRecord record) {
+            return new StoredResponse(record.getStatusCode(), record.getContentType(), record.getBody(),
+                record.getRequestHash());
+        }
+    }
+}
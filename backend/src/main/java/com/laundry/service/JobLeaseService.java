@@ -0,0 +1,82 @@
+package com.laundry.service;
+
+import com.laundry.model.JobLease;
+import com.laundry.repository.JobLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class JobLeaseService {
+    
+    private static final Logger log = LoggerFactory.getLogger(JobLeaseService.class);
+    
+    @Autowired
+    private JobLeaseRepository leaseRepository;
+    
+    private final String nodeId = resolveNodeId();
+    
+    // Runs the job only if this node wins the lease. The lease is kept until it expires, so
+    // replicas whose cron fires a little later skip the run instead of repeating it.
+    public boolean runExclusive(String jobName, Duration lease, Runnable job) {
+        LocalDateTime now = LocalDateTime.now();
+        if (leaseRepository.tryAcquire(jobName, nodeId, now.plus(lease), now) == 0) {
+            log.debug("Skipping {}: lease held by another node", jobName);
+            return false;
+        }
+        
+        try {
+            job.run();
+            leaseRepository.recordFinish(jobName, nodeId, LocalDateTime.now(), "SUCCEEDED", null);
+            return true;
+        } catch (RuntimeException e) {
+            leaseRepository.recordFinish(jobName, nodeId, LocalDateTime.now(), "FAILED", e.getMessage());
+            throw e;
+        }
+    }
+    
+    // For one-off work like a single reminder: the lease is kept after a success so nobody repeats
+    // it, but given back after a failure so the work can be tried again
+    public boolean runOnce(String jobName, Duration lease, Runnable job) {
+        try {
+            return runExclusive(jobName, lease, job);
+        } catch (RuntimeException e) {
+            try {
+                leaseRepository.release(jobName, nodeId, LocalDateTime.now());
+            } catch (RuntimeException releaseFailure) {
+                e.addSuppressed(releaseFailure);
+            }
+            throw e;
+        }
+    }
+    
+    public int purgeExpired(Duration retention) {
+        return leaseRepository.deleteExpiredBefore(LocalDateTime.now().minus(retention));
+    }
+    
+    public List<JobLease> getLeases() {
+        return leaseRepository.findAll(Sort.by("name"));
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    private static String resolveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,38 @@
+package com.laundry.service;
+
+import com.laundry.model.Machine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Serializes booking writes per machine with Postgres transaction-scoped advisory locks, held
+// from before the overlap check until commit. Two requests for the same machine can no longer
+// both pass the check; requests for different machines, or another household's machines,
+// never wait on each other.
+@Component
+public class MachineLocks {
+    
+    // First key of the two-int advisory lock space, so these never collide with other locks
+    private static final int LOCK_NAMESPACE = 0x4C4D; // "LM"
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Always taken in enum order, so a washer+dryer booking can't deadlock with another one
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lock(Long householdId, Set<Machine> machines) {
+        for (Machine machine : EnumSet.copyOf(machines)) {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, ?)", LOCK_NAMESPACE, key(householdId, machine));
+        }
+    }
+    
+    // One key per machine of each household
+    private static int key(Long householdId, Machine machine) {
+        return (int) (householdId * Machine.values().length + machine.ordinal());
+    }
+}
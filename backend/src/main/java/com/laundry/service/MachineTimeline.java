@@ -0,0 +1,80 @@
+package com.laundry.service;
+
+import com.laundry.model.Booking;
+import com.laundry.model.Machine;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Per-machine view of the bookings in a search window, loaded with a single query. Each
+// machine's bookings are sorted by start with a running maximum of end times, so a slot
+// check is one binary search instead of an overlap query per candidate slot.
+class MachineTimeline {
+    
+    private final Map<Machine, LocalDateTime[]> starts = new EnumMap<>(Machine.class);
+    private final Map<Machine, LocalDateTime[]> maxEnds = new EnumMap<>(Machine.class);
+    
+    MachineTimeline(List<Booking> bookings) {
+        for (Machine machine : Machine.values()) {
+            List<Booking> onMachine = new ArrayList<>();
+            for (Booking booking : bookings) {
+                if (booking.uses(machine)) {
+                    onMachine.add(booking);
+                }
+            }
+            onMachine.sort(Comparator.comparing(Booking::getStartTime));
+            
+            LocalDateTime[] machineStarts = new LocalDateTime[onMachine.size()];
+            LocalDateTime[] machineMaxEnds = new LocalDateTime[onMachine.size()];
+            LocalDateTime maxEnd = null;
+            for (int i = 0; i < onMachine.size(); i++) {
+                Booking booking = onMachine.get(i);
+                machineStarts[i] = booking.getStartTime();
+                if (maxEnd == null || booking.getEndTime().isAfter(maxEnd)) {
+                    maxEnd = booking.getEndTime();
+                }
+                machineMaxEnds[i] = maxEnd;
+            }
+            starts.put(machine, machineStarts);
+            maxEnds.put(machine, machineMaxEnds);
+        }
+    }
+    
+    boolean isFree(Set<Machine> machines, LocalDateTime start, LocalDateTime end) {
+        for (Machine machine : machines) {
+            if (!isFree(machine, start, end)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // Some booking overlaps [start, end) iff, among bookings starting before end, the
+    // latest end is after start
+    boolean isFree(Machine machine, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime[] machineStarts = starts.get(machine);
+        int last = lastStartingBefore(machineStarts, end);
+        return last < 0 || !maxEnds.get(machine)[last].isAfter(start);
+    }
+    
+    private static int lastStartingBefore(LocalDateTime[] sortedStarts, LocalDateTime end) {
+        int low = 0;
+        int high = sortedStarts.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (sortedStarts[mid].isBefore(end)) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,250 @@
+package com.laundry.service;
+
+import com.laundry.model.Booking;
+import com.laundry.repository.BookingRepository;
+import com.laundry.util.HashedTimingWheel;
+import com.laundry.util.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+
+@Component
+public class ReminderScheduler {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReminderScheduler.class);
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private EmailService emailService;
+    
+    @Autowired
+    private JobLeaseService jobLeaseService;
+    
+    @Autowired
+    private BookingSeriesService seriesService;
+    
+    @Value("${reminders.lead-times-minutes:60,15}")
+    private int[] leadTimesMinutes;
+    
+    @Value("${reminders.refresh-ms:900000}")
+    private long refreshMs;
+    
+    // How long after a failed send the reminder is tried again
+    @Value("${reminders.retry-delay-ms:60000}")
+    private long retryDelayMs;
+    
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reminder-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final HashedTimingWheel wheel;
+    
+    private final Map<Long, BookingTimers> timeoutsByBooking = new ConcurrentHashMap<>();
+    
+    // Keyed by "seriesId@start"
+    private final Map<String, List<HashedTimingWheel.Timeout>> timeoutsByOccurrence = new ConcurrentHashMap<>();
+    
+    public ReminderScheduler(@Value("${reminders.tick-ms:1000}") long tickMs,
+                             @Value("${reminders.wheel-size:4096}") int wheelSize) {
+        this.wheel = new HashedTimingWheel("reminder-wheel", tickMs, wheelSize, dispatcher);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        refresh();
+        log.info("Scheduled {} reminders", wheel.size());
+    }
+    
+    // Every node arms timers for everything coming up within the horizon from the database, so a
+    // booking written through another node (or one that died since) still gets its reminders here.
+    // When all nodes fire the same reminder, the lease in send() lets exactly one of them queue it.
+    @Scheduled(initialDelayString = "${reminders.refresh-ms:900000}", fixedDelayString = "${reminders.refresh-ms:900000}")
+    public void refresh() {
+        scheduleUpcomingBookings();
+        scheduleSeriesOccurrences();
+    }
+    
+    // Only the next stretch is loaded, so the wheel never holds timers for months of bookings
+    private void scheduleUpcomingBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (Booking booking : bookingRepository.findByStartTimeBetween(now, horizon(now))) {
+                BookingTimers armed = timeoutsByBooking.get(booking.getId());
+                // Moved through another node since it was armed here
+                if (armed == null || !armed.startTime().equals(booking.getStartTime())) {
+                    schedule(booking.getId(), booking.getStartTime());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to schedule reminders for upcoming bookings: {}", e.getMessage());
+        }
+    }
+    
+    // Timers are only touched once the surrounding booking transaction has committed. Other
+    // nodes pick the change up on their next refresh; a stale timer there finds the booking
+    // gone or moved when it fires and sends nothing.
+    public void scheduleAfterCommit(Long bookingId, LocalDateTime startTime) {
+        TransactionHooks.afterCommit(() -> schedule(bookingId, startTime));
+    }
+    
+    public void cancelAfterCommit(Long bookingId) {
+        TransactionHooks.afterCommit(() -> cancel(bookingId));
+    }
+    
+    public void schedule(Long bookingId, LocalDateTime startTime) {
+        cancel(bookingId);
+        
+        List<HashedTimingWheel.Timeout> timeouts = arm(startTime, leadMinutes -> fire(bookingId, startTime, leadMinutes));
+        if (!timeouts.isEmpty()) {
+            timeoutsByBooking.put(bookingId, new BookingTimers(startTime, timeouts));
+        }
+    }
+    
+    public void cancel(Long bookingId) {
+        BookingTimers armed = timeoutsByBooking.remove(bookingId);
+        if (armed != null) {
+            cancelAll(armed.timeouts());
+        }
+    }
+    
+    // Series occurrences are expanded the same way, only up to the refresh horizon
+    public void scheduleSeriesOccurrences() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (Booking occurrence : seriesService.occurrencesOverlapping(null, now, horizon(now))) {
+                String key = occurrenceKey(occurrence.getSeriesId(), occurrence.getStartTime());
+                if (occurrence.getStartTime().isAfter(now) && !timeoutsByOccurrence.containsKey(key)) {
+                    scheduleOccurrence(occurrence.getSeriesId(), occurrence.getStartTime());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to schedule reminders for recurring bookings: {}", e.getMessage());
+        }
+    }
+    
+    public void scheduleSeriesAfterCommit() {
+        TransactionHooks.afterCommit(this::scheduleSeriesOccurrences);
+    }
+    
+    public void cancelSeriesAfterCommit(Long seriesId) {
+        String prefix = seriesId + "@";
+        TransactionHooks.afterCommit(() -> timeoutsByOccurrence.keySet().removeIf(key -> {
+            if (!key.startsWith(prefix)) {
+                return false;
+            }
+            cancelAll(timeoutsByOccurrence.get(key));
+            return true;
+        }));
+    }
+    
+    public void cancelOccurrenceAfterCommit(Long seriesId, LocalDateTime startTime) {
+        TransactionHooks.afterCommit(() -> cancelAll(timeoutsByOccurrence.remove(occurrenceKey(seriesId, startTime))));
+    }
+    
+    private void scheduleOccurrence(Long seriesId, LocalDateTime startTime) {
+        List<HashedTimingWheel.Timeout> timeouts = arm(startTime, leadMinutes -> fireOccurrence(seriesId, startTime, leadMinutes));
+        if (!timeouts.isEmpty()) {
+            timeoutsByOccurrence.put(occurrenceKey(seriesId, startTime), timeouts);
+        }
+    }
+    
+    // A little beyond the longest lead time, and two refreshes ahead so nothing slips between them
+    private LocalDateTime horizon(LocalDateTime now) {
+        int maxLead = 0;
+        for (int leadMinutes : leadTimesMinutes) {
+            maxLead = Math.max(maxLead, leadMinutes);
+        }
+        return now.plusMinutes(maxLead).plus(Duration.ofMillis(2 * refreshMs));
+    }
+    
+    private List<HashedTimingWheel.Timeout> arm(LocalDateTime startTime, IntConsumer fire) {
+        long now = System.currentTimeMillis();
+        long startMs = startTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        List<HashedTimingWheel.Timeout> timeouts = new ArrayList<>(leadTimesMinutes.length);
+        for (int leadMinutes : leadTimesMinutes) {
+            long fireAt = startMs - leadMinutes * 60_000L;
+            if (fireAt > now) {
+                timeouts.add(wheel.schedule(() -> fire.accept(leadMinutes), fireAt));
+            }
+        }
+        return timeouts;
+    }
+    
+    private void cancelAll(List<HashedTimingWheel.Timeout> timeouts) {
+        if (timeouts != null) {
+            timeouts.forEach(HashedTimingWheel.Timeout::cancel);
+        }
+    }
+    
+    private static String occurrenceKey(Long seriesId, LocalDateTime startTime) {
+        return seriesId + "@" + startTime;
+    }
+    
+    public int getPendingCount() {
+        return wheel.size();
+    }
+    
+    private void fire(Long bookingId, LocalDateTime startTime, int leadMinutes) {
+        timeoutsByBooking.computeIfPresent(bookingId, (id, armed) ->
+            armed.timeouts().stream().allMatch(HashedTimingWheel.Timeout::isExpired) ? null : armed);
+        String leaseName = "reminder:" + bookingId + ":" + leadMinutes + ":" + startTime;
+        send(leaseName, startTime, () -> emailService.sendBookingReminder(bookingId, startTime, leadMinutes),
+            () -> fire(bookingId, startTime, leadMinutes));
+    }
+    
+    private void fireOccurrence(Long seriesId, LocalDateTime startTime, int leadMinutes) {
+        String key = occurrenceKey(seriesId, startTime);
+        timeoutsByOccurrence.computeIfPresent(key, (k, timeouts) ->
+            timeouts.stream().allMatch(HashedTimingWheel.Timeout::isExpired) ? null : timeouts);
+        String leaseName = "reminder:series:" + seriesId + ":" + leadMinutes + ":" + startTime;
+        send(leaseName, startTime, () -> emailService.sendSeriesReminder(seriesId, startTime, leadMinutes),
+            () -> fireOccurrence(seriesId, startTime, leadMinutes));
+    }
+    
+    // Every node that armed this reminder fires it at about the same time; the lease lets one of
+    // them queue it. A failed attempt gives the lease back and is retried here until the booking
+    // starts.
+    private void send(String leaseName, LocalDateTime startTime, Runnable queue, Runnable retry) {
+        try {
+            jobLeaseService.runOnce(leaseName, Duration.ofDays(1), queue);
+        } catch (Exception e) {
+            long retryAt = System.currentTimeMillis() + retryDelayMs;
+            if (retryAt < startTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()) {
+                log.warn("Failed to queue {}, retrying in {} ms: {}", leaseName, retryDelayMs, e.getMessage());
+                wheel.schedule(retry, retryAt);
+            } else {
+                log.warn("Failed to queue {}, giving up: {}", leaseName, e.getMessage());
+            }
+        }
+    }
+    
+    private record BookingTimers(LocalDateTime startTime, List<HashedTimingWheel.Timeout> timeouts) {
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        wheel.close();
+        dispatcher.shutdown();
+    }
+}
@@ -1,33 +1,69 @@
 package com.laundry.service;
 
 import com.laundry.model.Booking;
+import com.laundry.model.Household;
+import com.laundry.repository.HouseholdRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.List;
 
 @Component
 public class ScheduledTasks {
     
+    @Autowired
+    private HouseholdRepository householdRepository;
+    
     @Autowired
     private BookingService bookingService;
     
     @Autowired
     private EmailService emailService;
     
-    // Send weekly schedule every Monday at 8 AM
+    @Autowired
+    private JobLeaseService jobLeaseService;
+    
+    @Autowired
+    private BookingPartitionService partitionService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    // Send weekly schedule every Monday at 8 AM, to each household its own
     @Scheduled(cron = "0 0 8 * * MON")
     public void sendWeeklySchedule() {
-        List<Booking> weekBookings = bookingService.getWeekBookings();
-        emailService.sendWeeklySchedule(weekBookings);
+        jobLeaseService.runExclusive("weekly-schedule", Duration.ofHours(1), () -> {
+            for (Household household : householdRepository.findAll()) {
+                List<Booking> weekBookings = bookingService.getWeekBookings(household.getId());
+                emailService.sendWeeklySchedule(household.getId(), weekBookings);
+            }
+        });
+    }
+    
+    // Drop leases that have been expired for a while (mostly one-off reminder leases)
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeExpiredJobLeases() {
+        jobLeaseService.runExclusive("job-lease-purge", Duration.ofHours(1), () ->
+            jobLeaseService.purgeExpired(Duration.ofDays(30)));
     }
     
-    // Send daily reminders every day at 7 AM
-    @Scheduled(cron = "0 0 7 * * *")
-    public void sendDailyReminders() {
-        List<Booking> todayBookings = bookingService.getTodayBookings();
-        todayBookings.forEach(emailService::sendDailyReminder);
+    // Stored responses are only replayed until they expire; drop them after that
+    @Scheduled(cron = "0 0 * * * *")
+    public void purgeExpiredIdempotencyKeys() {
+        jobLeaseService.runExclusive("idempotency-key-purge", Duration.ofMinutes(10), () ->
+            idempotencyService.purgeExpired());
+    }
+    
+    // Keep next months' booking partitions created ahead of time; also on startup, so an
+    // instance that was down over a month boundary doesn't fill the default partition
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 15 3 * * *")
+    public void ensureBookingPartitions() {
+        jobLeaseService.runExclusive("booking-partitions", Duration.ofMinutes(10), () ->
+            partitionService.ensureFuturePartitions());
     }
 }
-
@@ -0,0 +1,11 @@
+package com.laundry.service;
+
+import com.laundry.model.Machine;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// Published when machine time in [startTime, endTime) of a household stops being taken: a
+// booking or occurrence was cancelled, a series deleted or a hold released
+public record SlotFreedEvent(Long householdId, LocalDateTime startTime, LocalDateTime endTime, Set<Machine> machines) {
+}
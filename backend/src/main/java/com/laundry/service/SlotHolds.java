@@ -0,0 +1,209 @@
+package com.laundry.service;
+
+import com.laundry.model.Booking;
+import com.laundry.model.Machine;
+import com.laundry.util.HashedTimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Slots a user is in the middle of booking. Holds live only in this instance's memory and
+// disappear when their timer on the wheel fires, so nothing polls for expired ones. Callers
+// place and take holds while holding the machine locks, which keeps them consistent with
+// bookings being written at the same time. Overlap lookups only walk the household's own holds.
+@Component
+public class SlotHolds {
+    
+    public static final class Hold {
+        private final String id;
+        private final Long householdId;
+        private final Long userId;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+        private final Set<Machine> machines;
+        private final Instant expiresAt;
+        private HashedTimingWheel.Timeout timeout;
+        
+        private Hold(Long householdId, Long userId, LocalDateTime startTime, LocalDateTime endTime,
+                     Set<Machine> machines, Instant expiresAt) {
+            this.id = UUID.randomUUID().toString();
+            this.householdId = householdId;
+            this.userId = userId;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.machines = EnumSet.copyOf(machines);
+            this.expiresAt = expiresAt;
+        }
+        
+        public String getId() {
+            return id;
+        }
+        
+        public Long getHouseholdId() {
+            return householdId;
+        }
+        
+        public Long getUserId() {
+            return userId;
+        }
+        
+        public LocalDateTime getStartTime() {
+            return startTime;
+        }
+        
+        public LocalDateTime getEndTime() {
+            return endTime;
+        }
+        
+        public Set<Machine> getMachines() {
+            return machines;
+        }
+        
+        public Instant getExpiresAt() {
+            return expiresAt;
+        }
+        
+        // Unsaved stand-in so the slot search can treat the hold as a booking
+        Booking asBooking() {
+            Booking booking = new Booking();
+            booking.setHouseholdId(householdId);
+            booking.setStartTime(startTime);
+            booking.setEndTime(endTime);
+            booking.setMachines(machines);
+            return booking;
+        }
+    }
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Hold>> byHousehold = new ConcurrentHashMap<>();
+    private final HashedTimingWheel wheel;
+    private final Duration ttl;
+    private final int maxPerUser;
+    private final Counter expired;
+    
+    public SlotHolds(@Value("${bookings.holds.ttl-seconds:300}") long ttlSeconds,
+                     @Value("${bookings.holds.max-per-user:2}") int maxPerUser,
+                     MeterRegistry meterRegistry) {
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.maxPerUser = maxPerUser;
+        // Expiry only removes a map entry, so it runs right on the wheel thread
+        this.wheel = new HashedTimingWheel("slot-hold-wheel", 1000, 512, Runnable::run);
+        this.expired = Counter.builder("booking.holds.expired")
+            .description("Slot holds that ran out without being confirmed")
+            .register(meterRegistry);
+        Gauge.builder("booking.holds.active", holds, Map::size)
+            .description("Slot holds currently in place")
+            .register(meterRegistry);
+    }
+    
+    // The caller has checked that the slot is free
+    public Hold place(Long householdId, Long userId, LocalDateTime startTime, LocalDateTime endTime,
+                      Set<Machine> machines) {
+        Set<Hold> household = byHousehold.computeIfAbsent(householdId, id -> ConcurrentHashMap.newKeySet());
+        long held = household.stream().filter(hold -> hold.userId.equals(userId)).count();
+        if (held >= maxPerUser) {
+            throw new RuntimeException("You can hold at most " + maxPerUser + " slots at a time");
+        }
+        
+        Hold hold = new Hold(householdId, userId, startTime, endTime, machines, Instant.now().plus(ttl));
+        hold.timeout = wheel.schedule(() -> {
+            if (remove(hold)) {
+                expired.increment();
+                freed(hold);
+            }
+        }, hold.expiresAt.toEpochMilli());
+        holds.put(hold.id, hold);
+        household.add(hold);
+        return hold;
+    }
+    
+    public Hold find(String holdId, Long userId) {
+        Hold hold = holds.get(holdId);
+        if (hold == null || !hold.userId.equals(userId) || !Instant.now().isBefore(hold.expiresAt)) {
+            throw new RuntimeException("Hold not found or expired");
+        }
+        return hold;
+    }
+    
+    // Removes and returns the user's hold, for turning it into a booking
+    public Hold take(String holdId, Long userId) {
+        Hold hold = find(holdId, userId);
+        if (!remove(hold)) {
+            throw new RuntimeException("Hold not found or expired");
+        }
+        hold.timeout.cancel();
+        return hold;
+    }
+    
+    public void release(String holdId, Long userId) {
+        Hold hold = holds.get(holdId);
+        if (hold != null && hold.userId.equals(userId) && remove(hold)) {
+            hold.timeout.cancel();
+            freed(hold);
+        }
+    }
+    
+    private boolean remove(Hold hold) {
+        if (!holds.remove(hold.id, hold)) {
+            return false;
+        }
+        byHousehold.get(hold.householdId).remove(hold);
+        return true;
+    }
+    
+    // Someone may be on the waitlist for a slot that was only held
+    private void freed(Hold hold) {
+        eventPublisher.publishEvent(new SlotFreedEvent(hold.householdId, hold.startTime, hold.endTime, hold.machines));
+    }
+    
+    // Other users' holds in the household overlapping [from, to) as unsaved bookings, ordered by start
+    public List<Booking> overlapping(Long householdId, LocalDateTime from, LocalDateTime to, Long exceptUserId) {
+        List<Booking> overlapping = new ArrayList<>();
+        Instant now = Instant.now();
+        for (Hold hold : byHousehold.getOrDefault(householdId, Set.of())) {
+            if (!hold.userId.equals(exceptUserId) && now.isBefore(hold.expiresAt)
+                    && hold.startTime.isBefore(to) && hold.endTime.isAfter(from)) {
+                overlapping.add(hold.asBooking());
+            }
+        }
+        overlapping.sort(Comparator.comparing(Booking::getStartTime));
+        return overlapping;
+    }
+    
+    public boolean isHeldByOthers(Long householdId, Set<Machine> machines, LocalDateTime start, LocalDateTime end,
+                                  Long userId) {
+        for (Booking held : overlapping(householdId, start, end, userId)) {
+            for (Machine machine : machines) {
+                if (held.uses(machine)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        wheel.close();
+    }
+}
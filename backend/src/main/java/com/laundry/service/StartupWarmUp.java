@@ -0,0 +1,154 @@
+package com.laundry.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laundry.dto.BookingResponse;
+import com.laundry.ha.HomeAssistantService;
+import com.laundry.ha.MachineSnapshotService;
+import com.laundry.model.Booking;
+import com.laundry.model.Household;
+import com.laundry.repository.BookingRepository;
+import com.laundry.repository.HouseholdRepository;
+import com.laundry.repository.UserRepository;
+import com.laundry.security.JwtTokenProvider;
+import com.laundry.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Runs the request hot paths once the context is up. Boot only reports readiness
+// (ACCEPTING_TRAFFIC) after all ApplicationRunners return, so the first real
+// requests no longer pay for JIT, query-plan compilation, pool fill or the first HA fetch.
+@Component
+public class StartupWarmUp implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmUp.class);
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private HouseholdRepository householdRepository;
+    
+    @Autowired
+    private BookingService bookingService;
+    
+    @Autowired
+    private EmailService emailService;
+    
+    @Autowired(required = false)
+    private HomeAssistantService haService;
+    
+    @Autowired
+    private MachineSnapshotService snapshotService;
+    
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${warmup.iterations:5}")
+    private int iterations;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        // A failing step is logged and skipped; warm-up must never keep the app from starting
+        step("booking queries", this::warmBookingQueries);
+        step("machine snapshot", this::warmMachineSnapshot);
+        step("calendar caches", this::warmCalendarCaches);
+        step("jwt", this::warmJwt);
+        log.info("Warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    // Rotates through the first few households so the per-household caches are warm for real
+    // tenants too; every query is household-scoped and bounded like the request paths
+    private void warmBookingQueries() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dayStart = now.withHour(0).withMinute(0).withSecond(0).withNano(0);
+        List<Long> householdIds = warmHouseholds();
+        for (int i = 0; i < iterations; i++) {
+            Long householdId = householdIds.get(i % householdIds.size());
+            bookingRepository.findOverlappingBookings(householdId, now, now.plusHours(1));
+            bookingRepository.findOverlappingWasherBookings(householdId, now, now.plusHours(1));
+            bookingRepository.findOverlappingDryerBookings(householdId, now, now.plusHours(1));
+            bookingRepository.findTodayBookings(householdId, now, dayStart.plusDays(1));
+            bookingRepository.findWeekBookings(householdId, dayStart, dayStart.plusWeeks(1));
+            userRepository.count();
+            // Same default window as GET /bookings
+            List<BookingResponse> month = bookingService.getBookings(householdId, dayStart, dayStart.plusMonths(1));
+            objectMapper.writeValueAsBytes(month);
+        }
+    }
+    
+    // With a saved snapshot the UI is served from it while the scheduler refreshes in the
+    // background; only a first start without one waits for HA here
+    private void warmMachineSnapshot() {
+        Long householdId = Household.DEFAULT_ID;
+        if (haService == null || !haService.isEnabled(householdId) || snapshotService.current(householdId) != null) {
+            return;
+        }
+        snapshotService.refresh(householdId);
+    }
+    
+    private void warmCalendarCaches() {
+        for (Long householdId : warmHouseholds()) {
+            List<Booking> weekBookings = bookingService.getWeekBookings(householdId);
+            emailService.primeWeeklySchedule(householdId, weekBookings);
+        }
+    }
+    
+    private List<Long> warmHouseholds() {
+        List<Long> ids = householdRepository.findAll(PageRequest.of(0, Math.max(iterations, 1), Sort.by("id")))
+            .map(Household::getId)
+            .getContent();
+        return ids.isEmpty() ? List.of(Household.DEFAULT_ID) : ids;
+    }
+    
+    private void warmJwt() {
+        UserPrincipal principal =
+            new UserPrincipal(0L, Household.DEFAULT_ID, "warmup", "warmup@localhost", "", false, false);
+        UsernamePasswordAuthenticationToken authentication =
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        for (int i = 0; i < iterations; i++) {
+            String token = tokenProvider.generateToken(authentication);
+            Claims claims = tokenProvider.parseToken(token);
+            tokenProvider.getUserId(claims);
+            tokenProvider.getHouseholdId(claims);
+        }
+    }
+    
+    private void step(String name, WarmUpStep step) {
+        long start = System.nanoTime();
+        try {
+            step.run();
+            log.debug("Warm-up step '{}' took {} ms", name, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Warm-up step '{}' failed: {}", name, e.getMessage());
+        }
+    }
+    
+    private interface WarmUpStep {
+        void run() throws Exception;
+    }
+}
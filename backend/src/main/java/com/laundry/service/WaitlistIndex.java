@@ -0,0 +1,102 @@
+package com.laundry.service;
+
+import com.laundry.model.Machine;
+import com.laundry.model.WaitlistEntry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// In-memory copy of the pending waitlist, one queue per household, ordered by window start and
+// then queue position. A freed slot finds the entries it might satisfy with one range lookup in
+// its household's queue, however long the waitlists are; the database stays the source of truth
+// and is reloaded periodically.
+@Component
+public class WaitlistIndex {
+    
+    public record Waiting(Long id, Long householdId, Long userId, LocalDateTime startTime, LocalDateTime endTime,
+                          Set<Machine> machines) {
+        
+        static Waiting of(WaitlistEntry entry) {
+            return new Waiting(entry.getId(), entry.getHouseholdId(), entry.getUser().getId(), entry.getStartTime(),
+                entry.getEndTime(), entry.getMachines());
+        }
+    }
+    
+    private static final Comparator<Waiting> BY_WINDOW = Comparator
+        .comparing(Waiting::startTime)
+        .thenComparing(Waiting::id);
+    
+    private static final class Queue {
+        private final NavigableSet<Waiting> byWindow = new ConcurrentSkipListSet<>(BY_WINDOW);
+        
+        // Longest window ever indexed; bounds how far before a freed slot a matching window can start
+        private volatile long maxWindowMinutes;
+        
+        void add(Waiting waiting) {
+            byWindow.add(waiting);
+            maxWindowMinutes = Math.max(maxWindowMinutes,
+                Duration.between(waiting.startTime(), waiting.endTime()).toMinutes());
+        }
+    }
+    
+    private volatile Map<Long, Queue> queues = new ConcurrentHashMap<>();
+    private final Map<Long, Waiting> byId = new ConcurrentHashMap<>();
+    
+    public void add(Waiting waiting) {
+        byId.put(waiting.id(), waiting);
+        queues.computeIfAbsent(waiting.householdId(), id -> new Queue()).add(waiting);
+    }
+    
+    public void remove(Long id) {
+        Waiting waiting = byId.remove(id);
+        if (waiting != null) {
+            Queue queue = queues.get(waiting.householdId());
+            if (queue != null) {
+                queue.byWindow.remove(waiting);
+            }
+        }
+    }
+    
+    public void replaceAll(Collection<Waiting> pending) {
+        Map<Long, Queue> rebuilt = new ConcurrentHashMap<>();
+        for (Waiting waiting : pending) {
+            rebuilt.computeIfAbsent(waiting.householdId(), id -> new Queue()).add(waiting);
+        }
+        byId.clear();
+        pending.forEach(waiting -> byId.put(waiting.id(), waiting));
+        queues = rebuilt;
+    }
+    
+    // Entries of the household whose window overlaps [start, end) on a shared machine, longest
+    // waiting first
+    public List<Waiting> candidates(Long householdId, LocalDateTime start, LocalDateTime end, Set<Machine> machines) {
+        Queue queue = queues.get(householdId);
+        if (queue == null) {
+            return List.of();
+        }
+        Waiting from = new Waiting(Long.MIN_VALUE, null, null, start.minusMinutes(queue.maxWindowMinutes), null, null);
+        Waiting to = new Waiting(Long.MIN_VALUE, null, null, end, null, null);
+        List<Waiting> candidates = new ArrayList<>();
+        for (Waiting waiting : queue.byWindow.subSet(from, true, to, false)) {
+            if (waiting.endTime().isAfter(start) && waiting.machines().stream().anyMatch(machines::contains)) {
+                candidates.add(waiting);
+            }
+        }
+        candidates.sort(Comparator.comparing(Waiting::id));
+        return candidates;
+    }
+    
+    public int size() {
+        return byId.size();
+    }
+}
@@ -0,0 +1,172 @@
+package com.laundry.service;
+
+import com.laundry.dto.BookingRequest;
+import com.laundry.dto.BookingResponse;
+import com.laundry.dto.WaitlistEntryResponse;
+import com.laundry.model.Machine;
+import com.laundry.model.User;
+import com.laundry.model.WaitlistEntry;
+import com.laundry.repository.UserRepository;
+import com.laundry.repository.WaitlistEntryRepository;
+import com.laundry.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class WaitlistService {
+    
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+    
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private BookingService bookingService;
+    
+    @Autowired
+    private WaitlistIndex index;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${waitlist.max-per-user:5}")
+    private int maxPerUser;
+    
+    private Counter promotions;
+    
+    @PostConstruct
+    void registerMetrics() {
+        promotions = Counter.builder("waitlist.promotions")
+            .description("Waitlist entries turned into bookings after a cancellation")
+            .register(meterRegistry);
+        Gauge.builder("waitlist.pending", index, WaitlistIndex::size)
+            .description("Waitlist entries in this instance's index")
+            .register(meterRegistry);
+    }
+    
+    @Transactional
+    public WaitlistEntryResponse join(Long userId, BookingRequest request) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        Set<Machine> machines = request.getMachines() != null ? request.getMachines() : Machine.all();
+        if (machines.isEmpty()) {
+            throw new RuntimeException("A booking needs at least one machine");
+        }
+        if (!request.getEndTime().isAfter(request.getStartTime())) {
+            throw new RuntimeException("End time must be after start time");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!request.getStartTime().isAfter(now)) {
+            throw new RuntimeException("Can't wait for a slot in the past");
+        }
+        if (waitlistRepository.countByUserIdAndEndTimeAfter(userId, now) >= maxPerUser) {
+            throw new RuntimeException("You can wait for at most " + maxPerUser + " slots at a time");
+        }
+        if (bookingService.isSlotFree(user.getHouseholdId(), machines, request.getStartTime(), request.getEndTime(),
+                userId)) {
+            throw new RuntimeException("That slot is free, book it directly");
+        }
+        
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setUser(user);
+        entry.setHouseholdId(user.getHouseholdId());
+        entry.setStartTime(request.getStartTime());
+        entry.setEndTime(request.getEndTime());
+        entry.setMachines(machines);
+        entry.setNotes(request.getNotes());
+        entry = waitlistRepository.save(entry);
+        
+        WaitlistIndex.Waiting waiting = WaitlistIndex.Waiting.of(entry);
+        TransactionHooks.afterCommit(() -> index.add(waiting));
+        return convertToResponse(entry);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryResponse> getUserEntries(Long userId) {
+        return waitlistRepository.findByUserId(userId).stream()
+            .map(this::convertToResponse)
+            .collect(Collectors.toList());
+    }
+    
+    @Transactional
+    public void leave(Long entryId, Long userId) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+            .orElseThrow(() -> new RuntimeException("Waitlist entry not found"));
+        
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        if (!entry.getUser().getId().equals(userId)
+                && !(user.isAdmin() && user.getHouseholdId().equals(entry.getHouseholdId()))) {
+            throw new RuntimeException("Not authorized to remove this waitlist entry");
+        }
+        
+        waitlistRepository.delete(entry);
+        TransactionHooks.afterCommit(() -> index.remove(entryId));
+    }
+    
+    // Runs on the task executor once the cancelling transaction has committed, so deleting a
+    // booking costs the same whether or not anyone is waiting. Candidates come from the index
+    // in queue order; each promotion re-checks the slot under the machine locks, so a window
+    // that is still partly taken stays on the list.
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotFreed(SlotFreedEvent event) {
+        for (WaitlistIndex.Waiting waiting : index.candidates(event.householdId(), event.startTime(), event.endTime(),
+                event.machines())) {
+            try {
+                BookingResponse booking = bookingService.promoteFromWaitlist(waiting.id());
+                if (booking != null) {
+                    index.remove(waiting.id());
+                    promotions.increment();
+                    log.info("Promoted waitlist entry {} to booking {}", waiting.id(), booking.getId());
+                }
+            } catch (Exception e) {
+                log.warn("Failed to promote waitlist entry {}: {}", waiting.id(), e.getMessage());
+            }
+        }
+    }
+    
+    // Drops entries whose window has passed and reloads the index, which also picks up entries
+    // added or promoted through other instances
+    @Scheduled(initialDelay = 0, fixedDelayString = "${waitlist.refresh-ms:60000}")
+    @Transactional
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        waitlistRepository.deleteExpired(now);
+        index.replaceAll(waitlistRepository.findPending(now).stream()
+            .map(WaitlistIndex.Waiting::of)
+            .toList());
+    }
+    
+    private WaitlistEntryResponse convertToResponse(WaitlistEntry entry) {
+        WaitlistEntryResponse response = new WaitlistEntryResponse();
+        response.setId(entry.getId());
+        response.setStartTime(entry.getStartTime());
+        response.setEndTime(entry.getEndTime());
+        response.setMachines(entry.getMachines());
+        response.setNotes(entry.getNotes());
+        response.setCreatedAt(entry.getCreatedAt());
+        return response;
+    }
+}
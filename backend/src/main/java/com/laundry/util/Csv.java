@@ -0,0 +1,125 @@
+package com.laundry.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+public final class Csv {
+    
+    private Csv() {
+    }
+    
+    // One RFC 4180 line including the trailing CRLF; null values become empty fields
+    public static String row(Object... values) {
+        StringJoiner line = new StringJoiner(",", "", "\r\n");
+        for (Object value : values) {
+            line.add(escape(value == null ? "" : value.toString()));
+        }
+        return line.toString();
+    }
+    
+    public static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    
+    // Reads RFC 4180 records one at a time, so a file of any size is parsed in constant memory.
+    // Accepts CRLF or bare LF line endings and quoted fields spanning several lines.
+    public static final class Reader implements Closeable {
+        
+        private final java.io.Reader in;
+        private int line = 1;
+        private int recordLine;
+        private int pending = -2;
+        
+        public Reader(java.io.Reader in) {
+            this.in = in;
+        }
+        
+        // The next record's fields, or null at the end of the input. Blank lines are skipped.
+        public List<String> next() throws IOException {
+            int c = read();
+            while (c == '\r' || c == '\n') {
+                c = read();
+            }
+            if (c < 0) {
+                return null;
+            }
+            recordLine = line;
+            
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean afterQuote = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) {
+                        throw new IOException("Line " + recordLine + ": unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            afterQuote = true;
+                            c = following;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c < 0 || c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            pending = following;
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    afterQuote = false;
+                } else if (c == '"' && field.length() == 0 && !afterQuote) {
+                    quoted = true;
+                } else if (afterQuote) {
+                    throw new IOException("Line " + line + ": unexpected text after a closing quote");
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+        
+        // Line number the last record returned by next() started on, from 1
+        public int getRecordLine() {
+            return recordLine;
+        }
+        
+        private int read() throws IOException {
+            int c;
+            if (pending != -2) {
+                c = pending;
+                pending = -2;
+                return c;
+            }
+            c = in.read();
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.laundry.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hashed timing wheel (Varghese & Lauck): scheduling and cancelling are O(1) and each tick
+// only visits the one bucket that is due. Deadlines more than one revolution away stay in
+// their bucket with a remaining-rounds counter.
+public class HashedTimingWheel implements AutoCloseable {
+    
+    public interface Timeout {
+        boolean cancel();
+        
+        boolean isCancelled();
+        
+        boolean isExpired();
+    }
+    
+    private final long tickMs;
+    private final int mask;
+    private final List<List<Entry>> buckets;
+    private final Queue<Entry> pendingEntries = new ConcurrentLinkedQueue<>();
+    private final Executor taskExecutor;
+    private final AtomicInteger size = new AtomicInteger();
+    private final Thread worker;
+    private final long startMs;
+    private volatile boolean running = true;
+    private long tick;
+    
+    public HashedTimingWheel(String name, long tickMs, int wheelSize, Executor taskExecutor) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        this.tickMs = tickMs;
+        this.mask = wheelSize - 1;
+        this.taskExecutor = taskExecutor;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.startMs = System.currentTimeMillis();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+    
+    public Timeout schedule(Runnable task, long deadlineEpochMs) {
+        Entry entry = new Entry(task, deadlineEpochMs);
+        size.incrementAndGet();
+        pendingEntries.add(entry);
+        return entry;
+    }
+    
+    public int size() {
+        return size.get();
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+    
+    private void run() {
+        while (running) {
+            long nextTickAt = startMs + (tick + 1) * tickMs;
+            long sleepMs = nextTickAt - System.currentTimeMillis();
+            if (sleepMs > 0) {
+                try {
+                    Thread.sleep(sleepMs);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            transferPending();
+            expireBucket(buckets.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+    
+    // Only the worker thread touches the buckets, so they need no locking
+    private void transferPending() {
+        Entry entry;
+        while ((entry = pendingEntries.poll()) != null) {
+            if (entry.isCancelled()) {
+                continue;
+            }
+            long dueTick = Math.max((entry.deadlineMs - startMs) / tickMs, tick);
+            entry.remainingRounds = (dueTick - tick) / buckets.size();
+            buckets.get((int) (dueTick & mask)).add(entry);
+        }
+    }
+    
+    private void expireBucket(List<Entry> bucket) {
+        Iterator<Entry> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.isCancelled()) {
+                iterator.remove();
+            } else if (entry.remainingRounds <= 0) {
+                iterator.remove();
+                if (entry.state.compareAndSet(false, true)) {
+                    entry.expired = true;
+                    size.decrementAndGet();
+                    taskExecutor.execute(entry.task);
+                }
+            } else {
+                entry.remainingRounds--;
+            }
+        }
+    }
+    
+    private class Entry implements Timeout {
+        private final Runnable task;
+        private final long deadlineMs;
+        private final AtomicBoolean state = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile boolean expired;
+        private long remainingRounds;
+        
+        private Entry(Runnable task, long deadlineMs) {
+            this.task = task;
+            this.deadlineMs = deadlineMs;
+        }
+        
+        // Cancelled entries are unlinked lazily the next time their bucket is visited
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(false, true)) {
+                return false;
+            }
+            cancelled = true;
+            size.decrementAndGet();
+            return true;
+        }
+        
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+        
+        @Override
+        public boolean isExpired() {
+            return expired;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.laundry.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+// Just enough RFC 5545 to publish events: content lines folded at 75 octets with CRLF,
+// TEXT values escaped, and date-times either floating (wall-clock) or UTC
+public final class Ics {
+    
+    private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+        .withZone(ZoneOffset.UTC);
+    private static final int MAX_LINE_OCTETS = 75;
+    
+    private Ics() {
+    }
+    
+    // One content line including the trailing CRLF; `value` must already be escaped if it is TEXT
+    public static String line(String name, String value) {
+        return fold(name + ":" + value);
+    }
+    
+    public static String text(String value) {
+        return value.replace("\\", "\\\\")
+            .replace(";", "\\;")
+            .replace(",", "\\,")
+            .replace("\r\n", "\\n")
+            .replace("\n", "\\n")
+            .replace("\r", "\\n");
+    }
+    
+    // Floating time: the same wall-clock time wherever the calendar app is
+    public static String localTime(LocalDateTime time) {
+        return time.format(LOCAL);
+    }
+    
+    public static String utcTime(Instant time) {
+        return UTC.format(time);
+    }
+    
+    // Continuation lines start with a space; splits never land inside a UTF-8 sequence
+    private static String fold(String line) {
+        StringBuilder folded = new StringBuilder(line.length() + 8);
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > MAX_LINE_OCTETS) {
+                folded.append("\r\n ");
+                octets = 1;
+            }
+            folded.appendCodePoint(codePoint);
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        return folded.append("\r\n").toString();
+    }
+}
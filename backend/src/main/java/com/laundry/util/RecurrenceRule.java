@@ -0,0 +1,281 @@
+package com.laundry.util;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+
+// The subset of RFC 5545 RRULE a laundry rota needs: FREQ=DAILY|WEEKLY with INTERVAL,
+// BYDAY (weekly only, weeks start on Monday) and an optional COUNT or UNTIL. The first
+// occurrence is always dtstart itself and every occurrence starts at dtstart's time of day.
+//
+// Occurrences are computed arithmetically from their period index, so listing the ones in a
+// range costs O(range / period) no matter how far the range is from dtstart, and the nth
+// occurrence (for COUNT) is O(1).
+public final class RecurrenceRule {
+    
+    public enum Frequency { DAILY, WEEKLY }
+    
+    public static final int MAX_INTERVAL = 52;
+    
+    private static final DateTimeFormatter UNTIL_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final String[] DAY_CODES = { "MO", "TU", "WE", "TH", "FR", "SA", "SU" };
+    
+    private final Frequency frequency;
+    private final int interval;
+    // Day offsets from Monday (0..6), ascending; WEEKLY only
+    private final int[] weekDays;
+    private final Integer count;
+    private final LocalDateTime until;
+    
+    private final LocalDateTime dtstart;
+    private final LocalDate anchor;
+    private final LocalTime time;
+    private final LocalDateTime lastStart;
+    
+    private RecurrenceRule(Frequency frequency, int interval, int[] weekDays, Integer count,
+                           LocalDateTime until, LocalDateTime dtstart) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.weekDays = weekDays;
+        this.count = count;
+        this.until = until;
+        this.dtstart = dtstart;
+        this.anchor = frequency == Frequency.WEEKLY
+            ? dtstart.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+            : dtstart.toLocalDate();
+        this.time = dtstart.toLocalTime();
+        this.lastStart = computeLastStart();
+    }
+    
+    // e.g. "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH;COUNT=10" (a leading "RRULE:" is accepted)
+    public static RecurrenceRule parse(String rrule, LocalDateTime dtstart) {
+        if (rrule == null || rrule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule is required");
+        }
+        String text = rrule.trim().toUpperCase(Locale.ROOT);
+        if (text.startsWith("RRULE:")) {
+            text = text.substring("RRULE:".length());
+        }
+        
+        Frequency frequency = null;
+        int interval = 1;
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        Integer count = null;
+        LocalDateTime until = null;
+        for (String part : text.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Malformed recurrence rule part: " + part);
+            }
+            String name = part.substring(0, eq);
+            String value = part.substring(eq + 1);
+            switch (name) {
+                case "FREQ" -> {
+                    try {
+                        frequency = Frequency.valueOf(value);
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Only DAILY and WEEKLY recurrences are supported");
+                    }
+                }
+                case "INTERVAL" -> interval = parsePositive(name, value);
+                case "COUNT" -> count = parsePositive(name, value);
+                case "UNTIL" -> until = parseUntil(value);
+                case "BYDAY" -> {
+                    for (String code : value.split(",")) {
+                        days.add(parseDay(code));
+                    }
+                }
+                case "WKST" -> {
+                    if (!"MO".equals(value)) {
+                        throw new IllegalArgumentException("Only WKST=MO is supported");
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + name);
+            }
+        }
+        
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule needs FREQ");
+        }
+        if (interval > MAX_INTERVAL) {
+            throw new IllegalArgumentException("INTERVAL must be at most " + MAX_INTERVAL);
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("COUNT and UNTIL can't be combined");
+        }
+        if (until != null && until.isBefore(dtstart)) {
+            throw new IllegalArgumentException("UNTIL is before the first occurrence");
+        }
+        
+        int[] weekDays = new int[0];
+        if (frequency == Frequency.WEEKLY) {
+            if (days.isEmpty()) {
+                days.add(dtstart.getDayOfWeek());
+            } else if (!days.contains(dtstart.getDayOfWeek())) {
+                throw new IllegalArgumentException("The first occurrence must fall on one of the BYDAY days");
+            }
+            weekDays = days.stream().mapToInt(day -> day.getValue() - 1).sorted().toArray();
+        } else if (!days.isEmpty()) {
+            throw new IllegalArgumentException("BYDAY is only supported with FREQ=WEEKLY");
+        }
+        return new RecurrenceRule(frequency, interval, weekDays, count, until, dtstart);
+    }
+    
+    // Start of the last occurrence, or null when the rule never ends
+    public LocalDateTime getLastStart() {
+        return lastStart;
+    }
+    
+    // Length of one repetition of the pattern
+    public int getPeriodDays() {
+        return frequency == Frequency.WEEKLY ? 7 * interval : interval;
+    }
+    
+    public LocalDateTime getDtstart() {
+        return dtstart;
+    }
+    
+    public boolean isOccurrence(LocalDateTime start) {
+        return !between(start, start.plusNanos(1)).isEmpty();
+    }
+    
+    // Starts of the occurrences lasting `duration` that overlap [from, to), in order
+    public List<LocalDateTime> overlapping(LocalDateTime from, LocalDateTime to, Duration duration) {
+        return between(from.minus(duration).plusNanos(1), to);
+    }
+    
+    // Starts s with from <= s < to, in order
+    public List<LocalDateTime> between(LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        if (!to.isAfter(dtstart) || (lastStart != null && from.isAfter(lastStart))) {
+            return starts;
+        }
+        
+        int periodDays = getPeriodDays();
+        long firstPeriod = Math.max(0, Math.floorDiv(ChronoUnit.DAYS.between(anchor, from.toLocalDate()), periodDays));
+        for (long period = firstPeriod; ; period++) {
+            LocalDate periodStart = anchor.plusDays(period * periodDays);
+            if (!periodStart.atTime(time).isBefore(to)) {
+                break;
+            }
+            if (frequency == Frequency.DAILY) {
+                if (!add(starts, periodStart.atTime(time), from, to)) {
+                    break;
+                }
+                continue;
+            }
+            for (int day : weekDays) {
+                if (!add(starts, periodStart.plusDays(day).atTime(time), from, to)) {
+                    return starts;
+                }
+            }
+        }
+        return starts;
+    }
+    
+    // Adds the candidate if it is an occurrence inside [from, to); false once past the end
+    private boolean add(List<LocalDateTime> starts, LocalDateTime candidate, LocalDateTime from, LocalDateTime to) {
+        if (!candidate.isBefore(to) || (lastStart != null && candidate.isAfter(lastStart))) {
+            return false;
+        }
+        if (!candidate.isBefore(from) && !candidate.isBefore(dtstart)) {
+            starts.add(candidate);
+        }
+        return true;
+    }
+    
+    private LocalDateTime computeLastStart() {
+        if (count != null) {
+            return nth(count - 1);
+        }
+        if (until != null) {
+            // lastStart is still null here, so between() is not cut off yet
+            List<LocalDateTime> tail = between(until.minusDays(getPeriodDays() + 1), until.plusNanos(1));
+            return tail.isEmpty() ? dtstart : tail.get(tail.size() - 1);
+        }
+        return null;
+    }
+    
+    // Zero-based; the first week only counts the BYDAY days from dtstart's day onwards
+    private LocalDateTime nth(long n) {
+        if (frequency == Frequency.DAILY) {
+            return dtstart.plusDays(n * interval);
+        }
+        int firstDay = dtstart.getDayOfWeek().getValue() - 1;
+        int skipped = 0;
+        while (weekDays[skipped] < firstDay) {
+            skipped++;
+        }
+        long index = n + skipped;
+        long week = index / weekDays.length;
+        int day = weekDays[(int) (index % weekDays.length)];
+        return anchor.plusDays(week * 7 * interval + day).atTime(time);
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency);
+        if (interval != 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (frequency == Frequency.WEEKLY) {
+            StringJoiner days = new StringJoiner(",");
+            for (int day : weekDays) {
+                days.add(DAY_CODES[day]);
+            }
+            rule.append(";BYDAY=").append(days);
+        }
+        if (count != null) {
+            rule.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(until.format(UNTIL_FORMAT));
+        }
+        return rule.toString();
+    }
+    
+    private static int parsePositive(String name, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException(name + " must be a positive number");
+    }
+    
+    // Floating local time (yyyyMMddTHHmmss) or a bare date meaning the end of that day
+    private static LocalDateTime parseUntil(String value) {
+        try {
+            if (value.length() == 8) {
+                return LocalDate.parse(value, DateTimeFormatter.BASIC_ISO_DATE).atTime(LocalTime.MAX);
+            }
+            return LocalDateTime.parse(value.endsWith("Z") ? value.substring(0, value.length() - 1) : value, UNTIL_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("UNTIL must look like 20270101 or 20270101T000000");
+        }
+    }
+    
+    private static DayOfWeek parseDay(String code) {
+        for (int i = 0; i < DAY_CODES.length; i++) {
+            if (DAY_CODES[i].equals(code)) {
+                return DayOfWeek.of(i + 1);
+            }
+        }
+        throw new IllegalArgumentException("Unknown BYDAY value: " + code);
+    }
+}
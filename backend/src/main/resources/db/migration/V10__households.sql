@@ -0,0 +1,50 @@
+-- Households: one backend serves several laundry rooms, each with its own users, bookings and
+-- machines. Everything that existed before belongs to the 'default' household (id 1).
+-- Usernames and emails stay unique across households, since sign-in doesn't name one.
+create table households (
+    id bigserial not null,
+    slug varchar(64) not null,
+    name varchar(255) not null,
+    created_at timestamp(6) default localtimestamp,
+    primary key (id),
+    constraint uk_households_slug unique (slug)
+);
+
+insert into households (id, slug, name) values (1, 'default', 'Home');
+select setval('households_id_seq', 1);
+
+alter table users add column household_id bigint not null default 1;
+alter table users alter column household_id drop default;
+alter table users add constraint fk_users_household foreign key (household_id) references households (id);
+create index idx_users_household on users (household_id);
+
+-- Copied from the user when the booking is made; every overlap and calendar query filters on it
+alter table bookings add column household_id bigint not null default 1;
+alter table bookings alter column household_id drop default;
+alter table bookings add constraint fk_bookings_household foreign key (household_id) references households (id);
+
+-- The range indexes lead with the household, so one household's checks never scan another's rows
+drop index idx_bookings_start_end;
+drop index idx_bookings_washer_start_end;
+drop index idx_bookings_dryer_start_end;
+create index idx_bookings_household_start_end on bookings (household_id, start_time, end_time);
+create index idx_bookings_household_washer_start_end on bookings (household_id, start_time, end_time) where uses_washer;
+create index idx_bookings_household_dryer_start_end on bookings (household_id, start_time, end_time) where uses_dryer;
+
+alter table booking_series add column household_id bigint not null default 1;
+alter table booking_series alter column household_id drop default;
+alter table booking_series add constraint fk_booking_series_household foreign key (household_id) references households (id);
+drop index idx_booking_series_active;
+create index idx_booking_series_household_active on booking_series (household_id, start_time, last_end);
+
+alter table waitlist_entries add column household_id bigint not null default 1;
+alter table waitlist_entries alter column household_id drop default;
+alter table waitlist_entries add constraint fk_waitlist_entries_household foreign key (household_id) references households (id);
+drop index idx_waitlist_entries_start;
+create index idx_waitlist_entries_household_start on waitlist_entries (household_id, start_time);
+
+-- No foreign key, like user_id: the archive outlives what it points at
+alter table bookings_archive add column household_id bigint not null default 1;
+alter table bookings_archive alter column household_id drop default;
+drop index idx_bookings_archive_start;
+create index idx_bookings_archive_household_start on bookings_archive (household_id, start_time);
@@ -0,0 +1,5 @@
+-- Version of each household's booking calendar, bumped right after every booking change commits.
+-- Cached feeds and schedule emails are keyed by it, so every instance sees a change made through
+-- any other one.
+alter table households add column calendar_version bigint not null default 1;
+alter table households add column calendar_modified_at timestamp(6) not null default localtimestamp;
@@ -0,0 +1,60 @@
+-- Schema as Hibernate generated it while ddl-auto=update managed the database.
+-- Existing databases are baselined at this version and skip it (spring.flyway.baseline-on-migrate).
+
+create table users (
+    is_admin boolean not null,
+    is_blocked boolean not null,
+    blocked_until timestamp(6),
+    created_at timestamp(6),
+    id bigserial not null,
+    updated_at timestamp(6),
+    block_reason varchar(255),
+    email varchar(255) unique,
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255),
+    username varchar(255) unique,
+    primary key (id)
+);
+
+create table bookings (
+    created_at timestamp(6),
+    end_time timestamp(6) not null,
+    id bigserial not null,
+    start_time timestamp(6) not null,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    notes varchar(255),
+    primary key (id)
+);
+
+alter table if exists bookings
+    add constraint FKeyog2oic85xg7hsu2je2lx3s6 foreign key (user_id) references users;
+
+create table email_outbox (
+    attempts integer not null,
+    created_at timestamp(6),
+    id bigserial not null,
+    next_attempt_at timestamp(6) not null,
+    sent_at timestamp(6),
+    status varchar(16) not null check (status in ('PENDING','SENDING','SENT','FAILED')),
+    body TEXT not null,
+    html_body TEXT,
+    last_error TEXT,
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    primary key (id)
+);
+
+create index idx_email_outbox_due on email_outbox (status, next_attempt_at);
+
+create table job_leases (
+    last_finished_at timestamp(6),
+    last_started_at timestamp(6),
+    lease_until timestamp(6) not null,
+    last_status varchar(16),
+    name varchar(128) not null,
+    last_error TEXT,
+    owner varchar(255) not null,
+    primary key (name)
+);
@@ -0,0 +1,114 @@
+-- Bookings become a table range-partitioned by month on start_time. Old months can then be
+-- detached (and archived or dropped) as a whole instead of being deleted row by row, and the
+-- overlap / per-user queries only touch the partitions their time range covers.
+--
+-- Postgres requires the partition key in every unique constraint, so the primary key becomes
+-- (id, start_time). Ids still come from the same sequence and stay unique on their own.
+
+alter table bookings rename to bookings_unpartitioned;
+alter table bookings_unpartitioned rename constraint bookings_pkey to bookings_unpartitioned_pkey;
+alter sequence bookings_id_seq owned by none;
+
+create table bookings (
+    created_at timestamp(6),
+    end_time timestamp(6) not null,
+    id bigint not null default nextval('bookings_id_seq'),
+    start_time timestamp(6) not null,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    notes varchar(255),
+    constraint bookings_pkey primary key (id, start_time),
+    constraint fk_bookings_user foreign key (user_id) references users (id)
+) partition by range (start_time);
+
+-- Catches anything outside the monthly partitions (far-future bookings, a missed maintenance run)
+create table bookings_default partition of bookings default;
+
+-- Overlap checks and calendar ranges: start_time < :end and end_time > :start
+create index idx_bookings_start_end on bookings (start_time, end_time);
+-- "My bookings" and per-user upcoming lookups
+create index idx_bookings_user_start on bookings (user_id, start_time);
+
+-- Creates bookings_YYYY_MM for the month containing the given date. Rows for that month that
+-- already sit in the default partition are moved over first, otherwise the attach would fail.
+create or replace function create_booking_partition(any_day date) returns boolean
+language plpgsql as $$
+declare
+    from_ts timestamp := date_trunc('month', any_day);
+    to_ts timestamp := from_ts + interval '1 month';
+    part text := 'bookings_' || to_char(from_ts, 'YYYY_MM');
+begin
+    if to_regclass(part) is not null then
+        return false;
+    end if;
+    execute format('create table %I (like bookings including defaults including constraints)', part);
+    execute format('with moved as (delete from bookings_default where start_time >= $1 and start_time < $2 returning *) '
+                   || 'insert into %I select * from moved', part) using from_ts, to_ts;
+    execute format('alter table bookings attach partition %I for values from (%L) to (%L)', part, from_ts, to_ts);
+    return true;
+end $$;
+
+-- Makes sure partitions exist from the current month up to months_ahead months out
+create or replace function ensure_booking_partitions(months_ahead integer) returns integer
+language plpgsql as $$
+declare
+    month_start date;
+    created integer := 0;
+begin
+    for month_start in
+        select generate_series(date_trunc('month', localtimestamp),
+                               date_trunc('month', localtimestamp) + make_interval(months => months_ahead),
+                               interval '1 month')::date
+    loop
+        if create_booking_partition(month_start) then
+            created := created + 1;
+        end if;
+    end loop;
+    return created;
+end $$;
+
+-- Detaches every monthly partition that ends on or before the given date. The detached tables
+-- keep their data and can be archived or dropped independently; returns their names.
+create or replace function detach_booking_partitions_before(cutoff date) returns setof text
+language plpgsql as $$
+declare
+    part text;
+begin
+    for part in
+        select c.relname
+        from pg_inherits i
+        join pg_class c on c.oid = i.inhrelid
+        where i.inhparent = 'bookings'::regclass
+          and c.relname ~ '^bookings_[0-9]{4}_[0-9]{2}$'
+          and to_date(substr(c.relname, 10), 'YYYY_MM') + interval '1 month' <= date_trunc('month', cutoff)
+        order by c.relname
+    loop
+        execute format('alter table bookings detach partition %I', part);
+        return next part;
+    end loop;
+end $$;
+
+-- Partitions for every month that already has bookings, plus the next few
+do $$
+declare
+    month_start date;
+begin
+    for month_start in
+        select generate_series(
+                   date_trunc('month', least(coalesce((select min(start_time) from bookings_unpartitioned), localtimestamp), localtimestamp)),
+                   date_trunc('month', localtimestamp) + interval '3 months',
+                   interval '1 month')::date
+    loop
+        perform create_booking_partition(month_start);
+    end loop;
+end $$;
+
+insert into bookings (created_at, end_time, id, start_time, updated_at, user_id, notes)
+select created_at, end_time, id, start_time, updated_at, user_id, notes
+from bookings_unpartitioned;
+
+drop table bookings_unpartitioned;
+alter sequence bookings_id_seq owned by bookings.id;
+
+-- Planner statistics for the freshly loaded partitions
+analyze bookings;
@@ -0,0 +1,16 @@
+-- Bookings older than bookings.archive.after-days are moved here by BookingArchiveService.
+-- No foreign key to users: archived history outlives deleted accounts.
+create table bookings_archive (
+    id bigint not null,
+    user_id bigint not null,
+    start_time timestamp(6) not null,
+    end_time timestamp(6) not null,
+    notes varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    archived_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index idx_bookings_archive_user_start on bookings_archive (user_id, start_time);
+create index idx_bookings_archive_start on bookings_archive (start_time);
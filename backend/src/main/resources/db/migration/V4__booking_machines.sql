@@ -0,0 +1,12 @@
+-- Bookings name the machines they take. Existing bookings blocked the whole laundry room,
+-- so they keep both.
+alter table bookings add column uses_washer boolean not null default true;
+alter table bookings add column uses_dryer boolean not null default true;
+alter table bookings add constraint chk_bookings_machine check (uses_washer or uses_dryer);
+
+-- Per-machine overlap checks only read that machine's bookings
+create index idx_bookings_washer_start_end on bookings (start_time, end_time) where uses_washer;
+create index idx_bookings_dryer_start_end on bookings (start_time, end_time) where uses_dryer;
+
+alter table bookings_archive add column uses_washer boolean not null default true;
+alter table bookings_archive add column uses_dryer boolean not null default true;
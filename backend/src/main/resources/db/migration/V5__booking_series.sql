@@ -0,0 +1,30 @@
+-- Recurring bookings are stored as a rule; their occurrences are expanded on read
+create table booking_series (
+    id bigserial not null,
+    user_id bigint not null,
+    start_time timestamp(6) not null,
+    duration_minutes integer not null,
+    rrule varchar(255) not null,
+    last_end timestamp(6),
+    uses_washer boolean not null,
+    uses_dryer boolean not null,
+    notes varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id),
+    constraint fk_booking_series_user foreign key (user_id) references users (id) on delete cascade,
+    constraint chk_booking_series_machine check (uses_washer or uses_dryer),
+    constraint chk_booking_series_duration check (duration_minutes > 0)
+);
+
+-- Series that are active somewhere in a range: start_time < :to and (last_end is null or last_end > :from)
+create index idx_booking_series_active on booking_series (start_time, last_end);
+create index idx_booking_series_user on booking_series (user_id);
+
+-- Cancelled single occurrences (EXDATE)
+create table booking_series_exceptions (
+    series_id bigint not null,
+    occurrence_start timestamp(6) not null,
+    primary key (series_id, occurrence_start),
+    constraint fk_booking_series_exceptions_series foreign key (series_id) references booking_series (id) on delete cascade
+);
@@ -0,0 +1,17 @@
+-- Users waiting for a taken slot; the oldest matching entry is booked when the slot frees up
+create table waitlist_entries (
+    id bigserial not null,
+    user_id bigint not null,
+    start_time timestamp(6) not null,
+    end_time timestamp(6) not null,
+    uses_washer boolean not null,
+    uses_dryer boolean not null,
+    notes varchar(255),
+    created_at timestamp(6),
+    primary key (id),
+    constraint fk_waitlist_entries_user foreign key (user_id) references users (id) on delete cascade,
+    constraint chk_waitlist_entries_machine check (uses_washer or uses_dryer)
+);
+
+create index idx_waitlist_entries_start on waitlist_entries (start_time);
+create index idx_waitlist_entries_user on waitlist_entries (user_id);
@@ -0,0 +1,3 @@
+-- Optimistic locking for bookings: every update bumps the version, so a reschedule based on
+-- a stale copy of the booking is refused instead of overwriting someone else's change
+alter table bookings add column version bigint not null default 0;
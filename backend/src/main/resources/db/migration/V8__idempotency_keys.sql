@@ -0,0 +1,17 @@
+-- Responses of mutating requests sent with an Idempotency-Key header, replayed when the same
+-- user retries with the same key. A row without a status is a request still in progress;
+-- expires_at is then a short lease, afterwards the retention of the stored response.
+create table idempotency_keys (
+    idem_key varchar(320) not null,
+    user_id bigint not null,
+    request_hash varchar(64) not null,
+    status_code integer,
+    content_type varchar(100),
+    body text,
+    created_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    primary key (idem_key),
+    constraint fk_idempotency_keys_user foreign key (user_id) references users (id) on delete cascade
+);
+
+create index idx_idempotency_keys_expires on idempotency_keys (expires_at);
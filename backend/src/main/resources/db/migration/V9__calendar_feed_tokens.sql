@@ -0,0 +1,12 @@
+-- Secret tokens in the URLs of the .ics subscription feeds; one per user, replaced on rotation
+-- and deleted on revocation. Only a SHA-256 of the token is stored.
+create table calendar_feed_tokens (
+    id bigserial not null,
+    user_id bigint not null,
+    token_hash varchar(64) not null,
+    created_at timestamp(6),
+    primary key (id),
+    constraint uk_calendar_feed_tokens_hash unique (token_hash),
+    constraint uk_calendar_feed_tokens_user unique (user_id),
+    constraint fk_calendar_feed_tokens_user foreign key (user_id) references users (id) on delete cascade
+);
@@ -0,0 +1,86 @@
+package com.laundry.service;
+
+import com.laundry.dto.BookingBatchConflict;
+import com.laundry.model.Booking;
+import com.laundry.model.Machine;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingBatchTest {
+    
+    private static final LocalDateTime TEN = LocalDateTime.of(2030, 1, 7, 10, 0);
+    
+    @Test
+    void importAcceptsRowOverlappingOnlyASkippedRow() {
+        MachineTimeline taken = new MachineTimeline(List.of(booking(TEN, TEN.plusHours(1), Machine.WASHER)));
+        // A clashes with the existing booking; B overlaps only A
+        Booking a = booking(TEN.plusMinutes(30), TEN.plusMinutes(90), Machine.WASHER);
+        Booking b = booking(TEN.plusMinutes(75), TEN.plusHours(2), Machine.WASHER);
+        
+        List<BookingBatchConflict> conflicts = BookingBatch.importConflicts(List.of(a, b), taken);
+        
+        assertThat(conflicts).extracting(BookingBatchConflict::getIndex).containsExactly(0);
+        assertThat(conflicts.get(0).getConflictingIndex()).isNull();
+    }
+    
+    @Test
+    void importRowRejectedOnOneMachineDoesNotBlockItsOtherMachine() {
+        MachineTimeline taken = new MachineTimeline(List.of(booking(TEN, TEN.plusHours(1), Machine.DRYER)));
+        Booking both = booking(TEN.plusMinutes(30), TEN.plusMinutes(90), Machine.WASHER, Machine.DRYER);
+        Booking washer = booking(TEN.plusHours(1), TEN.plusHours(2), Machine.WASHER);
+        
+        List<BookingBatchConflict> conflicts = BookingBatch.importConflicts(List.of(both, washer), taken);
+        
+        assertThat(conflicts).extracting(BookingBatchConflict::getIndex).containsExactly(0);
+        assertThat(conflicts.get(0).getMachine()).isEqualTo(Machine.DRYER);
+    }
+    
+    @Test
+    void importRowAcceptedBeforeBlocksLaterOverlappingRow() {
+        MachineTimeline taken = new MachineTimeline(List.of());
+        Booking first = booking(TEN, TEN.plusHours(1), Machine.WASHER, Machine.DRYER);
+        Booking second = booking(TEN.plusMinutes(30), TEN.plusHours(2), Machine.DRYER);
+        
+        List<BookingBatchConflict> conflicts = BookingBatch.importConflicts(List.of(second, first), taken);
+        
+        assertThat(conflicts).hasSize(1);
+        assertThat(conflicts.get(0).getIndex()).isEqualTo(0);
+        assertThat(conflicts.get(0).getConflictingIndex()).isEqualTo(1);
+    }
+    
+    @Test
+    void importReportsOneConflictPerRow() {
+        MachineTimeline taken = new MachineTimeline(List.of(booking(TEN, TEN.plusHours(1), Machine.WASHER, Machine.DRYER)));
+        Booking clashing = booking(TEN, TEN.plusHours(1), Machine.WASHER, Machine.DRYER);
+        
+        List<BookingBatchConflict> conflicts = BookingBatch.importConflicts(List.of(clashing), taken);
+        
+        assertThat(conflicts).hasSize(1);
+        assertThat(conflicts.get(0).getMachine()).isEqualTo(Machine.WASHER);
+    }
+    
+    // All or nothing: nothing is inserted anyway, so every overlap inside the batch is reported
+    @Test
+    void batchReportsOverlapWithRejectedItem() {
+        MachineTimeline taken = new MachineTimeline(List.of(booking(TEN, TEN.plusHours(1), Machine.WASHER)));
+        Booking a = booking(TEN.plusMinutes(30), TEN.plusMinutes(90), Machine.WASHER);
+        Booking b = booking(TEN.plusMinutes(75), TEN.plusHours(2), Machine.WASHER);
+        
+        List<BookingBatchConflict> conflicts = BookingBatch.conflicts(List.of(a, b), taken);
+        
+        assertThat(conflicts).extracting(BookingBatchConflict::getIndex).containsExactly(0, 1);
+    }
+    
+    private static Booking booking(LocalDateTime start, LocalDateTime end, Machine first, Machine... rest) {
+        Booking booking = new Booking();
+        booking.setStartTime(start);
+        booking.setEndTime(end);
+        booking.setMachines(EnumSet.of(first, rest));
+        return booking;
+    }
+}
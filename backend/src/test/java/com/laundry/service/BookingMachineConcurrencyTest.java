@@ -0,0 +1,154 @@
+package com.laundry.service;
+
+import com.laundry.dto.BookingRequest;
+import com.laundry.model.Household;
+import com.laundry.model.Machine;
+import com.laundry.model.User;
+import com.laundry.repository.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Booking writes in one household only serialize per machine (MachineLocks): a washer booking
+// whose transaction is still open must not hold up a dryer booking, while a second washer
+// booking for the same slot waits and then loses. Runs against embedded PostgreSQL, since the
+// locks are Postgres advisory locks.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BookingMachineConcurrencyTest {
+    
+    private static final AtomicInteger userSequence = new AtomicInteger();
+    
+    private static EmbeddedPostgres postgres;
+    
+    @Autowired
+    private BookingService bookingService;
+    
+    @Autowired
+    private CalendarVersion calendarVersion;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch washerBooked = new CountDownLatch(1);
+    private final CountDownLatch releaseWasher = new CountDownLatch(1);
+    private LocalDateTime start;
+    
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        // Shuts down with the JVM, after the cached application context
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("homeassistant.enabled", () -> "false");
+        registry.add("homeassistant.snapshot.file", () -> "target/machine-snapshot.json");
+        registry.add("warmup.enabled", () -> "false");
+    }
+    
+    @BeforeEach
+    void pickSlot() {
+        // A fresh slot per test, so the tests don't see each other's bookings
+        start = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusDays(1 + userSequence.get());
+    }
+    
+    @AfterEach
+    void stopExecutor() {
+        releaseWasher.countDown();
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void dryerBookingDoesNotWaitForOpenWasherBooking() throws Exception {
+        Long alice = createUser();
+        Long bob = createUser();
+        long versionBefore = calendarVersion.current(Household.DEFAULT_ID);
+        
+        Future<?> washer = bookWasherAndHoldTransaction(alice);
+        
+        Future<?> dryer = executor.submit(() -> bookingService.createBooking(bob, request(Machine.DRYER)));
+        dryer.get(5, TimeUnit.SECONDS);
+        
+        releaseWasher.countDown();
+        washer.get(10, TimeUnit.SECONDS);
+        // Both commits still invalidate the household's cached calendar
+        assertThat(calendarVersion.current(Household.DEFAULT_ID)).isEqualTo(versionBefore + 2);
+    }
+    
+    @Test
+    void secondWasherBookingWaitsAndThenLoses() throws Exception {
+        Long alice = createUser();
+        Long bob = createUser();
+        
+        Future<?> washer = bookWasherAndHoldTransaction(alice);
+        
+        Future<?> secondWasher = executor.submit(() -> bookingService.createBooking(bob, request(Machine.WASHER)));
+        assertThatThrownBy(() -> secondWasher.get(1, TimeUnit.SECONDS)).isInstanceOf(TimeoutException.class);
+        
+        releaseWasher.countDown();
+        washer.get(10, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> secondWasher.get(10, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasMessageContaining("overlaps");
+    }
+    
+    // Books the washer and keeps the transaction (and its machine lock) open until released
+    private Future<?> bookWasherAndHoldTransaction(Long userId) throws InterruptedException {
+        Future<?> washer = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            bookingService.createBooking(userId, request(Machine.WASHER));
+            washerBooked.countDown();
+            try {
+                releaseWasher.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(washerBooked.await(10, TimeUnit.SECONDS)).isTrue();
+        return washer;
+    }
+    
+    private BookingRequest request(Machine machine) {
+        BookingRequest request = new BookingRequest();
+        request.setStartTime(start);
+        request.setEndTime(start.plusHours(1));
+        request.setMachines(EnumSet.of(machine));
+        return request;
+    }
+    
+    private Long createUser() {
+        int n = userSequence.incrementAndGet();
+        User user = new User();
+        user.setHouseholdId(Household.DEFAULT_ID);
+        user.setUsername("concurrency" + n);
+        user.setEmail("concurrency" + n + "@example.com");
+        user.setPassword("not-a-real-hash");
+        user.setFirstName("User");
+        user.setLastName(Integer.toString(n));
+        return userRepository.save(user).getId();
+    }
+}
@@ -0,0 +1,171 @@
+package com.laundry.service;
+
+import com.laundry.mail.RenderedEmail;
+import com.laundry.model.OutboxEmail;
+import com.laundry.model.OutboxStatus;
+import com.laundry.repository.OutboxEmailRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static java.time.temporal.ChronoUnit.SECONDS;
+
+// Runs the dispatcher against the real schema (embedded PostgreSQL, for FOR UPDATE SKIP LOCKED)
+// and a fake SMTP relay on a local socket. The scheduled poll is pushed out of the way, so each
+// test drives dispatch() itself.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class EmailOutboxDispatcherTest {
+    
+    private static final long BASE_BACKOFF_MS = 30_000;
+    
+    private static EmbeddedPostgres postgres;
+    private static FakeSmtpServer smtp;
+    
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+    
+    @Autowired
+    private EmailOutboxService outboxService;
+    
+    @Autowired
+    private OutboxEmailRepository outboxRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        // Both shut down with the JVM, after the cached application context
+        postgres = EmbeddedPostgres.builder().start();
+        smtp = new FakeSmtpServer();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.mail.host", () -> "127.0.0.1");
+        registry.add("spring.mail.port", smtp::port);
+        registry.add("spring.mail.username", () -> "");
+        registry.add("spring.mail.password", () -> "");
+        registry.add("spring.mail.properties.mail.smtp.auth", () -> "false");
+        registry.add("spring.mail.properties.mail.smtp.starttls.enable", () -> "false");
+        registry.add("email.outbox.poll-interval-ms", () -> "3600000");
+        registry.add("email.outbox.base-backoff-ms", () -> BASE_BACKOFF_MS);
+        registry.add("homeassistant.enabled", () -> "false");
+        registry.add("homeassistant.snapshot.file", () -> "target/machine-snapshot.json");
+        registry.add("warmup.enabled", () -> "false");
+    }
+    
+    @BeforeEach
+    void clearOutbox() {
+        outboxRepository.deleteAll();
+        smtp.reset();
+    }
+    
+    @Test
+    void bulkSendMarksEveryRowSent() {
+        Long first = enqueue("alice@example.com");
+        Long second = enqueue("bob@example.com");
+        Long third = enqueue("carol@example.com");
+        
+        dispatcher.dispatch();
+        
+        assertThat(smtp.delivered())
+            .containsExactlyInAnyOrder("alice@example.com", "bob@example.com", "carol@example.com");
+        assertThat(smtp.sessionCount()).isEqualTo(1);
+        for (Long id : new Long[] { first, second, third }) {
+            OutboxEmail email = reload(id);
+            assertThat(email.getStatus()).isEqualTo(OutboxStatus.SENT);
+            assertThat(email.getAttempts()).isEqualTo(1);
+            assertThat(email.getSentAt()).isNotNull();
+            assertThat(email.getLastError()).isNull();
+        }
+    }
+    
+    @Test
+    void rejectedRecipientIsRetriedAloneWithBackoff() {
+        smtp.reject("bounce@example.com");
+        Long good = enqueue("alice@example.com");
+        Long bad = enqueue("bounce@example.com");
+        Long alsoGood = enqueue("carol@example.com");
+        
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+        
+        // The relay refused one mailbox; JavaMailSender reports it in MailSendException.failedMessages
+        assertThat(smtp.delivered()).containsExactlyInAnyOrder("alice@example.com", "carol@example.com");
+        assertThat(reload(good).getStatus()).isEqualTo(OutboxStatus.SENT);
+        assertThat(reload(alsoGood).getStatus()).isEqualTo(OutboxStatus.SENT);
+        OutboxEmail failed = reload(bad);
+        assertThat(failed.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).isNotBlank();
+        assertThat(failed.getNextAttemptAt()).isCloseTo(before.plusNanos(BASE_BACKOFF_MS * 1_000_000), within(5, SECONDS));
+        
+        // Not due yet, so nothing goes out
+        smtp.reset();
+        dispatcher.dispatch();
+        assertThat(smtp.delivered()).isEmpty();
+        
+        // Once due, only the failed row is sent again
+        update(bad, email -> email.setNextAttemptAt(LocalDateTime.now().minusSeconds(1)));
+        dispatcher.dispatch();
+        
+        assertThat(smtp.delivered()).containsExactly("bounce@example.com");
+        OutboxEmail retried = reload(bad);
+        assertThat(retried.getStatus()).isEqualTo(OutboxStatus.SENT);
+        assertThat(retried.getAttempts()).isEqualTo(2);
+    }
+    
+    @Test
+    void sendingRowWithExpiredLeaseIsClaimedAgain() {
+        // Claimed by a dispatcher that died mid-send, and one that is still within its lease
+        Long abandoned = enqueue("alice@example.com");
+        update(abandoned, email -> {
+            email.setStatus(OutboxStatus.SENDING);
+            email.setAttempts(1);
+            email.setNextAttemptAt(LocalDateTime.now().minusMinutes(1));
+        });
+        Long inFlight = enqueue("bob@example.com");
+        LocalDateTime leaseUntil = LocalDateTime.now().plusMinutes(1);
+        update(inFlight, email -> {
+            email.setStatus(OutboxStatus.SENDING);
+            email.setAttempts(1);
+            email.setNextAttemptAt(leaseUntil);
+        });
+        
+        dispatcher.dispatch();
+        
+        assertThat(smtp.delivered()).containsExactly("alice@example.com");
+        OutboxEmail reclaimed = reload(abandoned);
+        assertThat(reclaimed.getStatus()).isEqualTo(OutboxStatus.SENT);
+        assertThat(reclaimed.getAttempts()).isEqualTo(2);
+        OutboxEmail untouched = reload(inFlight);
+        assertThat(untouched.getStatus()).isEqualTo(OutboxStatus.SENDING);
+        assertThat(untouched.getAttempts()).isEqualTo(1);
+    }
+    
+    private Long enqueue(String recipient) {
+        RenderedEmail rendered = new RenderedEmail("Laundry reminder", "Your slot starts soon", "<p>Your slot starts soon</p>");
+        return transactionTemplate.execute(status -> outboxService.enqueue(recipient, rendered).getId());
+    }
+    
+    private void update(Long id, Consumer<OutboxEmail> change) {
+        OutboxEmail email = reload(id);
+        change.accept(email);
+        outboxRepository.save(email);
+    }
+    
+    private OutboxEmail reload(Long id) {
+        return outboxRepository.findById(id).orElseThrow();
+    }
+}
@@ -0,0 +1,129 @@
+package com.laundry.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Minimal SMTP stand-in without auth or TLS. Records the recipients of every accepted message
+// and answers RCPT with 550 for addresses marked as rejected, like a relay refusing a mailbox.
+class FakeSmtpServer implements AutoCloseable {
+    
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+    private final Set<String> rejected = ConcurrentHashMap.newKeySet();
+    private volatile boolean running = true;
+    
+    FakeSmtpServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "fake-smtp-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+    
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+    
+    int sessionCount() {
+        return sessions.get();
+    }
+    
+    List<String> delivered() {
+        return List.copyOf(delivered);
+    }
+    
+    void reject(String recipient) {
+        rejected.add(recipient);
+    }
+    
+    void reset() {
+        delivered.clear();
+        rejected.clear();
+        sessions.set(0);
+    }
+    
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> handle(socket));
+            } catch (IOException e) {
+                // Closed
+            }
+        }
+    }
+    
+    private void handle(Socket socket) {
+        sessions.incrementAndGet();
+        List<String> recipients = new ArrayList<>();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            reply(out, "220 localhost fake SMTP ready");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO", "NOOP" -> reply(out, "250 localhost");
+                    case "MAIL", "RSET" -> {
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        String recipient = line.substring(line.indexOf('<') + 1, line.lastIndexOf('>'));
+                        if (rejected.contains(recipient)) {
+                            reply(out, "550 No such user");
+                        } else {
+                            recipients.add(recipient);
+                            reply(out, "250 OK");
+                        }
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Message content is discarded
+                        }
+                        delivered.addAll(recipients);
+                        recipients.clear();
+                        reply(out, "250 OK queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+    
+    private void reply(Writer out, String line) throws IOException {
+        out.write(line + "\r\n");
+        out.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+}
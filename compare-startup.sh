@@ -0,0 +1,56 @@
+#!/bin/bash
+# Compares startup time and resident memory of the JVM and native backend images.
+# Usage: ./compare-startup.sh [runs]   (needs the laundry-postgres container from docker compose)
+
+RUNS=${1:-3}
+IMAGES="jvm native"
+
+echo "Laundry Scheduler startup comparison ($RUNS runs per image)"
+echo "=========================================================="
+echo ""
+
+if ! docker compose up -d laundry-postgres > /dev/null; then
+    echo "❌ Could not start laundry-postgres"
+    exit 1
+fi
+NETWORK=$(docker inspect laundry-postgres --format '{{range $name, $net := .NetworkSettings.Networks}}{{$name}}{{end}}')
+
+for target in $IMAGES; do
+    echo "🔨 Building $target image..."
+    if ! docker build -q --target "$target" -t "laundry-backend:$target" backend > /dev/null; then
+        echo "❌ Build failed for $target"
+        exit 1
+    fi
+done
+echo ""
+
+printf "%-8s %-5s %-16s %-18s %-12s\n" "image" "run" "ready (wall, s)" "Spring reported" "RSS"
+for target in $IMAGES; do
+    for run in $(seq 1 "$RUNS"); do
+        start=$(date +%s.%N)
+        container=$(docker run -d --network "$NETWORK" \
+            -e DB_HOST=laundry-postgres \
+            -e DB_NAME="${DB_NAME:-laundry_db}" \
+            -e DB_USER="${DB_USER:-laundry_user}" \
+            -e DB_PASSWORD="${DB_PASSWORD:-laundry_pass}" \
+            -e HA_ENABLED=false \
+            "laundry-backend:$target")
+
+        # Wait up to two minutes for the startup log line
+        for _ in $(seq 1 1200); do
+            if docker logs "$container" 2>&1 | grep -q "Started LaundrySchedulerApplication"; then
+                break
+            fi
+            sleep 0.1
+        done
+        ready=$(echo "$(date +%s.%N) - $start" | bc)
+        reported=$(docker logs "$container" 2>&1 | grep -o "Started LaundrySchedulerApplication in [0-9.]* seconds" | grep -o "[0-9.]* seconds")
+
+        # Let schedulers and pools settle before sampling memory
+        sleep 10
+        rss=$(docker stats --no-stream --format '{{.MemUsage}}' "$container" | cut -d/ -f1)
+
+        printf "%-8s %-5s %-16.2f %-18s %-12s\n" "$target" "$run" "$ready" "${reported:-timeout}" "$rss"
+        docker rm -f "$container" > /dev/null
+    done
+done
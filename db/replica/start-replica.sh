@@ -0,0 +1,16 @@
+#!/bin/sh
+# Entry point of the laundry-postgres-replica container: clone the primary once with
+# pg_basebackup (-R writes standby.signal and primary_conninfo), then run as a hot standby.
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+    mkdir -p "$PGDATA"
+    chown postgres:postgres "$PGDATA"
+    chmod 0700 "$PGDATA"
+    until su-exec postgres pg_basebackup -h "$PRIMARY_HOST" -U "$PRIMARY_USER" -D "$PGDATA" -R -X stream; do
+        echo "Waiting for primary $PRIMARY_HOST..."
+        sleep 2
+    done
+fi
+
+exec su-exec postgres postgres -c hot_standby=on
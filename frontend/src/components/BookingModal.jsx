@@ -1,8 +1,9 @@
-import React, { useState } from 'react'
+import React, { useState, useEffect, useRef } from 'react'
 import axios from 'axios'
 import toast from 'react-hot-toast'
 import moment from 'moment'
 import { useAuth } from '../context/AuthContext'
+import { useIdempotencyKey } from '../utils/idempotency'
 
 function BookingModal({ slot, onClose, onSuccess }) {
   const { user } = useAuth()
@@ -13,7 +14,38 @@ function BookingModal({ slot, onClose, onSuccess }) {
     slot?.end ? moment(slot.end).format('YYYY-MM-DDTHH:mm') : ''
   )
   const [notes, setNotes] = useState('')
+  const [machines, setMachines] = useState('WASHER,DRYER')
+  const [repeat, setRepeat] = useState('')
+  const [hold, setHold] = useState(null)
+  const [slotTaken, setSlotTaken] = useState(false)
   const [loading, setLoading] = useState(false)
+  const holdRef = useRef(null)
+  const idempotencyHeaders = useIdempotencyKey()
+
+  // Hold the slot picked on the calendar while the form is open, so nobody takes it meanwhile
+  useEffect(() => {
+    if (slot?.start && slot?.end) {
+      axios.post('/api/bookings/holds', {
+        startTime: startTime + ':00',
+        endTime: endTime + ':00',
+        machines: machines.split(',')
+      }).then(response => {
+        holdRef.current = response.data
+        setHold(response.data)
+      }).catch(() => {})
+    }
+    return () => {
+      if (holdRef.current) {
+        axios.delete(`/api/bookings/holds/${holdRef.current.holdId}`).catch(() => {})
+      }
+    }
+  }, [])
+
+  const holdMatchesForm = () =>
+    hold && !repeat &&
+    hold.startTime.startsWith(startTime) &&
+    hold.endTime.startsWith(endTime) &&
+    [...hold.machines].sort().join(',') === machines.split(',').sort().join(',')
 
   const handleSubmit = async (e) => {
     e.preventDefault()
@@ -28,25 +60,61 @@ function BookingModal({ slot, onClose, onSuccess }) {
     try {
       // Send datetime as-is without timezone conversion
       // Backend will handle timezone interpretation
-      await axios.post('/api/bookings', {
+      const booking = {
         startTime: startTime + ':00',
         endTime: endTime + ':00',
-        notes
-      })
+        notes,
+        machines: machines.split(',')
+      }
+      if (holdMatchesForm()) {
+        await axios.post(`/api/bookings/holds/${hold.holdId}/confirm`, null, {
+          params: { notes },
+          headers: idempotencyHeaders('confirm', hold.holdId, notes)
+        })
+        holdRef.current = null
+      } else if (repeat) {
+        await axios.post('/api/bookings/series', { ...booking, rrule: repeat })
+      } else {
+        await axios.post('/api/bookings', booking, { headers: idempotencyHeaders('create', booking) })
+      }
 
-      toast.success('Booking created successfully!')
+      toast.success(repeat ? 'Recurring booking created successfully!' : 'Booking created successfully!')
       onSuccess()
     } catch (error) {
+      setSlotTaken(!repeat && typeof error.response?.data === 'string' && error.response.data.includes('overlaps'))
       toast.error(error.response?.data || 'Failed to create booking')
     } finally {
       setLoading(false)
     }
   }
 
+  const handleJoinWaitlist = async () => {
+    setLoading(true)
+    try {
+      await axios.post('/api/waitlist', {
+        startTime: startTime + ':00',
+        endTime: endTime + ':00',
+        notes,
+        machines: machines.split(',')
+      })
+      toast.success("You're on the waitlist; we'll book it for you if it frees up")
+      onClose()
+    } catch (error) {
+      toast.error(error.response?.data || 'Failed to join the waitlist')
+    } finally {
+      setLoading(false)
+    }
+  }
+
   return (
     <div className="fixed inset-0 bg-black bg-opacity-50 flex items-center justify-center z-50 p-4">
       <div className="bg-white rounded-2xl shadow-2xl max-w-md w-full p-6">
         <h2 className="text-2xl font-bold text-gray-900 mb-4">Book Laundry Time</h2>
+        {holdMatchesForm() && (
+          <p className="text-sm text-green-700 mb-4">
+            This slot is held for you until {moment(hold.expiresAt).format('h:mm A')}.
+          </p>
+        )}
         
         <form onSubmit={handleSubmit} className="space-y-4">
           <div>
@@ -75,6 +143,37 @@ function BookingModal({ slot, onClose, onSuccess }) {
             />
           </div>
 
+          <div>
+            <label className="block text-sm font-medium text-gray-700 mb-1">
+              Machines
+            </label>
+            <select
+              value={machines}
+              onChange={(e) => setMachines(e.target.value)}
+              className="w-full px-3 py-2 border border-gray-300 rounded-md focus:outline-none focus:ring-primary-500 focus:border-primary-500"
+            >
+              <option value="WASHER,DRYER">Washer + dryer</option>
+              <option value="WASHER">Washer only</option>
+              <option value="DRYER">Dryer only</option>
+            </select>
+          </div>
+
+          <div>
+            <label className="block text-sm font-medium text-gray-700 mb-1">
+              Repeat
+            </label>
+            <select
+              value={repeat}
+              onChange={(e) => setRepeat(e.target.value)}
+              className="w-full px-3 py-2 border border-gray-300 rounded-md focus:outline-none focus:ring-primary-500 focus:border-primary-500"
+            >
+              <option value="">Does not repeat</option>
+              <option value="FREQ=WEEKLY;COUNT=12">Every week, 12 times</option>
+              <option value="FREQ=WEEKLY;INTERVAL=2;COUNT=6">Every other week, 6 times</option>
+              <option value="FREQ=WEEKLY">Every week until cancelled</option>
+            </select>
+          </div>
+
           <div>
             <label className="block text-sm font-medium text-gray-700 mb-1">
               Notes (optional)
@@ -88,6 +187,17 @@ function BookingModal({ slot, onClose, onSuccess }) {
             />
           </div>
 
+          {slotTaken && (
+            <button
+              type="button"
+              onClick={handleJoinWaitlist}
+              disabled={loading}
+              className="w-full px-4 py-2 bg-amber-500 text-white rounded-md hover:bg-amber-600 transition-colors disabled:opacity-50"
+            >
+              Slot taken - join the waitlist
+            </button>
+          )}
+
           <div className="flex gap-3 pt-4">
             <button
               type="button"
@@ -1,14 +1,39 @@
-import React, { useState } from 'react'
+import React, { useState, useEffect, useRef } from 'react'
 import axios from 'axios'
 import toast from 'react-hot-toast'
 import moment from 'moment'
 import { useAuth } from '../context/AuthContext'
+import { useIdempotencyKey } from '../utils/idempotency'
 
 function NextAvailableModal({ onClose, onSuccess }) {
   const { user } = useAuth()
   const [duration, setDuration] = useState(120) // Default 2 hours
   const [notes, setNotes] = useState('')
   const [loading, setLoading] = useState(false)
+  const [hold, setHold] = useState(null)
+  const holdRef = useRef(null)
+  const idempotencyHeaders = useIdempotencyKey()
+
+  const releaseHold = () => {
+    if (holdRef.current) {
+      axios.delete(`/api/bookings/holds/${holdRef.current.holdId}`).catch(() => {})
+      holdRef.current = null
+    }
+  }
+
+  // Hold the slot that would be booked, so it can't be taken while the dialog is open
+  useEffect(() => {
+    releaseHold()
+    setHold(null)
+    axios.post('/api/bookings/holds/next-available', null, {
+      params: { durationMinutes: duration }
+    }).then(response => {
+      holdRef.current = response.data
+      setHold(response.data)
+    }).catch(() => {})
+  }, [duration])
+
+  useEffect(() => releaseHold, [])
 
   const handleSubmit = async (e) => {
     e.preventDefault()
@@ -21,12 +46,20 @@ function NextAvailableModal({ onClose, onSuccess }) {
     setLoading(true)
 
     try {
-      const response = await axios.post('/api/bookings/next-available', null, {
-        params: {
-          durationMinutes: duration,
-          notes: notes || 'Auto-booked next available slot'
-        }
-      })
+      const bookingNotes = notes || 'Auto-booked next available slot'
+      const response = hold
+        ? await axios.post(`/api/bookings/holds/${hold.holdId}/confirm`, null, {
+            params: { notes: bookingNotes },
+            headers: idempotencyHeaders('confirm', hold.holdId, bookingNotes)
+          })
+        : await axios.post('/api/bookings/next-available', null, {
+            params: {
+              durationMinutes: duration,
+              notes: bookingNotes
+            },
+            headers: idempotencyHeaders('next-available', duration, bookingNotes)
+          })
+      holdRef.current = null
 
       toast.success(`Booked next available slot: ${moment(response.data.startTime).format('MMM Do, h:mm A')}`)
       onSuccess()
@@ -83,6 +116,13 @@ function NextAvailableModal({ onClose, onSuccess }) {
             />
           </div>
 
+          {hold && (
+            <p className="text-sm text-green-700">
+              Next free slot: <strong>{moment(hold.startTime).format('ddd MMM Do, h:mm A')}</strong>,
+              held for you until {moment(hold.expiresAt).format('h:mm A')}.
+            </p>
+          )}
+
           <div className="bg-blue-50 p-3 rounded-md">
             <p className="text-sm text-blue-800">
               <strong>Search criteria:</strong>
@@ -3,14 +3,17 @@ import { useAuth } from '../context/AuthContext'
 import { useNavigate } from 'react-router-dom'
 import axios from 'axios'
 import { Calendar, momentLocalizer } from 'react-big-calendar'
+import withDragAndDrop from 'react-big-calendar/lib/addons/dragAndDrop'
 import moment from 'moment'
 import 'react-big-calendar/lib/css/react-big-calendar.css'
+import 'react-big-calendar/lib/addons/dragAndDrop/styles.css'
 import toast from 'react-hot-toast'
 import BookingModal from '../components/BookingModal'
 import NextAvailableModal from '../components/NextAvailableModal'
 import MachineStatus from '../components/MachineStatus'
 
 const localizer = momentLocalizer(moment)
+const DragAndDropCalendar = withDragAndDrop(Calendar)
 
 function Dashboard() {
   const { user, logout } = useAuth()
@@ -39,8 +42,9 @@ function Dashboard() {
         }
       })
       
+      // Occurrences of a recurring booking have no id of their own
       const events = response.data.map(booking => ({
-        id: booking.id,
+        id: booking.id ?? `${booking.seriesId}@${booking.startTime}`,
         title: `${booking.firstName || booking.username} ${booking.lastName || ''}`.trim(),
         start: new Date(booking.startTime),
         end: new Date(booking.endTime),
@@ -80,13 +84,22 @@ function Dashboard() {
     setShowNextAvailableModal(true)
   }
 
-  const handleDeleteBooking = async (bookingId) => {
-    if (!window.confirm('Are you sure you want to delete this booking?')) {
+  const handleDeleteBooking = async (booking) => {
+    const occurrence = booking.seriesId != null
+    if (!window.confirm(occurrence
+      ? 'Cancel this occurrence of the recurring booking?'
+      : 'Are you sure you want to delete this booking?')) {
       return
     }
 
     try {
-      await axios.delete(`/api/bookings/${bookingId}`)
+      if (occurrence) {
+        await axios.delete(`/api/bookings/series/${booking.seriesId}/occurrences`, {
+          params: { start: booking.startTime }
+        })
+      } else {
+        await axios.delete(`/api/bookings/${booking.id}`)
+      }
       toast.success('Booking deleted successfully')
       fetchBookings()
       setShowBookingDetails(false)
@@ -96,6 +109,55 @@ function Dashboard() {
     }
   }
 
+  // Occurrences of a recurring booking can't be moved on their own
+  const canMove = (event) =>
+    event.resource.id != null && (user?.isAdmin || event.resource.userId === user?.id)
+
+  const handleMoveBooking = async ({ event, start, end }) => {
+    try {
+      await axios.patch(`/api/bookings/${event.resource.id}`, {
+        startTime: moment(start).format('YYYY-MM-DDTHH:mm:ss'),
+        endTime: moment(end).format('YYYY-MM-DDTHH:mm:ss'),
+        version: event.resource.version
+      })
+      toast.success('Booking moved')
+    } catch (error) {
+      toast.error(error.response?.data || 'Failed to move booking')
+    }
+    fetchBookings()
+  }
+
+  const handleDeleteSeries = async (seriesId) => {
+    if (!window.confirm('Delete every occurrence of this recurring booking?')) {
+      return
+    }
+
+    try {
+      await axios.delete(`/api/bookings/series/${seriesId}`)
+      toast.success('Recurring booking deleted successfully')
+      fetchBookings()
+      setShowBookingDetails(false)
+      setSelectedBooking(null)
+    } catch (error) {
+      toast.error(error.response?.data || 'Failed to delete recurring booking')
+    }
+  }
+
+  // Shown once; getting a new link stops the old one from working
+  const handleCalendarFeed = async () => {
+    if (!window.confirm('Get a link to subscribe to the laundry calendar on your phone? Any link you got before will stop working.')) {
+      return
+    }
+
+    try {
+      const response = await axios.post('/api/calendar-feed/token')
+      const url = `${window.location.origin}/api${response.data.householdPath}`
+      window.prompt('Subscribe to this URL in your calendar app (my-bookings.ics instead of household.ics shows only yours):', url)
+    } catch (error) {
+      toast.error(error.response?.data || 'Failed to create calendar link')
+    }
+  }
+
   const handleLogout = () => {
     logout()
     navigate('/login')
@@ -127,6 +189,12 @@ function Dashboard() {
                   Admin Panel
                 </button>
               )}
+              <button
+                onClick={handleCalendarFeed}
+                className="px-4 py-2 bg-blue-600 text-white rounded-lg hover:bg-blue-700 transition-colors"
+              >
+                Calendar Feed
+              </button>
               <button
                 onClick={handleLogout}
                 className="px-4 py-2 bg-gray-600 text-white rounded-lg hover:bg-gray-700 transition-colors"
@@ -161,13 +229,17 @@ function Dashboard() {
           </div>
 
           <div className="h-[600px]">
-            <Calendar
+            <DragAndDropCalendar
               localizer={localizer}
               events={bookings}
               startAccessor="start"
               endAccessor="end"
               onSelectSlot={handleSelectSlot}
               onSelectEvent={handleSelectEvent}
+              draggableAccessor={canMove}
+              resizableAccessor={canMove}
+              onEventDrop={handleMoveBooking}
+              onEventResize={handleMoveBooking}
               selectable
               style={{ height: '100%' }}
               defaultView="week"
@@ -231,12 +303,20 @@ function Dashboard() {
             <div className="flex justify-between pt-4">
               {(user?.isAdmin || selectedBooking.userId === user?.id) && (
                 <button
-                  onClick={() => handleDeleteBooking(selectedBooking.id)}
+                  onClick={() => handleDeleteBooking(selectedBooking)}
                   className="px-4 py-2 bg-red-600 text-white rounded-md hover:bg-red-700 transition-colors"
                 >
                   Delete
                 </button>
               )}
+              {selectedBooking.seriesId != null && (user?.isAdmin || selectedBooking.userId === user?.id) && (
+                <button
+                  onClick={() => handleDeleteSeries(selectedBooking.seriesId)}
+                  className="px-4 py-2 bg-red-800 text-white rounded-md hover:bg-red-900 transition-colors ml-2"
+                >
+                  Delete series
+                </button>
+              )}
               <button
                 onClick={() => {
                   setShowBookingDetails(false)
@@ -0,0 +1,16 @@
+import { useRef } from 'react'
+
+// Returns a function giving the Idempotency-Key header for a request. Submitting the same
+// request again (e.g. after a timeout on flaky Wi-Fi) reuses the key, so the backend replays
+// the first response instead of booking twice; a changed request gets a fresh key.
+export function useIdempotencyKey() {
+  const last = useRef(null)
+
+  return (...request) => {
+    const fingerprint = JSON.stringify(request)
+    if (last.current?.fingerprint !== fingerprint) {
+      last.current = { fingerprint, key: crypto.randomUUID() }
+    }
+    return { 'Idempotency-Key': last.current.key }
+  }
+}